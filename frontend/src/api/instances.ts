@@ -3,6 +3,7 @@ import type {
   TemplateInstance,
   InstanceStatus,
   InstanceFieldValue,
+  CursorPage,
   AddFieldValueRequest,
   SplitMode,
 } from "@/types"
@@ -26,8 +27,11 @@ export const getInstancesByStatus = (templateId: string, status: InstanceStatus)
     .get<TemplateInstance[]>(`/instances/template/${templateId}/status/${status}`)
     .then((r) => r.data)
 
-export const getAllInstances = () =>
-  client.get<TemplateInstance[]>(`/instances`).then((r) => r.data)
+// One by-status request per template, merged; the UI never needs every instance at once
+export const getInstancesByStatusForTemplates = (templateIds: string[], status: InstanceStatus) =>
+  Promise.all(templateIds.map((templateId) => getInstancesByStatus(templateId, status))).then(
+    (lists) => lists.flat()
+  )
 
 export const renameInstance = (id: string, name: string) =>
   client
@@ -44,9 +48,11 @@ export const deleteInstance = (id: string) =>
   client.delete(`/instances/${id}`)
 
 // Field Values
-export const getFieldValues = (instanceId: string) =>
+export const getFieldValuePage = (instanceId: string, cursor?: string) =>
   client
-    .get<InstanceFieldValue[]>(`/instances/${instanceId}/field-values`)
+    .get<CursorPage<InstanceFieldValue>>(`/instances/${instanceId}/field-values`, {
+      params: { cursor },
+    })
     .then((r) => r.data)
 
 export const getFieldValuesByField = (instanceId: string, templateFieldId: string) =>
@@ -1,17 +1,26 @@
-import { useQuery, useMutation, useQueryClient } from "@tanstack/react-query"
+import { useQuery, useInfiniteQuery, useMutation, useQueryClient } from "@tanstack/react-query"
 import * as api from "@/api/instances"
+import { useTemplates } from "@/hooks/useTemplates"
+import type { InstanceStatus } from "@/types"
 
 export const INSTANCE_KEYS = {
   all: ["instances"] as const,
+  byStatus: (status: InstanceStatus, templateIds: string[]) =>
+    ["instances", "status", status, templateIds] as const,
   detail: (id: string) => ["instances", id] as const,
   fieldValues: (instanceId: string) => ["instances", instanceId, "field-values"] as const,
 }
 
-export function useAllInstances() {
-  return useQuery({
-    queryKey: INSTANCE_KEYS.all,
-    queryFn: api.getAllInstances,
+// The user's instances in one status, across all of their templates
+export function useInstancesByStatus(status: InstanceStatus) {
+  const { data: templates, isLoading: templatesLoading } = useTemplates()
+  const templateIds = (templates ?? []).map((t) => t.id)
+  const query = useQuery({
+    queryKey: INSTANCE_KEYS.byStatus(status, templateIds),
+    queryFn: () => api.getInstancesByStatusForTemplates(templateIds, status),
+    enabled: !!templates,
   })
+  return { ...query, isLoading: templatesLoading || query.isLoading }
 }
 
 export function useInstance(id: string) {
@@ -22,10 +31,13 @@ export function useInstance(id: string) {
   })
 }
 
+// One server page at a time; the page asks for more with fetchNextPage
 export function useFieldValues(instanceId: string) {
-  return useQuery({
+  return useInfiniteQuery({
     queryKey: INSTANCE_KEYS.fieldValues(instanceId),
-    queryFn: () => api.getFieldValues(instanceId),
+    queryFn: ({ pageParam }) => api.getFieldValuePage(instanceId, pageParam),
+    initialPageParam: undefined as string | undefined,
+    getNextPageParam: (page) => (page.hasMore ? page.nextCursor : undefined),
     enabled: !!instanceId,
   })
 }
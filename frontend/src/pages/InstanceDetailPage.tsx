@@ -21,7 +21,14 @@ export default function InstanceDetailPage() {
   const { toast } = useToast()
 
   const { data: instance, isLoading: instanceLoading } = useInstance(id!)
-  const { data: fieldValues = [], isLoading: fvLoading } = useFieldValues(id!)
+  const {
+    data: fieldValuePages,
+    isLoading: fvLoading,
+    hasNextPage,
+    fetchNextPage,
+    isFetchingNextPage,
+  } = useFieldValues(id!)
+  const fieldValues = fieldValuePages?.pages.flatMap((page) => page.items) ?? []
   const { data: fields = [] } = useFields(instance?.templateId ?? "")
 
   const settle = useSettleInstance()
@@ -180,11 +187,11 @@ export default function InstanceDetailPage() {
         </div>
       </div>
 
-      {/* Totals bar */}
+      {/* Totals bar; the grand total waits until every entry is loaded */}
       <ParticipantTotalsBar
         instanceId={instance.id}
         templateId={instance.templateId}
-        grandTotal={fieldValues.reduce((sum, fv) => sum + fv.amount, 0)}
+        grandTotal={hasNextPage ? undefined : fieldValues.reduce((sum, fv) => sum + fv.amount, 0)}
       />
 
       <Separator className="bg-border" />
@@ -202,6 +209,14 @@ export default function InstanceDetailPage() {
           />
         ))}
       </div>
+
+      {hasNextPage && (
+        <div className="flex justify-center">
+          <Button variant="outline" size="sm" onClick={() => fetchNextPage()} disabled={isFetchingNextPage}>
+            {isFetchingNextPage ? "Loading…" : "Load more entries"}
+          </Button>
+        </div>
+      )}
     </div>
   )
 }
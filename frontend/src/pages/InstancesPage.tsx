@@ -4,17 +4,16 @@ import { useNavigate } from "react-router-dom"
 import { Button } from "@/components/ui/button"
 import InstanceCard from "@/components/instances/InstanceCard"
 import NewInstanceDialog from "@/components/instances/NewInstanceDialog"
-import { useAllInstances } from "@/hooks/useInstances"
+import { useInstancesByStatus } from "@/hooks/useInstances"
 import { useTemplates } from "@/hooks/useTemplates"
 
 export default function InstancesPage() {
   const navigate = useNavigate()
-  const { data: instances = [], isLoading } = useAllInstances()
+  const { data: instances = [], isLoading } = useInstancesByStatus("IN_PROGRESS")
   const { data: templates = [], isLoading: templatesLoading } = useTemplates()
   const [dialogOpen, setDialogOpen] = useState(false)
 
   const activeInstances = [...instances]
-    .filter((i) => i.status === "IN_PROGRESS")
     .sort((a, b) => new Date(b.createdAt).getTime() - new Date(a.createdAt).getTime())
 
   const templateMap = Object.fromEntries(templates.map((t) => [t.id, t.name]))
@@ -2,7 +2,8 @@ import { useState } from "react"
 import { useNavigate } from "react-router-dom"
 import { useAuth } from "@/context/AuthContext"
 import { signUp, confirmSignUp } from "@/lib/auth"
-import { getAllInstances } from "@/api/instances"
+import { getInstancesByStatusForTemplates } from "@/api/instances"
+import { getMyTemplates } from "@/api/templates"
 import { Button } from "@/components/ui/button"
 import { Input } from "@/components/ui/input"
 import AuroraBackground from "@/components/layout/AuroraBackground"
@@ -22,8 +23,12 @@ export default function LoginPage() {
 
   const redirectAfterLogin = async () => {
     try {
-      const instances = await getAllInstances()
-      const hasActive = instances.some((i) => i.status === "IN_PROGRESS")
+      const templates = await getMyTemplates()
+      const active = await getInstancesByStatusForTemplates(
+        templates.map((t) => t.id),
+        "IN_PROGRESS"
+      )
+      const hasActive = active.length > 0
       navigate(hasActive ? "/instances" : "/templates", { replace: true })
     } catch {
       navigate("/instances", { replace: true })
@@ -1,13 +1,12 @@
 import InstanceCard from "@/components/instances/InstanceCard"
-import { useAllInstances } from "@/hooks/useInstances"
+import { useInstancesByStatus } from "@/hooks/useInstances"
 import { useTemplates } from "@/hooks/useTemplates"
 
 export default function SettledPage() {
-  const { data: instances = [], isLoading } = useAllInstances()
+  const { data: instances = [], isLoading } = useInstancesByStatus("SETTLED")
   const { data: templates = [] } = useTemplates()
 
   const settled = [...instances]
-    .filter((i) => i.status === "SETTLED")
     .sort((a, b) => new Date(b.createdAt).getTime() - new Date(a.createdAt).getTime())
 
   const templateMap = Object.fromEntries(templates.map((t) => [t.id, t.name]))
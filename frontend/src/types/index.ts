@@ -81,6 +81,12 @@ export interface ParticipantEntryAmount {
   amount: number
 }
 
+export interface CursorPage<T> {
+  items: T[]
+  nextCursor?: string
+  hasMore: boolean
+}
+
 // Request shapes
 export interface AddFieldValueRequest {
   templateFieldId: string
@@ -0,0 +1,18 @@
+package com.expensesplitter.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+@Configuration
+public class InstanceEventConfig {
+
+    // Sending to an event stream blocks while the client's socket is full; on virtual threads a
+    // slow client parks its sender instead of holding a pooled thread
+    @Bean
+    public SimpleAsyncTaskExecutor instanceEventExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("instance-events-");
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+}
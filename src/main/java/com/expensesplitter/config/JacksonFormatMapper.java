@@ -0,0 +1,29 @@
+package com.expensesplitter.config;
+
+import org.hibernate.type.format.AbstractJsonFormatMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.lang.reflect.Type;
+
+/**
+ * Reads and writes JSON columns with the application's Jackson 3 mapper; the mapper Hibernate
+ * ships with is for Jackson 2.
+ */
+class JacksonFormatMapper extends AbstractJsonFormatMapper {
+
+    private final JsonMapper jsonMapper;
+
+    JacksonFormatMapper(JsonMapper jsonMapper) {
+        this.jsonMapper = jsonMapper;
+    }
+
+    @Override
+    protected <T> T fromString(CharSequence charSequence, Type type) {
+        return jsonMapper.readValue(charSequence.toString(), jsonMapper.getTypeFactory().constructType(type));
+    }
+
+    @Override
+    protected <T> String toString(T value, Type type) {
+        return jsonMapper.writerFor(jsonMapper.getTypeFactory().constructType(type)).writeValueAsString(value);
+    }
+}
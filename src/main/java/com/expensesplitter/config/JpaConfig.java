@@ -0,0 +1,50 @@
+package com.expensesplitter.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.MissingCacheStrategy;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import tools.jackson.databind.json.JsonMapper;
+
+@Configuration
+public class JpaConfig {
+
+    @Value("${jpa.batch-size:50}")
+    private int batchSize;
+
+    // JDBC batching for bulk writes (instance creation, imports); explicit
+    // spring.jpa.properties.hibernate.* settings still take precedence
+    @Bean
+    public HibernatePropertiesCustomizer batchingPropertiesCustomizer() {
+        return properties -> {
+            properties.putIfAbsent(AvailableSettings.STATEMENT_BATCH_SIZE, batchSize);
+            properties.putIfAbsent(AvailableSettings.ORDER_INSERTS, true);
+            properties.putIfAbsent(AvailableSettings.ORDER_UPDATES, true);
+        };
+    }
+
+    // JVM-local second-level and query cache for template configuration. Regions, their sizes and
+    // statistics are set up in hibernate-cache.conf; an entity or query naming a region that is not
+    // defined there fails at startup instead of getting an unbounded cache.
+    @Bean
+    public HibernatePropertiesCustomizer cachePropertiesCustomizer() {
+        return properties -> {
+            properties.putIfAbsent(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.putIfAbsent(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.putIfAbsent(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.putIfAbsent(ConfigSettings.PROVIDER, CaffeineCachingProvider.class.getName());
+            properties.putIfAbsent(ConfigSettings.CONFIG_URI, "hibernate-cache.conf");
+            properties.putIfAbsent(ConfigSettings.MISSING_CACHE_STRATEGY, MissingCacheStrategy.FAIL.getExternalRepresentation());
+        };
+    }
+
+    // JSON columns are written with the same mapper, and the same settings, as API responses
+    @Bean
+    public HibernatePropertiesCustomizer jsonPropertiesCustomizer(JsonMapper jsonMapper) {
+        return properties -> properties.putIfAbsent(AvailableSettings.JSON_FORMAT_MAPPER, new JacksonFormatMapper(jsonMapper));
+    }
+}
@@ -0,0 +1,40 @@
+package com.expensesplitter.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+/**
+ * Runs reads whose results are kept between requests against the primary. Inside a read-only
+ * transaction, which may be on a lagging replica, the read gets its own transaction on the
+ * primary, so a cache never stores configuration that a committed write has already replaced.
+ * <p>
+ * Without replicas every transaction is on the primary and the read joins the current one.
+ */
+@Component
+public class PrimaryReads {
+
+    private final TransactionTemplate primaryTransaction;
+
+    public PrimaryReads(PlatformTransactionManager transactionManager,
+                        ObjectProvider<ReplicaRoutingDataSource> replicas) {
+        if (replicas.getIfAvailable() == null) {
+            this.primaryTransaction = null;
+        } else {
+            this.primaryTransaction = new TransactionTemplate(transactionManager);
+            this.primaryTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        }
+    }
+
+    public <T> T read(Supplier<T> read) {
+        if (primaryTransaction == null || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return read.get();
+        }
+        return primaryTransaction.execute(status -> read.get());
+    }
+}
@@ -0,0 +1,114 @@
+package com.expensesplitter.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.boot.jpa.autoconfigure.JpaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaVendorAdapter;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sends read-only transactions to replicas when {@code datasource.replica.urls} is set; without it
+ * Spring Boot's single spring.datasource pool is used as before.
+ * <p>
+ * The lazy proxy only fetches a physical connection once the transaction manager has marked it
+ * read-only or not, so {@code @Transactional(readOnly = true)} reads go to a replica and
+ * everything else, including reads inside a write transaction, to the primary.
+ * <p>
+ * Caches shared between requests are only filled from the primary: read-only transactions do not
+ * put into the second-level cache (see {@link ReplicaReadJpaDialect}), and template snapshots are
+ * compiled through {@link PrimaryReads}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.replica.urls")
+public class ReadReplicaConfig implements WebMvcConfigurer {
+
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    public ReadReplicaConfig(@Value("${datasource.replica.read-your-writes-ms:5000}") long readYourWritesMillis) {
+        this.readYourWritesTracker = new ReadYourWritesTracker(readYourWritesMillis);
+    }
+
+    // spring.datasource.hikari.* still configures the primary pool
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    // Replicas share the primary's driver and, unless overridden, its credentials
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            @Qualifier("primaryDataSource") DataSource primaryDataSource,
+            DataSourceProperties properties,
+            @Value("${datasource.replica.urls}") String urls,
+            @Value("${datasource.replica.username:}") String username,
+            @Value("${datasource.replica.password:}") String password,
+            @Value("${datasource.replica.pool-size:10}") int poolSize) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (String url : urls.split(",")) {
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(properties.determineDriverClassName())
+                    .url(url.trim())
+                    .username(username.isBlank() ? properties.determineUsername() : username)
+                    .password(username.isBlank() ? properties.determinePassword() : password)
+                    .build();
+            replica.setPoolName("replica-" + (replicas.size() + 1));
+            replica.setMaximumPoolSize(poolSize);
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 ReplicaRoutingDataSource replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaRoutingDataSource);
+        return dataSource;
+    }
+
+    // Spring Boot's adapter settings, with a dialect that keeps replica reads out of the second-level cache
+    @Bean
+    public JpaVendorAdapter jpaVendorAdapter(JpaProperties properties) {
+        HibernateJpaDialect dialect = new ReplicaReadJpaDialect();
+        HibernateJpaVendorAdapter adapter = new HibernateJpaVendorAdapter() {
+            @Override
+            public HibernateJpaDialect getJpaDialect() {
+                return dialect;
+            }
+        };
+        adapter.setShowSql(properties.isShowSql());
+        if (properties.getDatabase() != null) {
+            adapter.setDatabase(properties.getDatabase());
+        }
+        if (properties.getDatabasePlatform() != null) {
+            adapter.setDatabasePlatform(properties.getDatabasePlatform());
+        }
+        adapter.setGenerateDdl(properties.isGenerateDdl());
+        return adapter;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ReadYourWritesInterceptor(readYourWritesTracker)).addPathPatterns("/api/**");
+    }
+}
@@ -0,0 +1,62 @@
+package com.expensesplitter.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.security.Principal;
+import java.util.Set;
+
+/**
+ * Pins a user's requests to the primary for a while after they changed something, and records
+ * their writes. Reads that run on another thread, like streamed exports, are not pinned.
+ */
+public class ReadYourWritesInterceptor implements AsyncHandlerInterceptor {
+
+    private static final Set<String> WRITE_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+    private final ReadYourWritesTracker tracker;
+
+    public ReadYourWritesInterceptor(ReadYourWritesTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Principal user = request.getUserPrincipal();
+        if (user == null) {
+            return true;
+        }
+        // Recorded before the handler runs: the response body reaches the client before afterCompletion,
+        // and a read sent as soon as it arrives must already be pinned. Pinning after a failed write is harmless.
+        if (isWrite(request)) {
+            tracker.recordWrite(user.getName());
+        }
+        if (tracker.wroteRecently(user.getName())) {
+            ReplicaRoutingDataSource.pinToPrimary();
+        }
+        return true;
+    }
+
+    // An async request leaves the container thread here, and afterCompletion may run on another one
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        ReplicaRoutingDataSource.unpin();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        ReplicaRoutingDataSource.unpin();
+        // Restarts the window at commit, so a slow write still gets all of it
+        Principal user = request.getUserPrincipal();
+        if (user != null && isWrite(request)) {
+            tracker.recordWrite(user.getName());
+        }
+    }
+
+    private static boolean isWrite(HttpServletRequest request) {
+        return WRITE_METHODS.contains(request.getMethod());
+    }
+}
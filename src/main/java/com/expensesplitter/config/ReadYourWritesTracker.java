@@ -0,0 +1,52 @@
+package com.expensesplitter.config;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Remembers when each user last wrote, so their reads can stay on the primary until replicas have
+ * had time to catch up with their own changes.
+ */
+public class ReadYourWritesTracker {
+
+    // Expired entries are swept once the map grows past this many users
+    private static final int SWEEP_THRESHOLD = 10_000;
+
+    private final Map<String, Long> lastWriteNanos = new ConcurrentHashMap<>();
+    private final long windowNanos;
+    private final LongSupplier nanoTime;
+
+    public ReadYourWritesTracker(long windowMillis) {
+        this(windowMillis, System::nanoTime);
+    }
+
+    ReadYourWritesTracker(long windowMillis, LongSupplier nanoTime) {
+        if (windowMillis < 0) {
+            throw new IllegalArgumentException("Read-your-writes window must not be negative");
+        }
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.nanoTime = nanoTime;
+    }
+
+    public void recordWrite(String user) {
+        long now = nanoTime.getAsLong();
+        lastWriteNanos.put(user, now);
+        if (lastWriteNanos.size() > SWEEP_THRESHOLD) {
+            lastWriteNanos.values().removeIf(written -> now - written >= windowNanos);
+        }
+    }
+
+    public boolean wroteRecently(String user) {
+        Long written = lastWriteNanos.get(user);
+        if (written == null) {
+            return false;
+        }
+        if (nanoTime.getAsLong() - written < windowNanos) {
+            return true;
+        }
+        lastWriteNanos.remove(user, written);
+        return false;
+    }
+}
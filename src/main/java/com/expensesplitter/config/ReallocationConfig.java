@@ -0,0 +1,26 @@
+package com.expensesplitter.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class ReallocationConfig {
+
+    // Small fixed pool with a bounded queue: re-allocation is background work and must not
+    // compete with request threads for database connections
+    @Bean
+    public ThreadPoolTaskExecutor reallocationExecutor(
+            @Value("${reallocation.pool-size:2}") int poolSize,
+            @Value("${reallocation.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("reallocation-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
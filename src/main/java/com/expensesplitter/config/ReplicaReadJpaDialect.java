@@ -0,0 +1,48 @@
+package com.expensesplitter.config;
+
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+
+import java.sql.SQLException;
+
+/**
+ * Keeps read-only transactions, which run on a replica, from putting entities and query results
+ * into the second-level cache. A lagging replica can still return rows that a committed write has
+ * already replaced and evicted; cached, they would be served from the primary's side as well until
+ * the next write. Read-only transactions still read from the cache.
+ */
+public class ReplicaReadJpaDialect extends HibernateJpaDialect {
+
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+            throws PersistenceException, SQLException, TransactionException {
+        Object transactionData = super.beginTransaction(entityManager, definition);
+        if (!definition.isReadOnly()) {
+            return transactionData;
+        }
+        // Set as a property because find() derives its cache mode from the session properties
+        Object previousStoreMode = entityManager.getProperties().get(SpecHints.HINT_SPEC_CACHE_STORE_MODE);
+        entityManager.setProperty(SpecHints.HINT_SPEC_CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+        return new ReplicaReadData(transactionData, entityManager,
+                previousStoreMode != null ? previousStoreMode : CacheStoreMode.USE);
+    }
+
+    // With open-in-view the session outlives the transaction, so its store mode is put back
+    @Override
+    public void cleanupTransaction(Object transactionData) {
+        if (transactionData instanceof ReplicaReadData data) {
+            data.entityManager().setProperty(SpecHints.HINT_SPEC_CACHE_STORE_MODE, data.previousStoreMode());
+            super.cleanupTransaction(data.transactionData());
+        } else {
+            super.cleanupTransaction(transactionData);
+        }
+    }
+
+    private record ReplicaReadData(Object transactionData, EntityManager entityManager, Object previousStoreMode) {
+    }
+}
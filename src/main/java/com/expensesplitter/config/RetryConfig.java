@@ -0,0 +1,11 @@
+package com.expensesplitter.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.resilience.annotation.EnableResilientMethods;
+
+// Enables @Retryable on service methods; the retry wraps the method's transaction, so every
+// attempt starts a new one
+@Configuration
+@EnableResilientMethods
+public class RetryConfig {
+}
@@ -0,0 +1,27 @@
+package com.expensesplitter.controller;
+
+import com.expensesplitter.dto.CacheStatisticsResponse;
+import com.expensesplitter.service.ApiResponse;
+import com.expensesplitter.service.CacheStatisticsService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/cache")
+public class CacheController {
+
+    private final CacheStatisticsService cacheStatisticsService;
+
+    public CacheController(CacheStatisticsService cacheStatisticsService) {
+        this.cacheStatisticsService = cacheStatisticsService;
+    }
+
+    @GetMapping("/statistics")
+    public ResponseEntity<ApiResponse<List<CacheStatisticsResponse>>> getStatistics() {
+        return ResponseEntity.ok(new ApiResponse<>(true, cacheStatisticsService.getStatistics()));
+    }
+}
@@ -1,9 +1,12 @@
 package com.expensesplitter.controller;
 
+import com.expensesplitter.dto.FieldValueImportResponse;
 import com.expensesplitter.service.ApiException;
 import com.expensesplitter.service.ApiResponse;
+import com.expensesplitter.service.FieldValueImportAbortedException;
 import com.expensesplitter.service.ResourceNotFoundException;
 import com.expensesplitter.service.ValidationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -30,6 +33,20 @@ public class GlobalExceptionHandler {
                 .body(new ApiResponse<>(false, ex.getMessage()));
     }
 
+    // Some chunks were committed before the failure; the report tells the client where to resume
+    @ExceptionHandler(FieldValueImportAbortedException.class)
+    public ResponseEntity<ApiResponse<FieldValueImportResponse>> handleImportAborted(FieldValueImportAbortedException ex) {
+        return ResponseEntity.status(ex.getHttpStatus())
+                .body(new ApiResponse<>(false, ex.getReport(), ex.getMessage()));
+    }
+
+    // A concurrent request changed the same row first; retried operations only get here once out of retries
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiResponse<Void>> handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new ApiResponse<>(false, "The resource was changed by another request; reload it and try again"));
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiResponse<Void>> handleGenericException(Exception ex) {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
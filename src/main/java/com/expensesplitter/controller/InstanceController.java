@@ -1,16 +1,33 @@
 package com.expensesplitter.controller;
 
 import com.expensesplitter.dto.AddFieldValueRequest;
+import com.expensesplitter.dto.CursorPageResponse;
+import com.expensesplitter.dto.FieldValueImportResponse;
+import com.expensesplitter.dto.InstanceDetailResponse;
 import com.expensesplitter.dto.InstanceFieldValueResponse;
+import com.expensesplitter.dto.InstanceSummaryResponse;
+import com.expensesplitter.dto.SettlementPlanResponse;
 import com.expensesplitter.dto.TemplateInstanceResponse;
+import com.expensesplitter.enums.ExportFormat;
 import com.expensesplitter.enums.InstanceStatus;
 import com.expensesplitter.enums.SplitMode;
 import com.expensesplitter.service.ApiResponse;
+import com.expensesplitter.service.BulkReadService;
+import com.expensesplitter.service.FieldValueImportService;
+import com.expensesplitter.service.InstanceEventBroker;
 import com.expensesplitter.service.InstanceService;
+import com.expensesplitter.service.LedgerExportService;
+import com.expensesplitter.service.TemplateService;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
@@ -21,9 +38,24 @@ import java.util.UUID;
 public class InstanceController {
 
     private final InstanceService instanceService;
+    private final FieldValueImportService fieldValueImportService;
+    private final LedgerExportService ledgerExportService;
+    private final TemplateService templateService;
+    private final BulkReadService bulkReadService;
+    private final InstanceEventBroker instanceEventBroker;
 
-    public InstanceController(InstanceService instanceService) {
+    public InstanceController(InstanceService instanceService,
+                              FieldValueImportService fieldValueImportService,
+                              LedgerExportService ledgerExportService,
+                              TemplateService templateService,
+                              BulkReadService bulkReadService,
+                              InstanceEventBroker instanceEventBroker) {
         this.instanceService = instanceService;
+        this.fieldValueImportService = fieldValueImportService;
+        this.ledgerExportService = ledgerExportService;
+        this.templateService = templateService;
+        this.bulkReadService = bulkReadService;
+        this.instanceEventBroker = instanceEventBroker;
     }
 
     // Instance Endpoints
@@ -42,10 +74,14 @@ public class InstanceController {
         return ResponseEntity.ok(new ApiResponse<>(true, instance));
     }
 
+    @GetMapping("/{instanceId}/detail")
+    public ResponseEntity<ApiResponse<InstanceDetailResponse>> getInstanceDetail(@PathVariable UUID instanceId) {
+        return ResponseEntity.ok(new ApiResponse<>(true, instanceService.getInstanceDetail(instanceId)));
+    }
+
     @GetMapping("/template/{templateId}")
     public ResponseEntity<ApiResponse<List<TemplateInstanceResponse>>> getInstancesByTemplate(@PathVariable UUID templateId) {
-        List<TemplateInstanceResponse> instances = instanceService.getInstancesByTemplate(templateId)
-                .stream().map(TemplateInstanceResponse::from).toList();
+        List<TemplateInstanceResponse> instances = instanceService.getInstancesByTemplate(templateId);
         return ResponseEntity.ok(new ApiResponse<>(true, instances));
     }
 
@@ -53,23 +89,59 @@ public class InstanceController {
     public ResponseEntity<ApiResponse<List<TemplateInstanceResponse>>> getInstancesByTemplateAndStatus(
             @PathVariable UUID templateId,
             @PathVariable InstanceStatus status) {
-        List<TemplateInstanceResponse> instances = instanceService.getInstancesByTemplateAndStatus(templateId, status)
-                .stream().map(TemplateInstanceResponse::from).toList();
+        List<TemplateInstanceResponse> instances = instanceService.getInstancesByTemplateAndStatus(templateId, status);
         return ResponseEntity.ok(new ApiResponse<>(true, instances));
     }
 
+    // Settlement history, newest first, read from the summaries frozen at settlement
+    @GetMapping("/template/{templateId}/settled-summaries")
+    public ResponseEntity<ApiResponse<List<InstanceSummaryResponse>>> getSettledSummariesByTemplate(
+            @PathVariable UUID templateId) {
+        return ResponseEntity.ok(new ApiResponse<>(true, instanceService.getSettledSummariesByTemplate(templateId)));
+    }
+
+    @GetMapping("/{instanceId}/export")
+    public ResponseEntity<StreamingResponseBody> exportInstance(
+            @PathVariable UUID instanceId,
+            @RequestParam(required = false) String format) {
+        ExportFormat exportFormat = ledgerExportService.resolveFormat(format);
+        instanceService.getInstanceById(instanceId);
+        return exportResponse("instance-" + instanceId, exportFormat,
+                out -> ledgerExportService.exportInstance(instanceId, exportFormat, out));
+    }
+
+    @GetMapping("/template/{templateId}/export")
+    public ResponseEntity<StreamingResponseBody> exportTemplateInstances(
+            @PathVariable UUID templateId,
+            @RequestParam(required = false) String format) {
+        ExportFormat exportFormat = ledgerExportService.resolveFormat(format);
+        templateService.getTemplateById(templateId);
+        return exportResponse("template-" + templateId, exportFormat,
+                out -> ledgerExportService.exportTemplate(templateId, exportFormat, out));
+    }
+
     @GetMapping
-    public ResponseEntity<ApiResponse<List<TemplateInstanceResponse>>> getAllInstances() {
-        List<TemplateInstanceResponse> instances = instanceService.getAllInstances()
-                .stream().map(TemplateInstanceResponse::from).toList();
+    public ResponseEntity<ApiResponse<CursorPageResponse<TemplateInstanceResponse>>> getAllInstances(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        CursorPageResponse<TemplateInstanceResponse> instances = instanceService.getInstancePage(cursor, limit);
         return ResponseEntity.ok(new ApiResponse<>(true, instances));
     }
 
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamAllInstances() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(bulkReadService::streamInstances);
+    }
+
     @PutMapping("/{instanceId}/name")
     public ResponseEntity<ApiResponse<TemplateInstanceResponse>> updateInstanceName(
             @PathVariable UUID instanceId,
-            @RequestParam String name) {
-        TemplateInstanceResponse instance = TemplateInstanceResponse.from(instanceService.updateInstanceName(instanceId, name));
+            @RequestParam String name,
+            @RequestParam(required = false) Long version) {
+        TemplateInstanceResponse instance = TemplateInstanceResponse.from(
+                instanceService.updateInstanceName(instanceId, name, version));
         return ResponseEntity.ok(new ApiResponse<>(true, instance, "Instance name updated successfully"));
     }
 
@@ -85,6 +157,23 @@ public class InstanceController {
         return ResponseEntity.ok(new ApiResponse<>(true, instance, "Instance reopened"));
     }
 
+    @GetMapping("/{instanceId}/settlement-plan")
+    public ResponseEntity<ApiResponse<SettlementPlanResponse>> getSettlementPlan(@PathVariable UUID instanceId) {
+        return ResponseEntity.ok(new ApiResponse<>(true, instanceService.getSettlementPlan(instanceId)));
+    }
+
+    @GetMapping("/{instanceId}/summary")
+    public ResponseEntity<ApiResponse<InstanceSummaryResponse>> getInstanceSummary(@PathVariable UUID instanceId) {
+        return ResponseEntity.ok(new ApiResponse<>(true, instanceService.getInstanceSummary(instanceId)));
+    }
+
+    // Pushes field value changes and balance deltas as they commit, in place of polling
+    @GetMapping(value = "/{instanceId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(@PathVariable UUID instanceId) {
+        instanceService.getInstanceById(instanceId);
+        return instanceEventBroker.subscribe(instanceId);
+    }
+
     @DeleteMapping("/{instanceId}")
     public ResponseEntity<ApiResponse<Void>> deleteInstance(@PathVariable UUID instanceId) {
         instanceService.deleteInstance(instanceId);
@@ -101,19 +190,38 @@ public class InstanceController {
                 .body(new ApiResponse<>(true, fieldValue, "Field value added successfully"));
     }
 
+    // Bulk import: text/csv with a header row, or application/x-ndjson with one request object per line
+    @PostMapping(value = "/{instanceId}/field-values/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<ApiResponse<FieldValueImportResponse>> importFieldValues(
+            @PathVariable UUID instanceId,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+        FieldValueImportResponse result = fieldValueImportService.importFieldValues(
+                instanceId, MediaType.parseMediaType(contentType), body);
+        return ResponseEntity.ok(new ApiResponse<>(true, result,
+                "Imported " + result.importedRows() + " of " + result.totalRows() + " rows"));
+    }
+
+    // One page at a time, like the other list-all endpoints; an instance can hold thousands of entries
     @GetMapping("/{instanceId}/field-values")
-    public ResponseEntity<ApiResponse<List<InstanceFieldValueResponse>>> getFieldValuesByInstance(@PathVariable UUID instanceId) {
-        List<InstanceFieldValueResponse> fieldValues = instanceService.getFieldValuesByInstance(instanceId)
-                .stream().map(InstanceFieldValueResponse::from).toList();
-        return ResponseEntity.ok(new ApiResponse<>(true, fieldValues));
+    public ResponseEntity<ApiResponse<CursorPageResponse<InstanceFieldValueResponse>>> getFieldValuePage(
+            @PathVariable UUID instanceId,
+            @RequestParam(required = false) UUID templateFieldId,
+            @RequestParam(required = false) UUID payerParticipantId,
+            @RequestParam(required = false) LocalDate from,
+            @RequestParam(required = false) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        CursorPageResponse<InstanceFieldValueResponse> page = instanceService.getFieldValuePage(
+                instanceId, templateFieldId, payerParticipantId, from, to, cursor, limit);
+        return ResponseEntity.ok(new ApiResponse<>(true, page));
     }
 
     @GetMapping("/{instanceId}/field-values/field/{templateFieldId}")
     public ResponseEntity<ApiResponse<List<InstanceFieldValueResponse>>> getFieldValuesByInstanceAndField(
             @PathVariable UUID instanceId,
             @PathVariable UUID templateFieldId) {
-        List<InstanceFieldValueResponse> fieldValues = instanceService.getFieldValuesByInstanceAndField(instanceId, templateFieldId)
-                .stream().map(InstanceFieldValueResponse::from).toList();
+        List<InstanceFieldValueResponse> fieldValues = instanceService.getFieldValuesByInstanceAndField(instanceId, templateFieldId);
         return ResponseEntity.ok(new ApiResponse<>(true, fieldValues));
     }
 
@@ -132,9 +240,10 @@ public class InstanceController {
             @RequestParam(required = false) SplitMode splitMode,
             @RequestParam(required = false) UUID overrideSplitRuleId,
             @RequestParam(required = false) UUID payerParticipantId,
+            @RequestParam(required = false) Long version,
             @RequestBody(required = false) java.util.Map<UUID, BigDecimal> participantAmounts) {
         InstanceFieldValueResponse fieldValue = InstanceFieldValueResponse.from(
-                instanceService.updateFieldValue(fieldValueId, amount, note, entryDate, splitMode, overrideSplitRuleId, participantAmounts, payerParticipantId));
+                instanceService.updateFieldValue(fieldValueId, amount, note, entryDate, splitMode, overrideSplitRuleId, participantAmounts, payerParticipantId, version));
         return ResponseEntity.ok(new ApiResponse<>(true, fieldValue, "Field value updated successfully"));
     }
 
@@ -147,19 +256,32 @@ public class InstanceController {
     @PutMapping("/field-values/{fieldValueId}/amount")
     public ResponseEntity<ApiResponse<InstanceFieldValueResponse>> updateFieldValueAmount(
             @PathVariable UUID fieldValueId,
-            @RequestParam BigDecimal amount) {
+            @RequestParam BigDecimal amount,
+            @RequestParam(required = false) Long version) {
         InstanceFieldValueResponse fieldValue = InstanceFieldValueResponse.from(
-                instanceService.updateFieldValueAmount(fieldValueId, amount));
+                instanceService.updateFieldValueAmount(fieldValueId, amount, version));
         return ResponseEntity.ok(new ApiResponse<>(true, fieldValue, "Field value amount updated successfully"));
     }
 
     @PutMapping("/field-values/{fieldValueId}/split-rule")
     public ResponseEntity<ApiResponse<InstanceFieldValueResponse>> updateFieldValueSplitRule(
             @PathVariable UUID fieldValueId,
-            @RequestParam UUID splitRuleId) {
+            @RequestParam UUID splitRuleId,
+            @RequestParam(required = false) Long version) {
         InstanceFieldValueResponse fieldValue = InstanceFieldValueResponse.from(
-                instanceService.updateFieldValueSplitRule(fieldValueId, splitRuleId));
+                instanceService.updateFieldValueSplitRule(fieldValueId, splitRuleId, version));
         return ResponseEntity.ok(new ApiResponse<>(true, fieldValue, "Split rule updated successfully"));
     }
 
+
+    private ResponseEntity<StreamingResponseBody> exportResponse(String fileName, ExportFormat format,
+                                                                 StreamingResponseBody body) {
+        ContentDisposition disposition = ContentDisposition.attachment()
+                .filename(fileName + "." + format.getFileExtension())
+                .build();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .body(body);
+    }
 }
@@ -1,12 +1,16 @@
 package com.expensesplitter.controller;
 
+import com.expensesplitter.dto.CursorPageResponse;
 import com.expensesplitter.dto.ParticipantEntryAmountResponse;
 import com.expensesplitter.dto.ParticipantTotalsResponse;
 import com.expensesplitter.service.ParticipantEntryAmountService;
 import com.expensesplitter.service.ApiResponse;
+import com.expensesplitter.service.BulkReadService;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -17,9 +21,12 @@ import java.util.UUID;
 public class ParticipantEntryAmountController {
 
     private final ParticipantEntryAmountService participantEntryAmountService;
+    private final BulkReadService bulkReadService;
 
-    public ParticipantEntryAmountController(ParticipantEntryAmountService participantEntryAmountService) {
+    public ParticipantEntryAmountController(ParticipantEntryAmountService participantEntryAmountService,
+                                            BulkReadService bulkReadService) {
         this.participantEntryAmountService = participantEntryAmountService;
+        this.bulkReadService = bulkReadService;
     }
 
     // ParticipantEntryAmount CRUD Operations
@@ -42,12 +49,21 @@ public class ParticipantEntryAmountController {
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<ParticipantEntryAmountResponse>>> getAllParticipantEntryAmounts() {
-        List<ParticipantEntryAmountResponse> participantEntryAmounts = participantEntryAmountService.getAllParticipantEntryAmounts()
-                .stream().map(ParticipantEntryAmountResponse::from).toList();
+    public ResponseEntity<ApiResponse<CursorPageResponse<ParticipantEntryAmountResponse>>> getAllParticipantEntryAmounts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        CursorPageResponse<ParticipantEntryAmountResponse> participantEntryAmounts =
+                participantEntryAmountService.getParticipantEntryAmountPage(cursor, limit);
         return ResponseEntity.ok(new ApiResponse<>(true, participantEntryAmounts));
     }
 
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamAllParticipantEntryAmounts() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(bulkReadService::streamParticipantEntryAmounts);
+    }
+
     @PutMapping("/{participantEntryAmountId}")
     public ResponseEntity<ApiResponse<ParticipantEntryAmountResponse>> updateParticipantEntryAmount(
             @PathVariable UUID participantEntryAmountId,
@@ -67,16 +83,14 @@ public class ParticipantEntryAmountController {
     @GetMapping("/field-value/{fieldValueId}")
     public ResponseEntity<ApiResponse<List<ParticipantEntryAmountResponse>>> getParticipantEntryAmountsByFieldValue(
             @PathVariable UUID fieldValueId) {
-        List<ParticipantEntryAmountResponse> participantEntryAmounts = participantEntryAmountService.getParticipantEntryAmountsByFieldValue(fieldValueId)
-                .stream().map(ParticipantEntryAmountResponse::from).toList();
+        List<ParticipantEntryAmountResponse> participantEntryAmounts = participantEntryAmountService.getParticipantEntryAmountsByFieldValue(fieldValueId);
         return ResponseEntity.ok(new ApiResponse<>(true, participantEntryAmounts));
     }
 
     @GetMapping("/participant/{participantId}")
     public ResponseEntity<ApiResponse<List<ParticipantEntryAmountResponse>>> getParticipantEntryAmountsByParticipant(
             @PathVariable UUID participantId) {
-        List<ParticipantEntryAmountResponse> participantEntryAmounts = participantEntryAmountService.getParticipantEntryAmountsByParticipant(participantId)
-                .stream().map(ParticipantEntryAmountResponse::from).toList();
+        List<ParticipantEntryAmountResponse> participantEntryAmounts = participantEntryAmountService.getParticipantEntryAmountsByParticipant(participantId);
         return ResponseEntity.ok(new ApiResponse<>(true, participantEntryAmounts));
     }
 
@@ -108,4 +122,11 @@ public class ParticipantEntryAmountController {
         ParticipantTotalsResponse totals = participantEntryAmountService.getInstanceTotals(instanceId);
         return ResponseEntity.ok(new ApiResponse<>(true, totals));
     }
+
+    @PostMapping("/instance/{instanceId}/totals/rebuild")
+    public ResponseEntity<ApiResponse<ParticipantTotalsResponse>> rebuildInstanceTotals(
+            @PathVariable UUID instanceId) {
+        ParticipantTotalsResponse totals = participantEntryAmountService.rebuildInstanceTotals(instanceId);
+        return ResponseEntity.ok(new ApiResponse<>(true, totals, "Instance totals rebuilt successfully"));
+    }
 }
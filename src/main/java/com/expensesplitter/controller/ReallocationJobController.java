@@ -0,0 +1,43 @@
+package com.expensesplitter.controller;
+
+import com.expensesplitter.dto.ReallocationJobResponse;
+import com.expensesplitter.service.ApiResponse;
+import com.expensesplitter.service.ReallocationJobService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/reallocation-jobs")
+public class ReallocationJobController {
+
+    private final ReallocationJobService reallocationJobService;
+
+    public ReallocationJobController(ReallocationJobService reallocationJobService) {
+        this.reallocationJobService = reallocationJobService;
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ApiResponse<ReallocationJobResponse>> getJob(@PathVariable UUID jobId) {
+        ReallocationJobResponse job = ReallocationJobResponse.from(reallocationJobService.getJob(jobId));
+        return ResponseEntity.ok(new ApiResponse<>(true, job));
+    }
+
+    @GetMapping("/split-rule/{splitRuleId}")
+    public ResponseEntity<ApiResponse<List<ReallocationJobResponse>>> getJobsForSplitRule(@PathVariable UUID splitRuleId) {
+        List<ReallocationJobResponse> jobs = reallocationJobService.getJobsForSplitRule(splitRuleId)
+                .stream().map(ReallocationJobResponse::from).toList();
+        return ResponseEntity.ok(new ApiResponse<>(true, jobs));
+    }
+
+    // Re-runs the re-allocation by hand, e.g. after a failed or rejected job
+    @PostMapping("/split-rule/{splitRuleId}")
+    public ResponseEntity<ApiResponse<ReallocationJobResponse>> startJob(@PathVariable UUID splitRuleId) {
+        ReallocationJobResponse job = ReallocationJobResponse.from(reallocationJobService.startJob(splitRuleId));
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(new ApiResponse<>(true, job, "Re-allocation job queued"));
+    }
+}
@@ -4,12 +4,15 @@ import com.expensesplitter.dto.*;
 import com.expensesplitter.entity.Template;
 import com.expensesplitter.enums.FieldType;
 import com.expensesplitter.service.ApiResponse;
+import com.expensesplitter.service.BulkReadService;
 import com.expensesplitter.service.TemplateService;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -22,9 +25,11 @@ import java.util.stream.Collectors;
 public class TemplateController {
 
     private final TemplateService templateService;
+    private final BulkReadService bulkReadService;
 
-    public TemplateController(TemplateService templateService) {
+    public TemplateController(TemplateService templateService, BulkReadService bulkReadService) {
         this.templateService = templateService;
+        this.bulkReadService = bulkReadService;
     }
 
     // Template Endpoints (Template has no nested @ManyToOne — no DTO needed)
@@ -53,11 +58,20 @@ public class TemplateController {
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<Template>>> getAllTemplates() {
-        List<Template> templates = templateService.getAllTemplates();
+    public ResponseEntity<ApiResponse<CursorPageResponse<Template>>> getAllTemplates(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        CursorPageResponse<Template> templates = templateService.getTemplatePage(cursor, limit);
         return ResponseEntity.ok(new ApiResponse<>(true, templates));
     }
 
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamAllTemplates() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(bulkReadService::streamTemplates);
+    }
+
     @PutMapping("/{templateId}")
     public ResponseEntity<ApiResponse<Template>> updateTemplate(
             @PathVariable UUID templateId,
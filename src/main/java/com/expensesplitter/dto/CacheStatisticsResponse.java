@@ -0,0 +1,12 @@
+package com.expensesplitter.dto;
+
+public record CacheStatisticsResponse(
+        String region,
+        long hits,
+        long misses,
+        float hitPercentage,
+        long puts,
+        long removals,
+        long evictions
+) {
+}
@@ -0,0 +1,9 @@
+package com.expensesplitter.dto;
+
+import java.util.List;
+
+public record CursorPageResponse<T>(
+        List<T> items,
+        String nextCursor,
+        boolean hasMore
+) {}
@@ -0,0 +1,16 @@
+package com.expensesplitter.dto;
+
+import com.expensesplitter.entity.SettledTotals;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public record FieldTotalResponse(
+        UUID templateFieldId,
+        BigDecimal total,
+        long entryCount
+) {
+    public static FieldTotalResponse from(SettledTotals.FieldTotal e) {
+        return new FieldTotalResponse(e.templateFieldId(), e.total(), e.entryCount());
+    }
+}
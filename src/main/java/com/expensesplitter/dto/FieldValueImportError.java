@@ -0,0 +1,6 @@
+package com.expensesplitter.dto;
+
+public record FieldValueImportError(
+        long line,
+        String message
+) {}
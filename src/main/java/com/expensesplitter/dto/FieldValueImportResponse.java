@@ -0,0 +1,16 @@
+package com.expensesplitter.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+public record FieldValueImportResponse(
+        UUID instanceId,
+        int totalRows,
+        int importedRows,
+        int failedRows,
+        boolean errorsTruncated,
+        List<FieldValueImportError> errors,
+        // Set when a chunk could not be written: rows from firstUnimportedLine on were not imported
+        boolean aborted,
+        Long firstUnimportedLine
+) {}
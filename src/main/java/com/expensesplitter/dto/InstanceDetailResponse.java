@@ -0,0 +1,20 @@
+package com.expensesplitter.dto;
+
+import java.util.List;
+
+/**
+ * Everything needed to render an instance: the instance itself, its template's fields and
+ * participants, every field value with its per-participant allocations, and the running totals.
+ */
+public record InstanceDetailResponse(
+        TemplateInstanceResponse instance,
+        List<TemplateFieldResponse> fields,
+        List<TemplateParticipantResponse> participants,
+        List<FieldValueDetail> fieldValues,
+        ParticipantTotalsResponse totals
+) {
+    public record FieldValueDetail(
+            InstanceFieldValueResponse fieldValue,
+            List<ParticipantEntryAmountResponse> allocations
+    ) {}
+}
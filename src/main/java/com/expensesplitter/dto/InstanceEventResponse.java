@@ -0,0 +1,36 @@
+package com.expensesplitter.dto;
+
+import com.expensesplitter.entity.InstanceFieldValue;
+import com.expensesplitter.enums.InstanceEventType;
+import com.expensesplitter.service.InstanceChangedEvent;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One change to an instance as pushed to its event stream. {@code fieldValue} is set for added and
+ * updated field values; {@code balances} lists only the participants whose share or paid total moved,
+ * as amounts to add to the totals the client already has.
+ */
+public record InstanceEventResponse(
+        InstanceEventType type,
+        UUID instanceId,
+        UUID fieldValueId,
+        InstanceFieldValueResponse fieldValue,
+        List<ParticipantBalanceDeltaResponse> balances
+) {
+    public static InstanceEventResponse from(InstanceChangedEvent event) {
+        InstanceFieldValue fieldValue = event.fieldValue();
+        return new InstanceEventResponse(
+                event.type(),
+                event.instanceId(),
+                fieldValue != null ? fieldValue.getId() : null,
+                fieldValue != null && event.type() != InstanceEventType.FIELD_VALUE_DELETED
+                        ? InstanceFieldValueResponse.from(fieldValue) : null,
+                event.balances().getDeltas().entrySet().stream()
+                        .filter(e -> e.getValue().share().signum() != 0 || e.getValue().paid().signum() != 0)
+                        .map(e -> ParticipantBalanceDeltaResponse.from(e.getKey(), e.getValue()))
+                        .toList()
+        );
+    }
+}
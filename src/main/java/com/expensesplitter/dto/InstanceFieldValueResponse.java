@@ -16,7 +16,8 @@ public record InstanceFieldValueResponse(
         LocalDate entryDate,
         SplitMode splitMode,
         UUID overrideSplitRuleId,
-        UUID payerParticipantId
+        UUID payerParticipantId,
+        long version
 ) {
     public static InstanceFieldValueResponse from(InstanceFieldValue e) {
         return new InstanceFieldValueResponse(
@@ -28,7 +29,8 @@ public record InstanceFieldValueResponse(
                 e.getEntryDate(),
                 e.getSplitMode(),
                 e.getOverrideSplitRule() != null ? e.getOverrideSplitRule().getId() : null,
-                e.getPayerParticipant() != null ? e.getPayerParticipant().getId() : null
+                e.getPayerParticipant() != null ? e.getPayerParticipant().getId() : null,
+                e.getVersion()
         );
     }
 }
@@ -0,0 +1,44 @@
+package com.expensesplitter.dto;
+
+import com.expensesplitter.entity.InstanceSettlementSummary;
+import com.expensesplitter.entity.SettledTotals;
+import com.expensesplitter.entity.TemplateInstance;
+import com.expensesplitter.enums.InstanceStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * An instance's participant totals and per-field totals. {@code settledAt} is set when they come
+ * from the snapshot taken at settlement.
+ */
+public record InstanceSummaryResponse(
+        UUID instanceId,
+        String name,
+        InstanceStatus status,
+        LocalDateTime createdAt,
+        LocalDateTime settledAt,
+        ParticipantTotalsResponse totals,
+        List<FieldTotalResponse> fieldTotals
+) {
+    public static InstanceSummaryResponse from(InstanceSettlementSummary e) {
+        return from(e.getInstance(), e.getSettledAt(), e.getTotals());
+    }
+
+    public static InstanceSummaryResponse from(TemplateInstance instance, LocalDateTime settledAt, SettledTotals totals) {
+        return new InstanceSummaryResponse(
+                instance.getId(),
+                instance.getName(),
+                instance.getStatus(),
+                instance.getCreatedAt(),
+                settledAt,
+                toParticipantTotals(totals),
+                totals.fields().stream().map(FieldTotalResponse::from).toList()
+        );
+    }
+
+    public static ParticipantTotalsResponse toParticipantTotals(SettledTotals totals) {
+        return new ParticipantTotalsResponse(!totals.paid().isEmpty(), totals.shares(), totals.paid(), totals.net());
+    }
+}
@@ -0,0 +1,16 @@
+package com.expensesplitter.dto;
+
+import com.expensesplitter.service.BalanceChanges;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public record ParticipantBalanceDeltaResponse(
+        UUID participantId,
+        BigDecimal share,
+        BigDecimal paid
+) {
+    public static ParticipantBalanceDeltaResponse from(UUID participantId, BalanceChanges.Delta delta) {
+        return new ParticipantBalanceDeltaResponse(participantId, delta.share(), delta.paid());
+    }
+}
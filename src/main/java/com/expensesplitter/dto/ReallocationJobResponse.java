@@ -0,0 +1,35 @@
+package com.expensesplitter.dto;
+
+import com.expensesplitter.enums.ReallocationJobStatus;
+import com.expensesplitter.service.ReallocationJob;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record ReallocationJobResponse(
+        UUID id,
+        UUID splitRuleId,
+        ReallocationJobStatus status,
+        int totalFieldValues,
+        int processedFieldValues,
+        int reallocatedFieldValues,
+        String error,
+        LocalDateTime createdAt,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt
+) {
+    public static ReallocationJobResponse from(ReallocationJob job) {
+        return new ReallocationJobResponse(
+                job.getId(),
+                job.getSplitRuleId(),
+                job.getStatus(),
+                job.getTotalFieldValues(),
+                job.getProcessedFieldValues(),
+                job.getReallocatedFieldValues(),
+                job.getError(),
+                job.getCreatedAt(),
+                job.getStartedAt(),
+                job.getFinishedAt()
+        );
+    }
+}
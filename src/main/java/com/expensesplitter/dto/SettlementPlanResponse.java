@@ -0,0 +1,10 @@
+package com.expensesplitter.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+public record SettlementPlanResponse(
+        UUID instanceId,
+        boolean settled,
+        List<SettlementTransferResponse> transfers
+) {}
@@ -0,0 +1,20 @@
+package com.expensesplitter.dto;
+
+import com.expensesplitter.entity.SettlementTransfer;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public record SettlementTransferResponse(
+        UUID fromParticipantId,
+        UUID toParticipantId,
+        BigDecimal amount
+) {
+    public static SettlementTransferResponse from(SettlementTransfer e) {
+        return new SettlementTransferResponse(
+                e.getFromParticipant().getId(),
+                e.getToParticipant().getId(),
+                e.getAmount()
+        );
+    }
+}
@@ -11,7 +11,8 @@ public record TemplateInstanceResponse(
         UUID templateId,
         String name,
         InstanceStatus status,
-        LocalDateTime createdAt
+        LocalDateTime createdAt,
+        long version
 ) {
     public static TemplateInstanceResponse from(TemplateInstance e) {
         return new TemplateInstanceResponse(
@@ -19,7 +20,8 @@ public record TemplateInstanceResponse(
                 e.getTemplate().getId(),
                 e.getName(),
                 e.getStatus(),
-                e.getCreatedAt()
+                e.getCreatedAt(),
+                e.getVersion()
         );
     }
 }
@@ -0,0 +1,33 @@
+package com.expensesplitter.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// An archived instance's field values and allocations, gzip-compressed JSON; see InstanceArchiveService
+@Entity
+@Table(name = "instance_archive")
+@Getter
+@Setter
+@NoArgsConstructor
+public class InstanceArchive {
+
+    @Id
+    @Column(name = "instance_id", updatable = false, nullable = false)
+    private UUID instanceId;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "instance_id")
+    private TemplateInstance instance;
+
+    @Column(name = "archived_at", nullable = false, updatable = false)
+    private LocalDateTime archivedAt;
+
+    @Column(name = "payload", nullable = false, updatable = false)
+    private byte[] payload;
+}
@@ -0,0 +1,45 @@
+package com.expensesplitter.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Entity
+@Table(name = "instance_participant_balance")
+@Getter
+@Setter
+@NoArgsConstructor
+public class InstanceParticipantBalance {
+
+    @Id
+    @UuidGenerator(style = UuidGenerator.Style.VERSION_7)
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "instance_id", nullable = false)
+    private TemplateInstance instance;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "template_participant_id", nullable = false)
+    private TemplateParticipant templateParticipant;
+
+    @Column(name = "share_total", nullable = false)
+    private BigDecimal shareTotal;
+
+    @Column(name = "paid_total", nullable = false)
+    private BigDecimal paidTotal;
+
+    // Number of allocations / paid entries behind the totals, so a participant whose
+    // entries were all removed drops out of the response even if the sum is zero
+    @Column(name = "share_entry_count", nullable = false)
+    private int shareEntryCount;
+
+    @Column(name = "paid_entry_count", nullable = false)
+    private int paidEntryCount;
+}
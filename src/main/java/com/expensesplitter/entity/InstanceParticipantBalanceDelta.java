@@ -0,0 +1,44 @@
+package com.expensesplitter.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+// One write's change to a participant's balance, not yet folded into InstanceParticipantBalance
+@Entity
+@Table(name = "instance_participant_balance_delta")
+@Getter
+@Setter
+@NoArgsConstructor
+public class InstanceParticipantBalanceDelta {
+
+    @Id
+    @UuidGenerator(style = UuidGenerator.Style.VERSION_7)
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "instance_id", nullable = false)
+    private TemplateInstance instance;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "template_participant_id", nullable = false)
+    private TemplateParticipant templateParticipant;
+
+    @Column(name = "share_delta", nullable = false)
+    private BigDecimal shareDelta;
+
+    @Column(name = "paid_delta", nullable = false)
+    private BigDecimal paidDelta;
+
+    @Column(name = "share_entry_count_delta", nullable = false)
+    private int shareEntryCountDelta;
+
+    @Column(name = "paid_entry_count_delta", nullable = false)
+    private int paidEntryCountDelta;
+}
@@ -0,0 +1,36 @@
+package com.expensesplitter.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Written once when the instance is settled and never updated; reopening deletes it
+@Entity
+@Table(name = "instance_settlement_summary")
+@Getter
+@Setter
+@NoArgsConstructor
+public class InstanceSettlementSummary {
+
+    @Id
+    @Column(name = "instance_id", updatable = false, nullable = false)
+    private UUID instanceId;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "instance_id")
+    private TemplateInstance instance;
+
+    @Column(name = "settled_at", nullable = false, updatable = false)
+    private LocalDateTime settledAt;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "totals", nullable = false, updatable = false)
+    private SettledTotals totals;
+}
@@ -0,0 +1,18 @@
+package com.expensesplitter.entity;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Per-participant and per-field totals of an instance, stored as JSON in its settlement summary.
+ */
+public record SettledTotals(
+        Map<UUID, BigDecimal> shares,
+        Map<UUID, BigDecimal> paid,
+        Map<UUID, BigDecimal> net,
+        List<FieldTotal> fields
+) {
+    public record FieldTotal(UUID templateFieldId, BigDecimal total, long entryCount) {}
+}
@@ -0,0 +1,38 @@
+package com.expensesplitter.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Entity
+@Table(name = "settlement_transfer")
+@Getter
+@Setter
+@NoArgsConstructor
+public class SettlementTransfer {
+
+    @Id
+    @UuidGenerator(style = UuidGenerator.Style.VERSION_7)
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "instance_id", nullable = false)
+    private TemplateInstance instance;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "from_participant_id", nullable = false)
+    private TemplateParticipant fromParticipant;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "to_participant_id", nullable = false)
+    private TemplateParticipant toParticipant;
+
+    @Column(name = "amount", nullable = false)
+    private BigDecimal amount;
+}
@@ -5,19 +5,22 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.SQLRestriction;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
 @Table(name = "template_instance")
+@SQLRestriction("deleted_at IS NULL")
 @Getter
 @Setter
 @NoArgsConstructor
 public class TemplateInstance {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidGenerator(style = UuidGenerator.Style.VERSION_7)
     @Column(name = "id", updatable = false, nullable = false)
     private UUID id;
 
@@ -35,6 +38,18 @@ public class TemplateInstance {
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    // Set when the instance is deleted; the purge worker removes the row later
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
+    // Set when the archive worker has moved the entries to instance_archive; the instance is read-only from then on
+    @Column(name = "archived_at")
+    private LocalDateTime archivedAt;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
     @PrePersist
     protected void onCreate() {
         this.createdAt = LocalDateTime.now();
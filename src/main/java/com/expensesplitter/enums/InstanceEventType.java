@@ -0,0 +1,11 @@
+package com.expensesplitter.enums;
+
+public enum InstanceEventType {
+    FIELD_VALUE_ADDED,
+    FIELD_VALUE_UPDATED,
+    FIELD_VALUE_DELETED,
+    // Several field values added at once, e.g. by an import; clients reload the list
+    FIELD_VALUES_ADDED,
+    // Allocations changed without an edit of the field value itself, e.g. by a re-allocation
+    BALANCES_CHANGED
+}
@@ -0,0 +1,9 @@
+package com.expensesplitter.enums;
+
+public enum ReallocationJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    SKIPPED,
+    FAILED
+}
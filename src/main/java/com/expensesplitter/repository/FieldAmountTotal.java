@@ -0,0 +1,14 @@
+package com.expensesplitter.repository;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Sum and count of one template field's values within an instance.
+ */
+public record FieldAmountTotal(
+        UUID templateFieldId,
+        BigDecimal total,
+        long entryCount
+) {
+}
@@ -0,0 +1,11 @@
+package com.expensesplitter.repository;
+
+import com.expensesplitter.entity.InstanceArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface InstanceArchiveRepository extends JpaRepository<InstanceArchive, UUID> {
+}
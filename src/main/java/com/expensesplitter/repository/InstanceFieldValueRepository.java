@@ -1,15 +1,123 @@
 package com.expensesplitter.repository;
 
+import com.expensesplitter.dto.InstanceFieldValueResponse;
 import com.expensesplitter.entity.InstanceFieldValue;
+import com.expensesplitter.enums.InstanceStatus;
+import com.expensesplitter.enums.SplitMode;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface InstanceFieldValueRepository extends JpaRepository<InstanceFieldValue, UUID> {
-    List<InstanceFieldValue> findByInstanceIdOrderByCreatedAtAsc(UUID instanceId);
-    List<InstanceFieldValue> findByInstanceIdAndTemplateFieldIdOrderByCreatedAtAsc(UUID instanceId, UUID templateFieldId);
-    void deleteByInstanceId(UUID instanceId);
-}
\ No newline at end of file
+public interface InstanceFieldValueRepository extends JpaRepository<InstanceFieldValue, UUID>,
+        JpaSpecificationExecutor<InstanceFieldValue> {
+    // Read straight into responses, so a whole instance's field values never enter the persistence context
+    @Query("select new com.expensesplitter.dto.InstanceFieldValueResponse(" +
+           "fv.id, fv.instance.id, fv.templateField.id, fv.amount, fv.note, fv.entryDate, fv.splitMode, " +
+           "fv.overrideSplitRule.id, fv.payerParticipant.id, fv.version) " +
+           "from InstanceFieldValue fv " +
+           "where fv.instance.id = :instanceId " +
+           "order by fv.createdAt, fv.id")
+    List<InstanceFieldValueResponse> findResponsesByInstanceId(@Param("instanceId") UUID instanceId);
+
+    @Query("select new com.expensesplitter.dto.InstanceFieldValueResponse(" +
+           "fv.id, fv.instance.id, fv.templateField.id, fv.amount, fv.note, fv.entryDate, fv.splitMode, " +
+           "fv.overrideSplitRule.id, fv.payerParticipant.id, fv.version) " +
+           "from InstanceFieldValue fv " +
+           "where fv.instance.id = :instanceId and fv.templateField.id = :templateFieldId " +
+           "order by fv.createdAt, fv.id")
+    List<InstanceFieldValueResponse> findResponsesByInstanceIdAndTemplateFieldId(@Param("instanceId") UUID instanceId,
+                                                                                 @Param("templateFieldId") UUID templateFieldId);
+
+    // Entries of soft-deleted instances are not found; the instance's restriction does not apply to a join
+    @Query("select fv from InstanceFieldValue fv join fetch fv.instance i where fv.id = :id and i.deletedAt is null")
+    Optional<InstanceFieldValue> findLiveById(@Param("id") UUID id);
+
+    // Reads the foreign key column only, so it still finds rows of soft-deleted instances
+    @Query("select fv.id from InstanceFieldValue fv where fv.instance.id = :instanceId")
+    List<UUID> findIdsByInstanceId(@Param("instanceId") UUID instanceId, Limit limit);
+
+    @Modifying
+    @Query("delete from InstanceFieldValue fv where fv.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query("delete from InstanceFieldValue fv where fv.instance.id = :instanceId")
+    int deleteByInstanceId(@Param("instanceId") UUID instanceId);
+
+    @Query("select fv.payerParticipant.id as participantId, sum(fv.amount) as total, count(fv) as entryCount " +
+           "from InstanceFieldValue fv " +
+           "where fv.instance.id = :instanceId and fv.payerParticipant is not null " +
+           "group by fv.payerParticipant.id")
+    List<ParticipantAmountTotal> sumPaidByInstanceId(@Param("instanceId") UUID instanceId);
+
+    @Query("select new com.expensesplitter.repository.FieldAmountTotal(fv.templateField.id, sum(fv.amount), count(fv)) " +
+           "from InstanceFieldValue fv where fv.instance.id = :instanceId group by fv.templateField.id")
+    List<FieldAmountTotal> sumAmountsByInstanceId(@Param("instanceId") UUID instanceId);
+
+    // Field values whose allocations come from the rule, either as an override or as the field's default.
+    // One branch per case so each can start from its own index instead of scanning every field value.
+    // Explicit joins do not apply the instance's soft-delete restriction, so each query filters on it.
+    @Query("select fv.id from InstanceFieldValue fv " +
+           "join fv.instance i on i.deletedAt is null " +
+           "where i.status = :status and fv.splitMode = :splitMode and fv.amount > 0 " +
+           "and fv.overrideSplitRule.id = :splitRuleId " +
+           "union all " +
+           "select fv.id from InstanceFieldValue fv " +
+           "join fv.instance i on i.deletedAt is null " +
+           "join fv.templateField tf " +
+           "where i.status = :status and fv.splitMode = :splitMode and fv.amount > 0 " +
+           "and fv.overrideSplitRule is null and tf.defaultSplitRule.id = :splitRuleId " +
+           "order by 1")
+    List<UUID> findIdsAllocatedByRule(@Param("splitRuleId") UUID splitRuleId,
+                                      @Param("status") InstanceStatus status,
+                                      @Param("splitMode") SplitMode splitMode);
+
+    // Versions are bumped at commit, so two re-allocations of the same entry, or a re-allocation and
+    // an edit, cannot both retract its old shares from the ledger: the later one fails and is retried
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    // No join fetch: the lock mode would bump the instances' versions too
+    @Query("select fv from InstanceFieldValue fv where fv.id in :ids")
+    List<InstanceFieldValue> findForReallocationByIdIn(@Param("ids") Collection<UUID> ids);
+
+    // Ledger export rows; each query orders a field value's rows together so they can be folded into one entry
+    String LEDGER_EXPORT_SELECT = "select i.id as instanceId, i.name as instanceName, " +
+           "i.createdAt as instanceCreatedAt, fv.id as fieldValueId, " +
+           "tf.id as templateFieldId, tf.label as fieldLabel, fv.amount as amount, fv.note as note, " +
+           "fv.entryDate as entryDate, fv.splitMode as splitMode, o.id as overrideSplitRuleId, " +
+           "payer.id as payerParticipantId, payer.name as payerName, " +
+           "p.id as participantId, pea.amount as participantAmount " +
+           "from InstanceFieldValue fv " +
+           "join fv.instance i on i.deletedAt is null " +
+           "join fv.templateField tf " +
+           "left join fv.overrideSplitRule o " +
+           "left join fv.payerParticipant payer " +
+           "left join ParticipantEntryAmount pea on pea.instanceFieldValue = fv " +
+           "left join pea.templateParticipant p ";
+
+    // Fetch size makes the driver read through a server-side cursor instead of buffering the whole result
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(LEDGER_EXPORT_SELECT + "where i.id = :instanceId" +
+           " order by fv.createdAt, fv.id, p.displayOrder, p.id")
+    Stream<LedgerExportRow> streamLedgerByInstanceId(@Param("instanceId") UUID instanceId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(LEDGER_EXPORT_SELECT + "where i.template.id = :templateId" +
+           " order by i.createdAt, i.id, fv.createdAt, fv.id, p.displayOrder, p.id")
+    Stream<LedgerExportRow> streamLedgerByTemplateId(@Param("templateId") UUID templateId);
+}
@@ -0,0 +1,50 @@
+package com.expensesplitter.repository;
+
+import com.expensesplitter.entity.InstanceFieldValue;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Filters for paging through an instance's field values. Only the filters actually requested
+ * are added, so each query shape can use its matching index.
+ */
+public final class InstanceFieldValueSpecifications {
+
+    private InstanceFieldValueSpecifications() {
+    }
+
+    public static Specification<InstanceFieldValue> inInstance(UUID instanceId) {
+        return (root, query, cb) -> cb.equal(root.get("instance").get("id"), instanceId);
+    }
+
+    public static Specification<InstanceFieldValue> forTemplateField(UUID templateFieldId) {
+        return (root, query, cb) -> cb.equal(root.get("templateField").get("id"), templateFieldId);
+    }
+
+    public static Specification<InstanceFieldValue> paidBy(UUID payerParticipantId) {
+        return (root, query, cb) -> cb.equal(root.get("payerParticipant").get("id"), payerParticipantId);
+    }
+
+    public static Specification<InstanceFieldValue> enteredOnOrAfter(LocalDate from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("entryDate"), from);
+    }
+
+    public static Specification<InstanceFieldValue> enteredOnOrBefore(LocalDate to) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("entryDate"), to);
+    }
+
+    /**
+     * Rows after (createdAt, id). The leading {@code created_at >= ?} bound is what lets Postgres
+     * start the index scan at the cursor instead of filtering every earlier row.
+     */
+    public static Specification<InstanceFieldValue> after(LocalDateTime createdAt, UUID id) {
+        return (root, query, cb) -> cb.and(
+                cb.greaterThanOrEqualTo(root.get("createdAt"), createdAt),
+                cb.or(
+                        cb.greaterThan(root.get("createdAt"), createdAt),
+                        cb.greaterThan(root.<UUID>get("id"), id)));
+    }
+}
@@ -0,0 +1,83 @@
+package com.expensesplitter.repository;
+
+import com.expensesplitter.entity.InstanceParticipantBalance;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface InstanceParticipantBalanceRepository extends JpaRepository<InstanceParticipantBalance, UUID> {
+    // Folded balance rows plus the deltas not yet folded in, summed in one statement so a concurrent
+    // fold is seen either entirely or not at all
+    String BALANCES_WITH_DELTAS = "from (" +
+            "select b.templateParticipant.id as participantId, b.shareTotal as share, b.paidTotal as paid, " +
+            "b.shareEntryCount as shareCount, b.paidEntryCount as paidCount " +
+            "from InstanceParticipantBalance b where b.instance.id = :instanceId " +
+            "union all " +
+            "select d.templateParticipant.id, d.shareDelta, d.paidDelta, d.shareEntryCountDelta, d.paidEntryCountDelta " +
+            "from InstanceParticipantBalanceDelta d where d.instance.id = :instanceId" +
+            ") t ";
+    String SUM_TOTALS = "select new com.expensesplitter.repository.ParticipantBalanceTotal(" +
+            "t.participantId, sum(t.share), sum(t.paid), sum(t.shareCount), sum(t.paidCount)) ";
+
+    @Query(SUM_TOTALS + BALANCES_WITH_DELTAS + "group by t.participantId")
+    List<ParticipantBalanceTotal> findTotalsByInstanceId(@Param("instanceId") UUID instanceId);
+
+    @Query(SUM_TOTALS + BALANCES_WITH_DELTAS + "where t.participantId = :participantId group by t.participantId")
+    Optional<ParticipantBalanceTotal> findTotalByInstanceIdAndParticipantId(@Param("instanceId") UUID instanceId,
+                                                                           @Param("participantId") UUID participantId);
+
+    // A plain insert: concurrent writers to one instance never wait on each other's ledger rows
+    @Modifying
+    @Query(value = "INSERT INTO instance_participant_balance_delta " +
+                   "(instance_id, template_participant_id, share_delta, paid_delta, share_entry_count_delta, paid_entry_count_delta) " +
+                   "VALUES (:instanceId, :participantId, :shareDelta, :paidDelta, :shareCountDelta, :paidCountDelta)",
+           nativeQuery = true)
+    void appendDelta(@Param("instanceId") UUID instanceId,
+                     @Param("participantId") UUID participantId,
+                     @Param("shareDelta") BigDecimal shareDelta,
+                     @Param("paidDelta") BigDecimal paidDelta,
+                     @Param("shareCountDelta") int shareCountDelta,
+                     @Param("paidCountDelta") int paidCountDelta);
+
+    /**
+     * Moves the instance's deltas into its balance rows in one statement. Deltas committed after the
+     * statement starts are not visible to it and stay for the next fold. Only folds and rebuilds
+     * update balance rows, so their row locks never hold up a writer.
+     */
+    @Modifying
+    @Query(value = "WITH folded AS (" +
+                   "DELETE FROM instance_participant_balance_delta WHERE instance_id = :instanceId " +
+                   "RETURNING template_participant_id, share_delta, paid_delta, share_entry_count_delta, paid_entry_count_delta) " +
+                   "INSERT INTO instance_participant_balance " +
+                   "(instance_id, template_participant_id, share_total, paid_total, share_entry_count, paid_entry_count) " +
+                   "SELECT :instanceId, template_participant_id, SUM(share_delta), SUM(paid_delta), " +
+                   "SUM(share_entry_count_delta), SUM(paid_entry_count_delta) " +
+                   "FROM folded GROUP BY template_participant_id " +
+                   "ON CONFLICT (instance_id, template_participant_id) DO UPDATE SET " +
+                   "share_total = instance_participant_balance.share_total + EXCLUDED.share_total, " +
+                   "paid_total = instance_participant_balance.paid_total + EXCLUDED.paid_total, " +
+                   "share_entry_count = instance_participant_balance.share_entry_count + EXCLUDED.share_entry_count, " +
+                   "paid_entry_count = instance_participant_balance.paid_entry_count + EXCLUDED.paid_entry_count",
+           nativeQuery = true)
+    int foldDeltas(@Param("instanceId") UUID instanceId);
+
+    @Query("select distinct d.instance.id from InstanceParticipantBalanceDelta d")
+    List<UUID> findInstanceIdsWithDeltas(Limit limit);
+
+    @Modifying
+    @Query("delete from InstanceParticipantBalance b where b.instance.id = :instanceId")
+    void deleteByInstanceId(@Param("instanceId") UUID instanceId);
+
+    @Modifying
+    @Query("delete from InstanceParticipantBalanceDelta d where d.instance.id = :instanceId")
+    void deleteDeltasByInstanceId(@Param("instanceId") UUID instanceId);
+}
@@ -0,0 +1,31 @@
+package com.expensesplitter.repository;
+
+import com.expensesplitter.entity.InstanceSettlementSummary;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface InstanceSettlementSummaryRepository extends JpaRepository<InstanceSettlementSummary, UUID> {
+    // A template's settlement history with its instances in one query
+    @Query("select s from InstanceSettlementSummary s join fetch s.instance i " +
+           "where i.template.id = :templateId and i.deletedAt is null order by s.settledAt desc")
+    List<InstanceSettlementSummary> findWithInstanceByTemplateId(@Param("templateId") UUID templateId);
+
+    // Settled longest ago first, leaving out deleted instances and those already archived
+    @Query("select s.instanceId from InstanceSettlementSummary s join s.instance i " +
+           "where s.settledAt < :settledBefore and i.deletedAt is null and i.archivedAt is null " +
+           "order by s.settledAt")
+    List<UUID> findArchivableInstanceIds(@Param("settledBefore") LocalDateTime settledBefore, Limit limit);
+
+    @Modifying
+    @Query("delete from InstanceSettlementSummary s where s.instanceId = :instanceId")
+    void deleteByInstanceId(@Param("instanceId") UUID instanceId);
+}
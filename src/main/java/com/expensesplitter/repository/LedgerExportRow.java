@@ -0,0 +1,30 @@
+package com.expensesplitter.repository;
+
+import com.expensesplitter.enums.SplitMode;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Projection for ledger exports: one row per field value and allocated participant, or a single
+ * row with null participant columns for a field value without allocations.
+ */
+public interface LedgerExportRow {
+    UUID getInstanceId();
+    String getInstanceName();
+    LocalDateTime getInstanceCreatedAt();
+    UUID getFieldValueId();
+    UUID getTemplateFieldId();
+    String getFieldLabel();
+    BigDecimal getAmount();
+    String getNote();
+    LocalDate getEntryDate();
+    SplitMode getSplitMode();
+    UUID getOverrideSplitRuleId();
+    UUID getPayerParticipantId();
+    String getPayerName();
+    UUID getParticipantId();
+    BigDecimal getParticipantAmount();
+}
@@ -0,0 +1,13 @@
+package com.expensesplitter.repository;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Projection for GROUP BY queries that sum an amount per participant.
+ */
+public interface ParticipantAmountTotal {
+    UUID getParticipantId();
+    BigDecimal getTotal();
+    long getEntryCount();
+}
@@ -0,0 +1,17 @@
+package com.expensesplitter.repository;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Projection of one participant's balance: the folded row plus any deltas not yet folded in. A record
+ * rather than an interface, so each row is a plain object instead of a proxy over the query tuple.
+ */
+public record ParticipantBalanceTotal(
+        UUID participantId,
+        BigDecimal shareTotal,
+        BigDecimal paidTotal,
+        long shareEntryCount,
+        long paidEntryCount
+) {
+}
@@ -1,16 +1,84 @@
 package com.expensesplitter.repository;
 
+import com.expensesplitter.dto.ParticipantEntryAmountResponse;
 import com.expensesplitter.entity.ParticipantEntryAmount;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface ParticipantEntryAmountRepository extends JpaRepository<ParticipantEntryAmount, UUID> {
+    // Queries that are not scoped to one instance join it to skip soft-deleted ones; the entity's
+    // restriction only applies when the instance itself is loaded, not to an explicit join
+    String LIVE_ALLOCATIONS = "from ParticipantEntryAmount pea " +
+           "join pea.instanceFieldValue fv " +
+           "join fv.instance i on i.deletedAt is null ";
+
+    @Query("select pea " + LIVE_ALLOCATIONS + "where pea.id = :id")
+    Optional<ParticipantEntryAmount> findLiveById(@Param("id") UUID id);
+
     List<ParticipantEntryAmount> findByInstanceFieldValueId(UUID instanceFieldValueId);
-    List<ParticipantEntryAmount> findByTemplateParticipantId(UUID templateParticipantId);
+    List<ParticipantEntryAmount> findByInstanceFieldValueIdIn(Collection<UUID> instanceFieldValueIds);
+
+    // Read straight into responses, so a whole instance's allocations never enter the persistence context
+    @Query("select new com.expensesplitter.dto.ParticipantEntryAmountResponse(" +
+           "pea.id, pea.instanceFieldValue.id, pea.templateParticipant.id, pea.amount) " +
+           "from ParticipantEntryAmount pea where pea.instanceFieldValue.instance.id = :instanceId")
+    List<ParticipantEntryAmountResponse> findResponsesByInstanceId(@Param("instanceId") UUID instanceId);
+
+    @Query("select new com.expensesplitter.dto.ParticipantEntryAmountResponse(" +
+           "pea.id, pea.instanceFieldValue.id, pea.templateParticipant.id, pea.amount) " +
+           LIVE_ALLOCATIONS + "where fv.id = :fieldValueId")
+    List<ParticipantEntryAmountResponse> findResponsesByInstanceFieldValueId(@Param("fieldValueId") UUID fieldValueId);
+
+    @Query("select new com.expensesplitter.dto.ParticipantEntryAmountResponse(" +
+           "pea.id, pea.instanceFieldValue.id, pea.templateParticipant.id, pea.amount) " +
+           LIVE_ALLOCATIONS + "where pea.templateParticipant.id = :participantId")
+    List<ParticipantEntryAmountResponse> findResponsesByTemplateParticipantId(@Param("participantId") UUID participantId);
+
+    @Query("select pea " + LIVE_ALLOCATIONS + "where pea.templateParticipant.id = :participantId")
+    List<ParticipantEntryAmount> findByTemplateParticipantId(@Param("participantId") UUID participantId);
     void deleteByInstanceFieldValueId(UUID instanceFieldValueId);
-    void deleteByInstanceFieldValueInstanceId(UUID instanceId);
-}
\ No newline at end of file
+
+    @Modifying
+    @Query("delete from ParticipantEntryAmount pea where pea.instanceFieldValue.id in :fieldValueIds")
+    int deleteByInstanceFieldValueIdIn(@Param("fieldValueIds") Collection<UUID> fieldValueIds);
+
+    @Modifying
+    @Query("delete from ParticipantEntryAmount pea where pea.instanceFieldValue.id in " +
+           "(select fv.id from InstanceFieldValue fv where fv.instance.id = :instanceId)")
+    int deleteByInstanceId(@Param("instanceId") UUID instanceId);
+
+    @Query("select pea.templateParticipant.id as participantId, sum(pea.amount) as total, count(pea) as entryCount " +
+           "from ParticipantEntryAmount pea " +
+           "where pea.instanceFieldValue.instance.id = :instanceId " +
+           "group by pea.templateParticipant.id")
+    List<ParticipantAmountTotal> sumSharesByInstanceId(@Param("instanceId") UUID instanceId);
+
+    // Keyset pagination in id order; allocations have no timestamp of their own
+    @Query("select new com.expensesplitter.dto.ParticipantEntryAmountResponse(" +
+           "pea.id, pea.instanceFieldValue.id, pea.templateParticipant.id, pea.amount) " +
+           LIVE_ALLOCATIONS + "order by pea.id")
+    List<ParticipantEntryAmountResponse> findResponsePage(Limit limit);
+
+    @Query("select new com.expensesplitter.dto.ParticipantEntryAmountResponse(" +
+           "pea.id, pea.instanceFieldValue.id, pea.templateParticipant.id, pea.amount) " +
+           LIVE_ALLOCATIONS + "where pea.id > :id order by pea.id")
+    List<ParticipantEntryAmountResponse> findResponsePageAfter(@Param("id") UUID id, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select pea " + LIVE_ALLOCATIONS + "order by pea.id")
+    Stream<ParticipantEntryAmount> streamAll();
+}
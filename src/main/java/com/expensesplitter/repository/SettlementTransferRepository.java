@@ -0,0 +1,20 @@
+package com.expensesplitter.repository;
+
+import com.expensesplitter.entity.SettlementTransfer;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface SettlementTransferRepository extends JpaRepository<SettlementTransfer, UUID> {
+    List<SettlementTransfer> findByInstanceIdOrderByAmountDesc(UUID instanceId);
+
+    @Modifying
+    @Query("delete from SettlementTransfer t where t.instance.id = :instanceId")
+    void deleteByInstanceId(@Param("instanceId") UUID instanceId);
+}
@@ -1,13 +1,28 @@
 package com.expensesplitter.repository;
 
 import com.expensesplitter.entity.SplitRuleAllocation;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface SplitRuleAllocationRepository extends JpaRepository<SplitRuleAllocation, UUID> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<SplitRuleAllocation> findBySplitRuleId(UUID splitRuleId);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<SplitRuleAllocation> findBySplitRuleIdIn(Collection<UUID> splitRuleIds);
+
+    @Modifying
+    @Query("delete from SplitRuleAllocation a where a.splitRule.id in " +
+           "(select r.id from SplitRule r where r.template.id = :templateId)")
+    void deleteByTemplateId(@Param("templateId") UUID templateId);
 }
\ No newline at end of file
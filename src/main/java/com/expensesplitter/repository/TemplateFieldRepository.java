@@ -1,7 +1,13 @@
 package com.expensesplitter.repository;
 
 import com.expensesplitter.entity.TemplateField;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,5 +15,10 @@ import java.util.UUID;
 
 @Repository
 public interface TemplateFieldRepository extends JpaRepository<TemplateField, UUID> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<TemplateField> findByTemplateIdOrderByDisplayOrder(UUID templateId);
-}
\ No newline at end of file
+
+    @Modifying
+    @Query("delete from TemplateField f where f.template.id = :templateId")
+    void deleteByTemplateId(@Param("templateId") UUID templateId);
+}
@@ -1,15 +1,85 @@
 package com.expensesplitter.repository;
 
+import com.expensesplitter.dto.TemplateInstanceResponse;
 import com.expensesplitter.entity.TemplateInstance;
 import com.expensesplitter.enums.InstanceStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface TemplateInstanceRepository extends JpaRepository<TemplateInstance, UUID> {
-    List<TemplateInstance> findByTemplateId(UUID templateId);
-    List<TemplateInstance> findByTemplateIdAndStatus(UUID templateId, InstanceStatus status);
-}
\ No newline at end of file
+    // Listings read straight into responses and never enter the persistence context
+    @Query("select new com.expensesplitter.dto.TemplateInstanceResponse(" +
+           "i.id, i.template.id, i.name, i.status, i.createdAt, i.version) " +
+           "from TemplateInstance i where i.template.id = :templateId")
+    List<TemplateInstanceResponse> findResponsesByTemplateId(@Param("templateId") UUID templateId);
+
+    @Query("select new com.expensesplitter.dto.TemplateInstanceResponse(" +
+           "i.id, i.template.id, i.name, i.status, i.createdAt, i.version) " +
+           "from TemplateInstance i where i.template.id = :templateId and i.status = :status")
+    List<TemplateInstanceResponse> findResponsesByTemplateIdAndStatus(@Param("templateId") UUID templateId,
+                                                                      @Param("status") InstanceStatus status);
+
+    // Archived instances of a template in export order; their entries are read from the archive instead
+    @Query("select i from TemplateInstance i where i.template.id = :templateId and i.archivedAt is not null " +
+           "order by i.createdAt, i.id")
+    List<TemplateInstance> findArchivedByTemplateId(@Param("templateId") UUID templateId);
+
+    // The version is checked again at commit without being bumped, so writes that only add to an
+    // instance do not conflict with each other, but one that overlaps a settle, a delete or a rename
+    // of the instance fails and is retried instead of waiting on a row lock
+    @Lock(LockModeType.OPTIMISTIC)
+    @Query("select i from TemplateInstance i where i.id = :id")
+    Optional<TemplateInstance> findVersionCheckedById(@Param("id") UUID id);
+
+    @Lock(LockModeType.OPTIMISTIC)
+    @Query("select i from TemplateInstance i where i.id in :ids")
+    List<TemplateInstance> findVersionCheckedByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query("update versioned TemplateInstance i set i.deletedAt = :deletedAt where i.template.id = :templateId")
+    void markDeletedByTemplateId(@Param("templateId") UUID templateId, @Param("deletedAt") LocalDateTime deletedAt);
+
+    // Native so the soft-delete restriction on the entity does not hide the rows being purged
+    @Query(value = "SELECT id FROM template_instance WHERE deleted_at IS NOT NULL ORDER BY deleted_at LIMIT :limit",
+           nativeQuery = true)
+    List<UUID> findDeletedIds(@Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "DELETE FROM template_instance WHERE id = :id AND deleted_at IS NOT NULL", nativeQuery = true)
+    int purgeById(@Param("id") UUID id);
+
+    // Keyset pagination in (createdAt, id) order
+    @Query("select new com.expensesplitter.dto.TemplateInstanceResponse(" +
+           "i.id, i.template.id, i.name, i.status, i.createdAt, i.version) " +
+           "from TemplateInstance i order by i.createdAt, i.id")
+    List<TemplateInstanceResponse> findResponsePage(Limit limit);
+
+    @Query("select new com.expensesplitter.dto.TemplateInstanceResponse(" +
+           "i.id, i.template.id, i.name, i.status, i.createdAt, i.version) " +
+           "from TemplateInstance i " +
+           "where i.createdAt >= :createdAt and (i.createdAt > :createdAt or i.id > :id) " +
+           "order by i.createdAt, i.id")
+    List<TemplateInstanceResponse> findResponsePageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id,
+                                                         Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select i from TemplateInstance i order by i.createdAt, i.id")
+    Stream<TemplateInstance> streamAll();
+}
@@ -1,7 +1,13 @@
 package com.expensesplitter.repository;
 
 import com.expensesplitter.entity.TemplateParticipant;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,5 +15,10 @@ import java.util.UUID;
 
 @Repository
 public interface TemplateParticipantRepository extends JpaRepository<TemplateParticipant, UUID> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<TemplateParticipant> findByTemplateIdOrderByDisplayOrder(UUID templateId);
-}
\ No newline at end of file
+
+    @Modifying
+    @Query("delete from TemplateParticipant p where p.template.id = :templateId")
+    void deleteByTemplateId(@Param("templateId") UUID templateId);
+}
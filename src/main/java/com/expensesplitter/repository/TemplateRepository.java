@@ -1,13 +1,47 @@
 package com.expensesplitter.repository;
 
 import com.expensesplitter.entity.Template;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface TemplateRepository extends JpaRepository<Template, UUID> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Template> findByUserIdOrderByCreatedAtAsc(UUID userId);
-}
\ No newline at end of file
+
+    // Keyset pagination in (createdAt, id) order
+    List<Template> findAllByOrderByCreatedAtAscIdAsc(Limit limit);
+
+    @Query("select t from Template t " +
+           "where t.createdAt >= :createdAt and (t.createdAt > :createdAt or t.id > :id) " +
+           "order by t.createdAt, t.id")
+    List<Template> findPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select t from Template t order by t.createdAt, t.id")
+    Stream<Template> streamAll();
+
+    // Native so the soft-delete restriction on the entity does not hide the rows being purged.
+    // A template is purged only once all of its instances are gone.
+    @Query(value = "SELECT t.id FROM template t WHERE t.deleted_at IS NOT NULL " +
+                   "AND NOT EXISTS (SELECT 1 FROM template_instance i WHERE i.template_id = t.id) " +
+                   "ORDER BY t.deleted_at LIMIT :limit",
+           nativeQuery = true)
+    List<UUID> findPurgeableIds(@Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "DELETE FROM template WHERE id = :id AND deleted_at IS NOT NULL", nativeQuery = true)
+    int purgeById(@Param("id") UUID id);
+}
@@ -0,0 +1,77 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.entity.ParticipantEntryAmount;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Difference between a field value's stored allocations and the ones it should have, matched by
+ * participant. Rows kept for a participant are updated in place (so only changed amounts are
+ * written by dirty checking), participants without a row get an insert and rows for participants
+ * that are no longer allocated are deleted.
+ */
+final class AllocationDiff {
+
+    private final List<ParticipantEntryAmount> stored;
+    private final List<ParticipantEntryAmount> inserts;
+    private final List<ParticipantEntryAmount> deletes;
+
+    private AllocationDiff(List<ParticipantEntryAmount> stored, List<ParticipantEntryAmount> inserts,
+                           List<ParticipantEntryAmount> deletes) {
+        this.stored = stored;
+        this.inserts = inserts;
+        this.deletes = deletes;
+    }
+
+    /**
+     * Matches {@code desired} against {@code existing}, copying new amounts onto the existing rows.
+     * Call it only after the existing amounts have been recorded (e.g. retracted from the ledger).
+     */
+    static AllocationDiff apply(Collection<ParticipantEntryAmount> existing, Collection<ParticipantEntryAmount> desired) {
+        Map<UUID, Deque<ParticipantEntryAmount>> existingByParticipant = new HashMap<>();
+        for (ParticipantEntryAmount allocation : existing) {
+            existingByParticipant.computeIfAbsent(allocation.getTemplateParticipant().getId(), id -> new ArrayDeque<>())
+                    .add(allocation);
+        }
+
+        List<ParticipantEntryAmount> stored = new ArrayList<>(desired.size());
+        List<ParticipantEntryAmount> inserts = new ArrayList<>();
+        for (ParticipantEntryAmount allocation : desired) {
+            Deque<ParticipantEntryAmount> rows = existingByParticipant.get(allocation.getTemplateParticipant().getId());
+            ParticipantEntryAmount row = rows != null ? rows.poll() : null;
+            if (row == null) {
+                inserts.add(allocation);
+                stored.add(allocation);
+            } else {
+                if (row.getAmount().compareTo(allocation.getAmount()) != 0) {
+                    row.setAmount(allocation.getAmount());
+                }
+                stored.add(row);
+            }
+        }
+
+        List<ParticipantEntryAmount> deletes = new ArrayList<>();
+        existingByParticipant.values().forEach(deletes::addAll);
+        return new AllocationDiff(stored, inserts, deletes);
+    }
+
+    // Allocations as they will be stored once inserts and deletes are written
+    List<ParticipantEntryAmount> stored() {
+        return stored;
+    }
+
+    List<ParticipantEntryAmount> inserts() {
+        return inserts;
+    }
+
+    List<ParticipantEntryAmount> deletes() {
+        return deletes;
+    }
+}
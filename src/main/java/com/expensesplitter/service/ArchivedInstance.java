@@ -0,0 +1,22 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.dto.InstanceFieldValueResponse;
+import com.expensesplitter.dto.ParticipantEntryAmountResponse;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The contents of an archived instance: its field values in (createdAt, id) order, each with its
+ * allocations. Stored as compressed JSON in instance_archive.
+ */
+public record ArchivedInstance(List<Entry> entries) {
+
+    public record Entry(InstanceFieldValueResponse fieldValue, LocalDateTime createdAt,
+                        List<ParticipantEntryAmountResponse> allocations) {
+    }
+
+    public List<InstanceFieldValueResponse> fieldValues() {
+        return entries.stream().map(Entry::fieldValue).toList();
+    }
+}
@@ -0,0 +1,66 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.entity.ParticipantEntryAmount;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Per-participant share and paid deltas for one instance, collected while field values
+ * are written and then appended to the balance ledger in one pass.
+ */
+public class BalanceChanges {
+
+    private final SortedMap<UUID, Delta> deltas = new TreeMap<>();
+
+    public void addEntry(UUID payerParticipantId, BigDecimal amount, Collection<ParticipantEntryAmount> allocations) {
+        applyEntry(payerParticipantId, amount, allocations, 1);
+    }
+
+    public void removeEntry(UUID payerParticipantId, BigDecimal amount, Collection<ParticipantEntryAmount> allocations) {
+        applyEntry(payerParticipantId, amount, allocations, -1);
+    }
+
+    public void addShare(UUID participantId, BigDecimal amount, int entryCountDelta) {
+        deltas.merge(participantId, new Delta(amount, BigDecimal.ZERO, entryCountDelta, 0), Delta::plus);
+    }
+
+    public void addPaid(UUID participantId, BigDecimal amount, int entryCountDelta) {
+        deltas.merge(participantId, new Delta(BigDecimal.ZERO, amount, 0, entryCountDelta), Delta::plus);
+    }
+
+    public boolean isEmpty() {
+        return deltas.values().stream().allMatch(Delta::isZero);
+    }
+
+    public SortedMap<UUID, Delta> getDeltas() {
+        return Collections.unmodifiableSortedMap(deltas);
+    }
+
+    private void applyEntry(UUID payerParticipantId, BigDecimal amount,
+                            Collection<ParticipantEntryAmount> allocations, int sign) {
+        for (ParticipantEntryAmount allocation : allocations) {
+            BigDecimal share = sign > 0 ? allocation.getAmount() : allocation.getAmount().negate();
+            addShare(allocation.getTemplateParticipant().getId(), share, sign);
+        }
+        if (payerParticipantId != null) {
+            addPaid(payerParticipantId, sign > 0 ? amount : amount.negate(), sign);
+        }
+    }
+
+    public record Delta(BigDecimal share, BigDecimal paid, int shareEntryCount, int paidEntryCount) {
+
+        Delta plus(Delta other) {
+            return new Delta(share.add(other.share), paid.add(other.paid),
+                    shareEntryCount + other.shareEntryCount, paidEntryCount + other.paidEntryCount);
+        }
+
+        boolean isZero() {
+            return share.signum() == 0 && paid.signum() == 0 && shareEntryCount == 0 && paidEntryCount == 0;
+        }
+    }
+}
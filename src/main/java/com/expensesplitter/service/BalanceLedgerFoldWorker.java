@@ -0,0 +1,35 @@
+package com.expensesplitter.service;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Periodically folds the balance deltas that writers insert into the per-instance balance rows, so
+ * totals reads only add up the deltas of the last few seconds. Each instance is folded in its own
+ * transaction; see {@link InstanceBalanceService}.
+ */
+@Component
+public class BalanceLedgerFoldWorker {
+
+    // Instances with pending deltas looked up per query
+    private static final int BATCH_SIZE = 100;
+
+    private final InstanceBalanceService balanceService;
+
+    public BalanceLedgerFoldWorker(InstanceBalanceService balanceService) {
+        this.balanceService = balanceService;
+    }
+
+    @Scheduled(fixedDelayString = "${ledger.fold-interval-ms:10000}", initialDelayString = "${ledger.fold-interval-ms:10000}")
+    public void fold() {
+        List<UUID> instanceIds;
+        do {
+            instanceIds = balanceService.findInstanceIdsWithDeltas(BATCH_SIZE);
+            instanceIds.forEach(balanceService::fold);
+            // A short batch was everything pending; deltas written meanwhile wait for the next run
+        } while (instanceIds.size() == BATCH_SIZE);
+    }
+}
@@ -0,0 +1,80 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.dto.ParticipantEntryAmountResponse;
+import com.expensesplitter.dto.TemplateInstanceResponse;
+import com.expensesplitter.repository.ParticipantEntryAmountRepository;
+import com.expensesplitter.repository.TemplateInstanceRepository;
+import com.expensesplitter.repository.TemplateRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Whole-table reads for admin tooling, written as NDJSON while the rows are read from a database
+ * cursor. Each entity is detached once written so the persistence context stays empty however
+ * many rows the table has.
+ */
+@Service
+@Transactional(readOnly = true)
+public class BulkReadService {
+
+    private final TemplateRepository templateRepository;
+    private final TemplateInstanceRepository instanceRepository;
+    private final ParticipantEntryAmountRepository participantEntryAmountRepository;
+    private final EntityManager entityManager;
+    private final ObjectWriter objectWriter;
+
+    public BulkReadService(TemplateRepository templateRepository,
+                           TemplateInstanceRepository instanceRepository,
+                           ParticipantEntryAmountRepository participantEntryAmountRepository,
+                           EntityManager entityManager,
+                           JsonMapper jsonMapper) {
+        this.templateRepository = templateRepository;
+        this.instanceRepository = instanceRepository;
+        this.participantEntryAmountRepository = participantEntryAmountRepository;
+        this.entityManager = entityManager;
+        this.objectWriter = jsonMapper.writer();
+    }
+
+    public void streamTemplates(OutputStream out) throws IOException {
+        try (var rows = templateRepository.streamAll()) {
+            write(rows, Function.identity(), out);
+        }
+    }
+
+    public void streamInstances(OutputStream out) throws IOException {
+        try (var rows = instanceRepository.streamAll()) {
+            write(rows, TemplateInstanceResponse::from, out);
+        }
+    }
+
+    public void streamParticipantEntryAmounts(OutputStream out) throws IOException {
+        try (var rows = participantEntryAmountRepository.streamAll()) {
+            write(rows, ParticipantEntryAmountResponse::from, out);
+        }
+    }
+
+    private <E> void write(Stream<E> rows, Function<E, ?> mapper, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        Iterator<E> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            E row = iterator.next();
+            writer.write(objectWriter.writeValueAsString(mapper.apply(row)));
+            writer.write('\n');
+            entityManager.detach(row);
+        }
+        writer.flush();
+    }
+}
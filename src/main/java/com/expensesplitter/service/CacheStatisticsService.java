@@ -0,0 +1,50 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.dto.CacheStatisticsResponse;
+import org.springframework.stereotype.Service;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Reads the per-region statistics the JCache provider publishes over JMX for the Hibernate
+ * second-level cache, so hit rates can be watched without a JMX client.
+ */
+@Service
+public class CacheStatisticsService {
+
+    private static final String STATISTICS_QUERY = "javax.cache:type=CacheStatistics,*";
+
+    private final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+
+    public List<CacheStatisticsResponse> getStatistics() {
+        try {
+            return mBeanServer.queryNames(new ObjectName(STATISTICS_QUERY), null).stream()
+                    .map(this::toResponse)
+                    .sorted(Comparator.comparing(CacheStatisticsResponse::region))
+                    .toList();
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not read cache statistics", e);
+        }
+    }
+
+    private CacheStatisticsResponse toResponse(ObjectName name) {
+        try {
+            return new CacheStatisticsResponse(
+                    name.getKeyProperty("Cache"),
+                    (Long) mBeanServer.getAttribute(name, "CacheHits"),
+                    (Long) mBeanServer.getAttribute(name, "CacheMisses"),
+                    (Float) mBeanServer.getAttribute(name, "CacheHitPercentage"),
+                    (Long) mBeanServer.getAttribute(name, "CachePuts"),
+                    (Long) mBeanServer.getAttribute(name, "CacheRemovals"),
+                    (Long) mBeanServer.getAttribute(name, "CacheEvictions")
+            );
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not read cache statistics for " + name, e);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.enums.FieldType;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Immutable in-memory view of a template's configuration: participants, fields, split rules
+ * and their allocation percentages. Built by {@link TemplateService#getCompiledTemplate} and
+ * shared between requests until the template changes.
+ */
+public record CompiledTemplate(
+        UUID templateId,
+        Map<UUID, Participant> participants,
+        Map<UUID, Field> fields,
+        Map<UUID, List<Allocation>> ruleAllocations
+) {
+    public CompiledTemplate {
+        participants = Map.copyOf(participants);
+        fields = Map.copyOf(fields);
+        ruleAllocations = Map.copyOf(ruleAllocations);
+    }
+
+    public Participant participant(UUID participantId) {
+        Participant participant = participantId != null ? participants.get(participantId) : null;
+        if (participant == null) {
+            throw new ResourceNotFoundException("Participant not found with id: " + participantId);
+        }
+        return participant;
+    }
+
+    public Field field(UUID fieldId) {
+        Field field = fieldId != null ? fields.get(fieldId) : null;
+        if (field == null) {
+            throw new ResourceNotFoundException("Field not found with id: " + fieldId);
+        }
+        return field;
+    }
+
+    public List<Allocation> allocationsForRule(UUID splitRuleId) {
+        List<Allocation> allocations = splitRuleId != null ? ruleAllocations.get(splitRuleId) : null;
+        if (allocations == null) {
+            throw new ResourceNotFoundException("Split rule not found with id: " + splitRuleId);
+        }
+        return allocations;
+    }
+
+    // Rule percentages in basis points, in the same order as allocationsForRule
+    public long[] basisPointsForRule(UUID splitRuleId) {
+        List<Allocation> allocations = allocationsForRule(splitRuleId);
+        long[] basisPoints = new long[allocations.size()];
+        for (int i = 0; i < basisPoints.length; i++) {
+            basisPoints[i] = SplitAllocator.toBasisPoints(allocations.get(i).percent());
+        }
+        return basisPoints;
+    }
+
+    // Whether the rule's percentages add up to exactly 100%
+    public boolean ruleCoversFullAmount(UUID splitRuleId) {
+        long total = 0;
+        for (long basisPoints : basisPointsForRule(splitRuleId)) {
+            total += basisPoints;
+        }
+        return total == SplitAllocator.FULL_PERCENT;
+    }
+
+    public record Participant(UUID id, String name, int displayOrder) {}
+
+    public record Field(
+            UUID id,
+            String label,
+            FieldType fieldType,
+            UUID defaultSplitRuleId,
+            BigDecimal defaultAmount,
+            UUID defaultPayerParticipantId,
+            int displayOrder,
+            Map<UUID, BigDecimal> defaultParticipantAmounts
+    ) {
+        public Field {
+            defaultParticipantAmounts = Map.copyOf(defaultParticipantAmounts);
+        }
+    }
+
+    public record Allocation(UUID participantId, BigDecimal percent) {}
+}
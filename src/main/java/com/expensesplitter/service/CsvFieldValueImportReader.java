@@ -0,0 +1,225 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.dto.AddFieldValueRequest;
+import com.expensesplitter.enums.SplitMode;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * RFC 4180 style CSV with a header row naming the {@link AddFieldValueRequest} properties.
+ * {@code templateFieldId} and {@code amount} are required columns; {@code participantAmounts}
+ * is written as {@code participantId=amount} pairs separated by semicolons.
+ */
+public class CsvFieldValueImportReader extends FieldValueImportReader {
+
+    private static final List<String> COLUMNS = List.of("templateFieldId", "amount", "note", "entryDate",
+            "splitMode", "overrideSplitRuleId", "payerParticipantId", "participantAmounts");
+
+    private final StringBuilder field = new StringBuilder();
+    private Map<String, Integer> columnIndexes;
+    private boolean recordTooLong;
+    private boolean unterminatedQuote;
+
+    public CsvFieldValueImportReader(Reader reader) {
+        super(reader);
+    }
+
+    @Override
+    public FieldValueImportRow next() throws IOException {
+        if (columnIndexes == null) {
+            readHeader();
+        }
+        while (true) {
+            long rowLine = line;
+            List<String> record = readRecord();
+            if (record == null) {
+                return null;
+            }
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            if (recordTooLong) {
+                return FieldValueImportRow.failed(rowLine, "Row exceeds " + MAX_ROW_LENGTH + " characters");
+            }
+            if (unterminatedQuote) {
+                return FieldValueImportRow.failed(rowLine, "Unterminated quoted value");
+            }
+            try {
+                return FieldValueImportRow.of(rowLine, toRequest(record));
+            } catch (IllegalArgumentException e) {
+                return FieldValueImportRow.failed(rowLine, e.getMessage());
+            }
+        }
+    }
+
+    private void readHeader() throws IOException {
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new ValidationException("Import file is empty");
+        }
+
+        Map<String, String> known = new HashMap<>();
+        COLUMNS.forEach(column -> known.put(column.toLowerCase(Locale.ROOT), column));
+        columnIndexes = new LinkedHashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String column = known.get(header.get(i).strip().toLowerCase(Locale.ROOT));
+            if (column != null) {
+                columnIndexes.putIfAbsent(column, i);
+            }
+        }
+        if (!columnIndexes.containsKey("templateFieldId") || !columnIndexes.containsKey("amount")) {
+            throw new ValidationException("CSV header must include templateFieldId and amount columns");
+        }
+    }
+
+    private AddFieldValueRequest toRequest(List<String> record) {
+        AddFieldValueRequest request = new AddFieldValueRequest();
+        request.setTemplateFieldId(uuid(value(record, "templateFieldId"), "templateFieldId"));
+        request.setAmount(amount(value(record, "amount"), "amount"));
+        request.setNote(value(record, "note"));
+        request.setEntryDate(date(value(record, "entryDate"), "entryDate"));
+        String splitMode = value(record, "splitMode");
+        if (splitMode != null) {
+            try {
+                request.setSplitMode(SplitMode.valueOf(splitMode.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown splitMode: " + splitMode);
+            }
+        }
+        request.setOverrideSplitRuleId(uuid(value(record, "overrideSplitRuleId"), "overrideSplitRuleId"));
+        request.setPayerParticipantId(uuid(value(record, "payerParticipantId"), "payerParticipantId"));
+        request.setParticipantAmounts(participantAmounts(value(record, "participantAmounts")));
+        return request;
+    }
+
+    private String value(List<String> record, String column) {
+        Integer index = columnIndexes.get(column);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).strip();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static UUID uuid(String value, String column) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid " + column + ": " + value);
+        }
+    }
+
+    private static BigDecimal amount(String value, String column) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + column + ": " + value);
+        }
+    }
+
+    private static LocalDate date(String value, String column) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid " + column + ", expected YYYY-MM-DD: " + value);
+        }
+    }
+
+    private static Map<UUID, BigDecimal> participantAmounts(String value) {
+        if (value == null) {
+            return null;
+        }
+        Map<UUID, BigDecimal> amounts = new LinkedHashMap<>();
+        for (String pair : value.split(";")) {
+            if (pair.isBlank()) {
+                continue;
+            }
+            int separator = pair.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid participantAmounts entry: " + pair.strip());
+            }
+            amounts.put(uuid(pair.substring(0, separator).strip(), "participantAmounts participant"),
+                    amount(pair.substring(separator + 1).strip(), "participantAmounts amount"));
+        }
+        return amounts;
+    }
+
+    // Reads one record, following quoted values across line breaks; null at end of input
+    private List<String> readRecord() throws IOException {
+        recordTooLong = false;
+        unterminatedQuote = false;
+        List<String> record = new ArrayList<>();
+        field.setLength(0);
+        int length = 0;
+        boolean quoted = false;
+        boolean sawAny = false;
+
+        int c;
+        while ((c = read()) != -1) {
+            sawAny = true;
+            if (++length > MAX_ROW_LENGTH) {
+                recordTooLong = true;
+            }
+            if (quoted) {
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        append('"');
+                    } else {
+                        quoted = false;
+                        pushBack(next);
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                record.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                line++;
+                break;
+            } else if (c != '\r') {
+                append((char) c);
+            }
+        }
+
+        if (!sawAny) {
+            return null;
+        }
+        unterminatedQuote = quoted;
+        record.add(field.toString());
+        return record;
+    }
+
+    private void append(char c) {
+        // Keep consuming an oversized record to find its end, but stop buffering it
+        if (!recordTooLong) {
+            field.append(c);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.expensesplitter.service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * RFC 4180 style CSV in the same layout {@link CsvFieldValueImportReader} reads, with the
+ * instance, field label and payer name added for readers of the file.
+ */
+public class CsvLedgerExportWriter extends LedgerExportWriter {
+
+    private static final List<String> COLUMNS = List.of("instanceId", "instanceName", "fieldValueId",
+            "templateFieldId", "fieldLabel", "amount", "note", "entryDate", "splitMode", "overrideSplitRuleId",
+            "payerParticipantId", "payerName", "participantAmounts");
+
+    public CsvLedgerExportWriter(Writer writer) {
+        super(writer);
+    }
+
+    @Override
+    public void begin() throws IOException {
+        for (int i = 0; i < COLUMNS.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(COLUMNS.get(i));
+        }
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void write(LedgerExportEntry entry) throws IOException {
+        writer.write(String.valueOf(entry.instanceId()));
+        writer.write(',');
+        writeText(entry.instanceName());
+        writer.write(',');
+        writer.write(String.valueOf(entry.fieldValueId()));
+        writer.write(',');
+        writer.write(String.valueOf(entry.templateFieldId()));
+        writer.write(',');
+        writeText(entry.fieldLabel());
+        writer.write(',');
+        writer.write(entry.amount().toPlainString());
+        writer.write(',');
+        writeText(entry.note());
+        writer.write(',');
+        writeValue(entry.entryDate());
+        writer.write(',');
+        writeValue(entry.splitMode());
+        writer.write(',');
+        writeValue(entry.overrideSplitRuleId());
+        writer.write(',');
+        writeValue(entry.payerParticipantId());
+        writer.write(',');
+        writeText(entry.payerName());
+        writer.write(',');
+        boolean first = true;
+        for (Map.Entry<UUID, BigDecimal> amount : entry.participantAmounts().entrySet()) {
+            if (!first) {
+                writer.write(';');
+            }
+            writer.write(amount.getKey().toString());
+            writer.write('=');
+            writer.write(amount.getValue().toPlainString());
+            first = false;
+        }
+        writer.write("\r\n");
+    }
+
+    private void writeValue(Object value) throws IOException {
+        if (value != null) {
+            writer.write(value.toString());
+        }
+    }
+
+    // Quotes only when needed, doubling embedded quotes
+    private void writeText(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
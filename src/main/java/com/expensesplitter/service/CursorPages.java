@@ -0,0 +1,35 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.dto.CursorPageResponse;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Page size limits and page assembly shared by the keyset-paginated listings. Queries fetch one
+ * row more than the page size; that extra row only tells whether another page follows.
+ */
+public final class CursorPages {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private CursorPages() {
+    }
+
+    public static int pageSize(Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new ValidationException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return pageSize;
+    }
+
+    public static <E, T> CursorPageResponse<T> of(List<E> rows, int pageSize, Function<E, T> mapper,
+                                                  Function<E, String> cursorOf) {
+        boolean hasMore = rows.size() > pageSize;
+        List<E> page = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore ? cursorOf.apply(page.get(page.size() - 1)) : null;
+        return new CursorPageResponse<>(page.stream().map(mapper).toList(), nextCursor, hasMore);
+    }
+}
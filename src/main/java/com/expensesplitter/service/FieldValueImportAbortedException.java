@@ -0,0 +1,36 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.dto.FieldValueImportResponse;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+/**
+ * An import that stopped after some of its chunks had committed. The report counts the rows that
+ * were written or rejected, and {@link FieldValueImportResponse#firstUnimportedLine()} is where an
+ * upload of the rest of the file should start, so sending the whole file again is never needed.
+ */
+public class FieldValueImportAbortedException extends ApiException {
+
+    private final FieldValueImportResponse report;
+
+    public FieldValueImportAbortedException(FieldValueImportResponse report, RuntimeException cause) {
+        super("Import stopped at line " + report.firstUnimportedLine() + " after importing "
+                        + report.importedRows() + " rows: " + cause.getMessage(),
+                "IMPORT_ABORTED", statusOf(cause));
+        initCause(cause);
+        this.report = report;
+    }
+
+    public FieldValueImportResponse getReport() {
+        return report;
+    }
+
+    private static int statusOf(RuntimeException cause) {
+        if (cause instanceof ApiException apiException) {
+            return apiException.getHttpStatus();
+        }
+        if (cause instanceof OptimisticLockingFailureException) {
+            return 409;
+        }
+        return 500;
+    }
+}
@@ -0,0 +1,66 @@
+package com.expensesplitter.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads an import file one row at a time so an upload is never held in memory as a whole.
+ */
+public abstract class FieldValueImportReader implements Closeable {
+
+    // Longest row accepted; anything longer is reported as an error and skipped
+    static final int MAX_ROW_LENGTH = 64 * 1024;
+
+    private final Reader reader;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+    private int pushedBack = -1;
+
+    protected long line = 1;
+
+    protected FieldValueImportReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Returns the next row, or {@code null} once the input is exhausted.
+     */
+    public abstract FieldValueImportRow next() throws IOException;
+
+    /**
+     * Returns the line the next row starts on.
+     */
+    public long nextLine() {
+        return line;
+    }
+
+    // Unsynchronized buffered read; parsing goes character by character
+    protected int read() throws IOException {
+        if (pushedBack != -1) {
+            int c = pushedBack;
+            pushedBack = -1;
+            return c;
+        }
+        if (position == limit) {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position++];
+    }
+
+    // Returns one character to be read again; pushing back end of input is a no-op
+    protected void pushBack(int c) {
+        pushedBack = c;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,17 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.dto.AddFieldValueRequest;
+
+/**
+ * One parsed row of an import file: either a request or the reason it could not be parsed.
+ */
+public record FieldValueImportRow(long line, AddFieldValueRequest request, String error) {
+
+    public static FieldValueImportRow of(long line, AddFieldValueRequest request) {
+        return new FieldValueImportRow(line, request, null);
+    }
+
+    public static FieldValueImportRow failed(long line, String error) {
+        return new FieldValueImportRow(line, null, error);
+    }
+}
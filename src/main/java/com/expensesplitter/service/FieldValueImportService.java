@@ -0,0 +1,115 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.dto.FieldValueImportError;
+import com.expensesplitter.dto.FieldValueImportResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Streams CSV or NDJSON uploads into an instance. Rows are parsed as they arrive and handed to
+ * {@link InstanceService#importFieldValues} in chunks, each chunk in its own transaction, so heap
+ * use stays flat however large the file is. Rows already imported stay imported when a later
+ * chunk fails; the failure then carries the report so far and the line to resume the upload from
+ * (see {@link FieldValueImportAbortedException}).
+ */
+@Service
+public class FieldValueImportService {
+
+    public static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+    public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final InstanceService instanceService;
+    private final JsonMapper jsonMapper;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+
+    public FieldValueImportService(InstanceService instanceService,
+                                   JsonMapper jsonMapper,
+                                   @Value("${import.chunk-size:500}") int chunkSize,
+                                   @Value("${import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.instanceService = instanceService;
+        this.jsonMapper = jsonMapper;
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public FieldValueImportResponse importFieldValues(UUID instanceId, MediaType contentType, InputStream body) {
+        if (instanceId == null) {
+            throw new ValidationException("Instance ID is required");
+        }
+        instanceService.getInstanceById(instanceId);
+
+        // Counted per committed chunk, so an aborted report covers only rows that were written or rejected
+        int totalRows = 0;
+        int failedRows = 0;
+        // Where a resumed upload starts; null until the first chunk commits
+        Long firstUnimportedLine = null;
+        List<FieldValueImportError> errors = new ArrayList<>();
+        List<FieldValueImportRow> chunk = new ArrayList<>(chunkSize);
+
+        try (FieldValueImportReader reader = openReader(contentType, body)) {
+            FieldValueImportRow row;
+            while ((row = reader.next()) != null) {
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    failedRows += report(instanceService.importFieldValues(instanceId, chunk), errors);
+                    totalRows += chunk.size();
+                    firstUnimportedLine = reader.nextLine();
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                failedRows += report(instanceService.importFieldValues(instanceId, chunk), errors);
+                totalRows += chunk.size();
+            }
+        } catch (IOException | RuntimeException e) {
+            RuntimeException failure = e instanceof IOException io
+                    ? new UncheckedIOException("Failed to read import body", io)
+                    : (RuntimeException) e;
+            // Nothing was written yet, so the upload can simply be sent again
+            if (firstUnimportedLine == null) {
+                throw failure;
+            }
+            throw new FieldValueImportAbortedException(new FieldValueImportResponse(instanceId, totalRows,
+                    totalRows - failedRows, failedRows, failedRows > errors.size(), errors, true, firstUnimportedLine),
+                    failure);
+        }
+
+        return new FieldValueImportResponse(instanceId, totalRows, totalRows - failedRows,
+                failedRows, failedRows > errors.size(), errors, false, null);
+    }
+
+    private FieldValueImportReader openReader(MediaType contentType, InputStream body) {
+        Charset charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+        InputStreamReader reader = new InputStreamReader(body, charset);
+        if (TEXT_CSV.isCompatibleWith(contentType)) {
+            return new CsvFieldValueImportReader(reader);
+        }
+        if (APPLICATION_NDJSON.isCompatibleWith(contentType)) {
+            return new NdjsonFieldValueImportReader(reader, jsonMapper.reader());
+        }
+        throw new ApiException("Unsupported import format: " + contentType, "UNSUPPORTED_MEDIA_TYPE", 415);
+    }
+
+    // Keeps the first maxReportedErrors errors and returns how many rows failed
+    private int report(List<FieldValueImportError> chunkErrors, List<FieldValueImportError> errors) {
+        for (FieldValueImportError error : chunkErrors) {
+            if (errors.size() < maxReportedErrors) {
+                errors.add(error);
+            }
+        }
+        return chunkErrors.size();
+    }
+}
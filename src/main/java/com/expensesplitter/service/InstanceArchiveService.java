@@ -0,0 +1,135 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.dto.InstanceFieldValueResponse;
+import com.expensesplitter.dto.ParticipantEntryAmountResponse;
+import com.expensesplitter.entity.InstanceArchive;
+import com.expensesplitter.entity.InstanceFieldValue;
+import com.expensesplitter.entity.TemplateInstance;
+import com.expensesplitter.repository.*;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static com.expensesplitter.repository.InstanceFieldValueSpecifications.inInstance;
+
+/**
+ * Moves the field values and allocations of long-settled instances out of the hot tables into one
+ * compressed instance_archive row each, and reads them back. Balances, settlement transfers and the
+ * settlement summary stay where they are, so totals and settlement plans read the same afterwards.
+ * Each instance is archived in its own transaction; see {@link InstanceArchiveWorker}.
+ */
+@Service
+@Transactional
+public class InstanceArchiveService {
+
+    private final TemplateInstanceRepository instanceRepository;
+    private final InstanceFieldValueRepository fieldValueRepository;
+    private final ParticipantEntryAmountRepository participantEntryAmountRepository;
+    private final InstanceSettlementSummaryRepository settlementSummaryRepository;
+    private final InstanceArchiveRepository archiveRepository;
+    private final JsonMapper jsonMapper;
+
+    public InstanceArchiveService(TemplateInstanceRepository instanceRepository,
+                                  InstanceFieldValueRepository fieldValueRepository,
+                                  ParticipantEntryAmountRepository participantEntryAmountRepository,
+                                  InstanceSettlementSummaryRepository settlementSummaryRepository,
+                                  InstanceArchiveRepository archiveRepository,
+                                  JsonMapper jsonMapper) {
+        this.instanceRepository = instanceRepository;
+        this.fieldValueRepository = fieldValueRepository;
+        this.participantEntryAmountRepository = participantEntryAmountRepository;
+        this.settlementSummaryRepository = settlementSummaryRepository;
+        this.archiveRepository = archiveRepository;
+        this.jsonMapper = jsonMapper;
+    }
+
+    // Not read-only, so the scan runs on the primary and sees instances reopened since they settled
+    public List<UUID> findArchivableInstanceIds(LocalDateTime settledBefore, int limit) {
+        return settlementSummaryRepository.findArchivableInstanceIds(settledBefore, Limit.of(limit));
+    }
+
+    /**
+     * Archives the instance if it is still settled since before {@code settledBefore} and not yet
+     * archived. Marking it archived bumps its version, so an overlapping reopen, rename or append
+     * fails on its version check; an append that commits while the entries are being moved makes the
+     * deleted row counts differ from the archived ones, and the move is rolled back instead.
+     */
+    public void archiveInstance(UUID instanceId, LocalDateTime settledBefore) {
+        TemplateInstance instance = instanceRepository.findById(instanceId).orElse(null);
+        boolean settledLongAgo = settlementSummaryRepository.findById(instanceId)
+                .map(summary -> summary.getSettledAt().isBefore(settledBefore))
+                .orElse(false);
+        if (instance == null || instance.getArchivedAt() != null || !settledLongAgo) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        instance.setArchivedAt(now);
+        instanceRepository.saveAndFlush(instance);
+
+        Map<UUID, List<ParticipantEntryAmountResponse>> allocationsByFieldValue =
+                participantEntryAmountRepository.findResponsesByInstanceId(instanceId).stream()
+                        .collect(Collectors.groupingBy(ParticipantEntryAmountResponse::instanceFieldValueId));
+        List<InstanceFieldValue> fieldValues = fieldValueRepository.findBy(inInstance(instanceId), query -> query
+                .sortBy(Sort.by("createdAt", "id"))
+                .all());
+        List<ArchivedInstance.Entry> entries = fieldValues.stream()
+                .map(fv -> new ArchivedInstance.Entry(InstanceFieldValueResponse.from(fv), fv.getCreatedAt(),
+                        allocationsByFieldValue.getOrDefault(fv.getId(), List.of())))
+                .toList();
+
+        InstanceArchive archive = new InstanceArchive();
+        archive.setInstance(instance);
+        archive.setArchivedAt(now);
+        archive.setPayload(encode(new ArchivedInstance(entries)));
+        archiveRepository.save(archive);
+        archiveRepository.flush();
+
+        // An entry added after the read above would otherwise be deleted without being archived
+        int allocations = allocationsByFieldValue.values().stream().mapToInt(List::size).sum();
+        if (participantEntryAmountRepository.deleteByInstanceId(instanceId) != allocations
+                || fieldValueRepository.deleteByInstanceId(instanceId) != entries.size()) {
+            throw new OptimisticLockingFailureException("Instance " + instanceId + " changed while it was being archived");
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<ArchivedInstance> findArchive(UUID instanceId) {
+        return archiveRepository.findById(instanceId).map(archive -> decode(archive.getPayload()));
+    }
+
+    private byte[] encode(ArchivedInstance contents) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            jsonMapper.writeValue(out, contents);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private ArchivedInstance decode(byte[] payload) {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(payload))) {
+            return jsonMapper.readValue(in, ArchivedInstance.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.expensesplitter.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Periodically archives instances settled more than {@code archive.after-days} days ago, oldest
+ * first, so the field value and allocation tables and their indexes only hold instances that are
+ * still being worked on. Archived instances stay readable; see {@link InstanceArchiveService}.
+ */
+@Component
+public class InstanceArchiveWorker {
+
+    // Archivable instances looked up per query
+    private static final int BATCH_SIZE = 100;
+
+    private final InstanceArchiveService archiveService;
+    private final int afterDays;
+
+    public InstanceArchiveWorker(InstanceArchiveService archiveService,
+                                 @Value("${archive.after-days:365}") int afterDays) {
+        if (afterDays < 1) {
+            throw new IllegalArgumentException("archive.after-days must be positive");
+        }
+        this.archiveService = archiveService;
+        this.afterDays = afterDays;
+    }
+
+    @Scheduled(fixedDelayString = "${archive.interval-ms:3600000}", initialDelayString = "${archive.interval-ms:3600000}")
+    public void archive() {
+        LocalDateTime settledBefore = LocalDateTime.now().minusDays(afterDays);
+        List<UUID> instanceIds;
+        while (!(instanceIds = archiveService.findArchivableInstanceIds(settledBefore, BATCH_SIZE)).isEmpty()) {
+            for (UUID instanceId : instanceIds) {
+                try {
+                    archiveService.archiveInstance(instanceId, settledBefore);
+                } catch (OptimisticLockingFailureException e) {
+                    // Changed while it was being moved; it is still archivable, so the next run picks it up again
+                    return;
+                }
+            }
+        }
+    }
+}
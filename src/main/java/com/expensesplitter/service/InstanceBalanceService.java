@@ -0,0 +1,107 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.dto.ParticipantTotalsResponse;
+import com.expensesplitter.repository.*;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Maintains the per-instance participant balance ledger. Writers insert deltas in the same
+ * transaction as the field value change, and never update a shared row, so concurrent appends to
+ * one instance do not queue on each other's row locks. {@link BalanceLedgerFoldWorker} folds the
+ * deltas into the balance rows; reading totals is a single indexed lookup over both.
+ */
+@Service
+@Transactional
+public class InstanceBalanceService {
+
+    private final InstanceParticipantBalanceRepository balanceRepository;
+    private final ParticipantEntryAmountRepository participantEntryAmountRepository;
+    private final InstanceFieldValueRepository fieldValueRepository;
+
+    public InstanceBalanceService(InstanceParticipantBalanceRepository balanceRepository,
+                                  ParticipantEntryAmountRepository participantEntryAmountRepository,
+                                  InstanceFieldValueRepository fieldValueRepository) {
+        this.balanceRepository = balanceRepository;
+        this.participantEntryAmountRepository = participantEntryAmountRepository;
+        this.fieldValueRepository = fieldValueRepository;
+    }
+
+    public void apply(UUID instanceId, BalanceChanges changes) {
+        changes.getDeltas().forEach((participantId, delta) -> {
+            if (!delta.isZero()) {
+                balanceRepository.appendDelta(instanceId, participantId, delta.share(), delta.paid(),
+                        delta.shareEntryCount(), delta.paidEntryCount());
+            }
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public ParticipantTotalsResponse getInstanceTotals(UUID instanceId) {
+        Map<UUID, BigDecimal> shares = new HashMap<>();
+        Map<UUID, BigDecimal> paid = new HashMap<>();
+        for (ParticipantBalanceTotal balance : balanceRepository.findTotalsByInstanceId(instanceId)) {
+            UUID pid = balance.participantId();
+            if (balance.shareEntryCount() > 0) {
+                shares.put(pid, balance.shareTotal());
+            }
+            if (balance.paidEntryCount() > 0) {
+                paid.put(pid, balance.paidTotal());
+            }
+        }
+
+        // Every entry with a payer contributes to the paid sums
+        boolean hasPayers = !paid.isEmpty();
+
+        Map<UUID, BigDecimal> net = new HashMap<>();
+        if (hasPayers) {
+            Set<UUID> allIds = new HashSet<>(shares.keySet());
+            allIds.addAll(paid.keySet());
+            for (UUID id : allIds) {
+                BigDecimal s = shares.getOrDefault(id, BigDecimal.ZERO);
+                BigDecimal p = paid.getOrDefault(id, BigDecimal.ZERO);
+                net.put(id, s.subtract(p));
+            }
+        }
+
+        return new ParticipantTotalsResponse(hasPayers, shares, paid, net);
+    }
+
+    @Transactional(readOnly = true)
+    public BigDecimal getParticipantShare(UUID instanceId, UUID participantId) {
+        return balanceRepository.findTotalByInstanceIdAndParticipantId(instanceId, participantId)
+                .map(ParticipantBalanceTotal::shareTotal)
+                .orElse(BigDecimal.ZERO);
+    }
+
+    // Not read-only, so the scan runs on the primary, where the deltas are written
+    public List<UUID> findInstanceIdsWithDeltas(int limit) {
+        return balanceRepository.findInstanceIdsWithDeltas(Limit.of(limit));
+    }
+
+    public void fold(UUID instanceId) {
+        balanceRepository.foldDeltas(instanceId);
+    }
+
+    // Reconstructs the ledger from participant_entry_amount and the field value payers
+    public ParticipantTotalsResponse rebuild(UUID instanceId) {
+        balanceRepository.deleteByInstanceId(instanceId);
+        balanceRepository.deleteDeltasByInstanceId(instanceId);
+
+        BalanceChanges changes = new BalanceChanges();
+        for (ParticipantAmountTotal total : participantEntryAmountRepository.sumSharesByInstanceId(instanceId)) {
+            changes.addShare(total.getParticipantId(), total.getTotal(), Math.toIntExact(total.getEntryCount()));
+        }
+        for (ParticipantAmountTotal total : fieldValueRepository.sumPaidByInstanceId(instanceId)) {
+            changes.addPaid(total.getParticipantId(), total.getTotal(), Math.toIntExact(total.getEntryCount()));
+        }
+        apply(instanceId, changes);
+        fold(instanceId);
+
+        return getInstanceTotals(instanceId);
+    }
+}
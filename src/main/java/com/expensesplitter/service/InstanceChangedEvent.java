@@ -0,0 +1,13 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.entity.InstanceFieldValue;
+import com.expensesplitter.enums.InstanceEventType;
+
+import java.util.UUID;
+
+/**
+ * Published by instance mutations and pushed to the instance's event stream once the transaction
+ * commits. The field value is mapped to its response only then, so it carries the committed version.
+ */
+public record InstanceChangedEvent(UUID instanceId, InstanceEventType type, InstanceFieldValue fieldValue,
+                                   BalanceChanges balances) {}
@@ -0,0 +1,121 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.dto.InstanceEventResponse;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fans committed instance changes out to the clients streaming that instance's events.
+ * <p>
+ * Each subscriber has a bounded buffer drained by its own sender, so a slow client holds up
+ * neither the request that made the change nor the other subscribers. A client that falls a full
+ * buffer behind is disconnected; it reconnects and reloads the instance instead of working
+ * through a stale backlog.
+ */
+@Service
+public class InstanceEventBroker {
+
+    private final TaskExecutor executor;
+    private final int bufferSize;
+    private final long timeoutMs;
+
+    private final Map<UUID, Set<Subscriber>> subscribersByInstance = new ConcurrentHashMap<>();
+
+    public InstanceEventBroker(@Qualifier("instanceEventExecutor") TaskExecutor executor,
+                               @Value("${instance-events.buffer-size:64}") int bufferSize,
+                               @Value("${instance-events.timeout-ms:1800000}") long timeoutMs) {
+        this.executor = executor;
+        this.bufferSize = bufferSize;
+        this.timeoutMs = timeoutMs;
+    }
+
+    public SseEmitter subscribe(UUID instanceId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(instanceId, emitter, new ArrayBlockingQueue<>(bufferSize));
+        subscribersByInstance.computeIfAbsent(instanceId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        return emitter;
+    }
+
+    // Runs after the change commits, so a rolled back or retried attempt is never pushed
+    @TransactionalEventListener
+    public void onInstanceChanged(InstanceChangedEvent event) {
+        Set<Subscriber> subscribers = subscribersByInstance.get(event.instanceId());
+        if (subscribers == null) {
+            return;
+        }
+        Set<DataWithMediaType> message = SseEmitter.event()
+                .name(event.type().name())
+                .data(InstanceEventResponse.from(event))
+                .build();
+        subscribers.forEach(subscriber -> offer(subscriber, message));
+    }
+
+    // Keeps idle streams open through proxies and notices clients that have gone away
+    @Scheduled(fixedDelayString = "${instance-events.heartbeat-ms:25000}",
+               initialDelayString = "${instance-events.heartbeat-ms:25000}")
+    public void sendHeartbeats() {
+        Set<DataWithMediaType> heartbeat = SseEmitter.event().comment("heartbeat").build();
+        subscribersByInstance.values().forEach(subscribers ->
+                subscribers.forEach(subscriber -> offer(subscriber, heartbeat)));
+    }
+
+    private void offer(Subscriber subscriber, Set<DataWithMediaType> message) {
+        if (!subscriber.buffer().offer(message)) {
+            // Slow consumer; completing waits for its sender, so it is done off the publishing thread
+            remove(subscriber);
+            executor.execute(subscriber.emitter()::complete);
+            return;
+        }
+        if (subscriber.sending().compareAndSet(false, true)) {
+            executor.execute(() -> send(subscriber));
+        }
+    }
+
+    // At most one sender per subscriber; it re-checks the buffer after stepping down so no message is stranded
+    private void send(Subscriber subscriber) {
+        do {
+            Set<DataWithMediaType> message;
+            while ((message = subscriber.buffer().poll()) != null) {
+                try {
+                    subscriber.emitter().send(message);
+                } catch (IOException | IllegalStateException e) {
+                    remove(subscriber);
+                    return;
+                }
+            }
+            subscriber.sending().set(false);
+        } while (!subscriber.buffer().isEmpty() && subscriber.sending().compareAndSet(false, true));
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribersByInstance.computeIfPresent(subscriber.instanceId(), (id, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    private record Subscriber(UUID instanceId, SseEmitter emitter, BlockingQueue<Set<DataWithMediaType>> buffer,
+                              AtomicBoolean sending) {
+
+        Subscriber(UUID instanceId, SseEmitter emitter, BlockingQueue<Set<DataWithMediaType>> buffer) {
+            this(instanceId, emitter, buffer, new AtomicBoolean());
+        }
+    }
+}
@@ -1,20 +1,48 @@
 package com.expensesplitter.service;
 
 import com.expensesplitter.dto.AddFieldValueRequest;
+import com.expensesplitter.dto.CursorPageResponse;
+import com.expensesplitter.dto.FieldValueImportError;
+import com.expensesplitter.dto.InstanceDetailResponse;
+import com.expensesplitter.dto.InstanceFieldValueResponse;
+import com.expensesplitter.dto.InstanceSummaryResponse;
+import com.expensesplitter.dto.ParticipantEntryAmountResponse;
+import com.expensesplitter.dto.ParticipantTotalsResponse;
+import com.expensesplitter.dto.SettlementPlanResponse;
+import com.expensesplitter.dto.SettlementTransferResponse;
+import com.expensesplitter.dto.TemplateFieldResponse;
+import com.expensesplitter.dto.TemplateInstanceResponse;
+import com.expensesplitter.dto.TemplateParticipantResponse;
 import com.expensesplitter.entity.*;
+import com.expensesplitter.enums.InstanceEventType;
 import com.expensesplitter.enums.InstanceStatus;
 import com.expensesplitter.enums.SplitMode;
 import com.expensesplitter.repository.*;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.resilience.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import static com.expensesplitter.repository.InstanceFieldValueSpecifications.*;
+
 @Service
 @Transactional
 public class InstanceService {
@@ -23,15 +51,30 @@ public class InstanceService {
     private final InstanceFieldValueRepository fieldValueRepository;
     private final TemplateService templateService;
     private final ParticipantEntryAmountRepository participantEntryAmountRepository;
+    private final InstanceBalanceService balanceService;
+    private final SettlementTransferRepository settlementTransferRepository;
+    private final InstanceSettlementSummaryRepository settlementSummaryRepository;
+    private final InstanceArchiveService archiveService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public InstanceService(TemplateInstanceRepository instanceRepository,
                            InstanceFieldValueRepository fieldValueRepository,
                            TemplateService templateService,
-                           ParticipantEntryAmountRepository participantEntryAmountRepository) {
+                           ParticipantEntryAmountRepository participantEntryAmountRepository,
+                           InstanceBalanceService balanceService,
+                           SettlementTransferRepository settlementTransferRepository,
+                           InstanceSettlementSummaryRepository settlementSummaryRepository,
+                           InstanceArchiveService archiveService,
+                           ApplicationEventPublisher eventPublisher) {
         this.instanceRepository = instanceRepository;
         this.fieldValueRepository = fieldValueRepository;
         this.templateService = templateService;
         this.participantEntryAmountRepository = participantEntryAmountRepository;
+        this.balanceService = balanceService;
+        this.settlementTransferRepository = settlementTransferRepository;
+        this.settlementSummaryRepository = settlementSummaryRepository;
+        this.archiveService = archiveService;
+        this.eventPublisher = eventPublisher;
     }
 
     // Instance CRUD Operations
@@ -59,24 +102,37 @@ public class InstanceService {
         return savedInstance;
     }
 
+    @Transactional(readOnly = true)
     public TemplateInstance getInstanceById(UUID instanceId) {
         return instanceRepository.findById(instanceId)
                 .orElseThrow(() -> new ResourceNotFoundException("Instance not found with id: " + instanceId));
     }
 
-    public List<TemplateInstance> getInstancesByTemplate(UUID templateId) {
-        return instanceRepository.findByTemplateId(templateId);
+    @Transactional(readOnly = true)
+    public List<TemplateInstanceResponse> getInstancesByTemplate(UUID templateId) {
+        return instanceRepository.findResponsesByTemplateId(templateId);
     }
 
-    public List<TemplateInstance> getInstancesByTemplateAndStatus(UUID templateId, InstanceStatus status) {
-        return instanceRepository.findByTemplateIdAndStatus(templateId, status);
+    @Transactional(readOnly = true)
+    public List<TemplateInstanceResponse> getInstancesByTemplateAndStatus(UUID templateId, InstanceStatus status) {
+        return instanceRepository.findResponsesByTemplateIdAndStatus(templateId, status);
     }
 
-    public List<TemplateInstance> getAllInstances() {
-        return instanceRepository.findAll();
+    @Transactional(readOnly = true)
+    public CursorPageResponse<TemplateInstanceResponse> getInstancePage(String cursor, Integer limit) {
+        int pageSize = CursorPages.pageSize(limit);
+        List<TemplateInstanceResponse> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = instanceRepository.findResponsePage(Limit.of(pageSize + 1));
+        } else {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            rows = instanceRepository.findResponsePageAfter(position.createdAt(), position.id(), Limit.of(pageSize + 1));
+        }
+        return CursorPages.of(rows, pageSize, Function.identity(),
+                i -> new KeysetCursor(i.createdAt(), i.id()).encode());
     }
 
-    public TemplateInstance updateInstanceName(UUID instanceId, String name) {
+    public TemplateInstance updateInstanceName(UUID instanceId, String name, Long expectedVersion) {
         if (instanceId == null) {
             throw new ValidationException("Instance ID is required");
         }
@@ -88,118 +144,369 @@ public class InstanceService {
         }
 
         TemplateInstance instance = getInstanceById(instanceId);
+        checkVersion("Instance", expectedVersion, instance.getVersion());
         instance.setName(name);
         return instanceRepository.save(instance);
     }
 
     public TemplateInstance markInstanceAsSettled(UUID instanceId) {
         TemplateInstance instance = getInstanceById(instanceId);
+        checkNotArchived(instance);
+        // Settling again would rewrite the frozen summary and restart its archive age
+        if (instance.getStatus() == InstanceStatus.SETTLED) {
+            throw new ApiException("Instance " + instanceId + " is already settled", "INSTANCE_SETTLED", 409);
+        }
         instance.setStatus(InstanceStatus.SETTLED);
+
+        // The plan and the totals are computed once here; settled instances no longer change
+        ParticipantTotalsResponse totals = balanceService.getInstanceTotals(instanceId);
+        settlementTransferRepository.deleteByInstanceId(instanceId);
+        List<SettlementTransferResponse> plan = SettlementPlanner.plan(totals.net());
+        for (SettlementTransferResponse transfer : plan) {
+            SettlementTransfer settlementTransfer = new SettlementTransfer();
+            settlementTransfer.setInstance(instance);
+            settlementTransfer.setFromParticipant(templateService.getParticipantReference(transfer.fromParticipantId()));
+            settlementTransfer.setToParticipant(templateService.getParticipantReference(transfer.toParticipantId()));
+            settlementTransfer.setAmount(transfer.amount());
+            settlementTransferRepository.save(settlementTransfer);
+        }
+
+        settlementSummaryRepository.deleteByInstanceId(instanceId);
+        InstanceSettlementSummary summary = new InstanceSettlementSummary();
+        summary.setInstance(instance);
+        summary.setSettledAt(LocalDateTime.now());
+        summary.setTotals(collectTotals(instanceId, totals));
+        settlementSummaryRepository.save(summary);
+
         return instanceRepository.save(instance);
     }
 
     public TemplateInstance markInstanceAsInProgress(UUID instanceId) {
         TemplateInstance instance = getInstanceById(instanceId);
+        checkNotArchived(instance);
         instance.setStatus(InstanceStatus.IN_PROGRESS);
+        settlementTransferRepository.deleteByInstanceId(instanceId);
+        settlementSummaryRepository.deleteByInstanceId(instanceId);
         return instanceRepository.save(instance);
     }
 
+    // Only settled instances have a summary; the rest are read from the ledger
+    @Transactional(readOnly = true)
+    public ParticipantTotalsResponse getInstanceTotals(UUID instanceId) {
+        return settlementSummaryRepository.findById(instanceId)
+                .map(summary -> InstanceSummaryResponse.toParticipantTotals(summary.getTotals()))
+                .orElseGet(() -> balanceService.getInstanceTotals(instanceId));
+    }
+
+    @Transactional(readOnly = true)
+    public InstanceSummaryResponse getInstanceSummary(UUID instanceId) {
+        TemplateInstance instance = getInstanceById(instanceId);
+        if (instance.getStatus() == InstanceStatus.SETTLED) {
+            return settlementSummaryRepository.findById(instanceId)
+                    .map(InstanceSummaryResponse::from)
+                    .orElseThrow(() -> new ResourceNotFoundException("Settlement summary not found for instance: " + instanceId));
+        }
+        return InstanceSummaryResponse.from(instance, null,
+                collectTotals(instanceId, balanceService.getInstanceTotals(instanceId)));
+    }
+
+    @Transactional(readOnly = true)
+    public List<InstanceSummaryResponse> getSettledSummariesByTemplate(UUID templateId) {
+        return settlementSummaryRepository.findWithInstanceByTemplateId(templateId).stream()
+                .map(InstanceSummaryResponse::from)
+                .toList();
+    }
+
+    /**
+     * Loads an instance and everything needed to render it with a fixed number of queries:
+     * the instance, its field values, all of their allocations and the balance rows. Fields and
+     * participants come from the template snapshot. Field values and allocations are selected
+     * directly into their responses, so none of them are managed entities.
+     */
+    @Transactional(readOnly = true)
+    public InstanceDetailResponse getInstanceDetail(UUID instanceId) {
+        TemplateInstance instance = getInstanceById(instanceId);
+        UUID templateId = instance.getTemplate().getId();
+        CompiledTemplate template = templateService.getCompiledTemplate(templateId);
+
+        List<TemplateFieldResponse> fields = template.fields().values().stream()
+                .sorted(Comparator.comparingInt(CompiledTemplate.Field::displayOrder)
+                        .thenComparing(CompiledTemplate.Field::id))
+                .map(f -> new TemplateFieldResponse(f.id(), templateId, f.label(), f.fieldType(),
+                        f.defaultSplitRuleId(), f.defaultAmount(), f.defaultPayerParticipantId(), f.displayOrder(),
+                        f.defaultParticipantAmounts().isEmpty() ? null : f.defaultParticipantAmounts()))
+                .toList();
+        List<TemplateParticipantResponse> participants = template.participants().values().stream()
+                .sorted(Comparator.comparingInt(CompiledTemplate.Participant::displayOrder)
+                        .thenComparing(CompiledTemplate.Participant::id))
+                .map(p -> new TemplateParticipantResponse(p.id(), templateId, p.name(), p.displayOrder()))
+                .toList();
+
+        List<InstanceDetailResponse.FieldValueDetail> fieldValues = instance.getArchivedAt() != null
+                ? getArchive(instanceId).entries().stream()
+                        .map(e -> new InstanceDetailResponse.FieldValueDetail(e.fieldValue(), e.allocations()))
+                        .toList()
+                : getFieldValueDetails(instanceId);
+
+        ParticipantTotalsResponse totals = instance.getStatus() == InstanceStatus.SETTLED
+                ? getInstanceTotals(instanceId)
+                : balanceService.getInstanceTotals(instanceId);
+        return new InstanceDetailResponse(TemplateInstanceResponse.from(instance), fields, participants,
+                fieldValues, totals);
+    }
+
+    private List<InstanceDetailResponse.FieldValueDetail> getFieldValueDetails(UUID instanceId) {
+        Map<UUID, List<ParticipantEntryAmountResponse>> allocationsByFieldValue =
+                participantEntryAmountRepository.findResponsesByInstanceId(instanceId).stream()
+                        .collect(Collectors.groupingBy(ParticipantEntryAmountResponse::instanceFieldValueId));
+        return fieldValueRepository.findResponsesByInstanceId(instanceId).stream()
+                .map(fv -> new InstanceDetailResponse.FieldValueDetail(fv,
+                        allocationsByFieldValue.getOrDefault(fv.id(), List.of())))
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public SettlementPlanResponse getSettlementPlan(UUID instanceId) {
+        TemplateInstance instance = getInstanceById(instanceId);
+        if (instance.getStatus() == InstanceStatus.SETTLED) {
+            List<SettlementTransferResponse> transfers = settlementTransferRepository.findByInstanceIdOrderByAmountDesc(instanceId)
+                    .stream().map(SettlementTransferResponse::from).toList();
+            return new SettlementPlanResponse(instanceId, true, transfers);
+        }
+        return new SettlementPlanResponse(instanceId, false,
+                SettlementPlanner.plan(balanceService.getInstanceTotals(instanceId).net()));
+    }
+
+    // Soft delete; SoftDeletePurgeWorker removes the instance and its entries later
     public void deleteInstance(UUID instanceId) {
-        participantEntryAmountRepository.deleteByInstanceFieldValueInstanceId(instanceId);
-        fieldValueRepository.deleteByInstanceId(instanceId);
-        instanceRepository.deleteById(instanceId);
+        TemplateInstance instance = getInstanceById(instanceId);
+        instance.setDeletedAt(LocalDateTime.now());
+        instanceRepository.save(instance);
     }
 
     // Field Value Operations
+    // Appends never conflict with each other; only a concurrent change to the instance itself makes one retry
+    @Retryable(includes = OptimisticLockingFailureException.class, maxRetries = 3, delay = 20, jitter = 10, multiplier = 2)
     public InstanceFieldValue addFieldValue(UUID instanceId, AddFieldValueRequest request) {
         if (instanceId == null) {
             throw new ValidationException("Instance ID is required");
         }
+        validateNewFieldValue(request);
+
+        TemplateInstance instance = getEditableInstance(instanceId);
+        CompiledTemplate template = templateService.getCompiledTemplate(instance.getTemplate().getId());
+        NewFieldValue newFieldValue = buildNewFieldValue(instance, template, request);
+
+        InstanceFieldValue savedInstanceFieldValue = fieldValueRepository.save(newFieldValue.fieldValue());
+        participantEntryAmountRepository.saveAll(newFieldValue.allocations());
+
+        BalanceChanges changes = new BalanceChanges();
+        changes.addEntry(payerId(savedInstanceFieldValue), savedInstanceFieldValue.getAmount(), newFieldValue.allocations());
+        applyChanges(instanceId, InstanceEventType.FIELD_VALUE_ADDED, savedInstanceFieldValue, changes);
+
+        return savedInstanceFieldValue;
+    }
+
+    /**
+     * Adds one chunk of imported rows in a single transaction. Rows that fail validation are
+     * reported and skipped; the rest are written as JDBC batches with one ledger update.
+     */
+    @Retryable(includes = OptimisticLockingFailureException.class, maxRetries = 3, delay = 20, jitter = 10, multiplier = 2)
+    public List<FieldValueImportError> importFieldValues(UUID instanceId, List<FieldValueImportRow> rows) {
+        TemplateInstance instance = getEditableInstance(instanceId);
+        CompiledTemplate template = templateService.getCompiledTemplate(instance.getTemplate().getId());
+
+        List<FieldValueImportError> errors = new ArrayList<>();
+        List<InstanceFieldValue> fieldValues = new ArrayList<>(rows.size());
+        List<ParticipantEntryAmount> allocations = new ArrayList<>();
+        BalanceChanges changes = new BalanceChanges();
+
+        for (FieldValueImportRow row : rows) {
+            if (row.error() != null) {
+                errors.add(new FieldValueImportError(row.line(), row.error()));
+                continue;
+            }
+            try {
+                validateNewFieldValue(row.request());
+                NewFieldValue newFieldValue = buildNewFieldValue(instance, template, row.request());
+                fieldValues.add(newFieldValue.fieldValue());
+                allocations.addAll(newFieldValue.allocations());
+                changes.addEntry(payerId(newFieldValue.fieldValue()), newFieldValue.fieldValue().getAmount(),
+                        newFieldValue.allocations());
+            } catch (ValidationException | ResourceNotFoundException e) {
+                errors.add(new FieldValueImportError(row.line(), e.getMessage()));
+            }
+        }
+
+        fieldValueRepository.saveAll(fieldValues);
+        participantEntryAmountRepository.saveAll(allocations);
+        if (!fieldValues.isEmpty()) {
+            applyChanges(instanceId, InstanceEventType.FIELD_VALUES_ADDED, null, changes);
+        }
+        return errors;
+    }
+
+    private static void validateNewFieldValue(AddFieldValueRequest request) {
         if (request.getTemplateFieldId() == null) {
             throw new ValidationException("Template field ID is required");
         }
         if (request.getAmount() == null || request.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
             throw new ValidationException("Amount must be greater than zero");
         }
-        if (request.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
-            throw new ValidationException("Amount must be greater than zero");
-        }
+    }
 
-        TemplateInstance instance = getInstanceById(instanceId);
-        TemplateField templateField = templateService.getFieldById(request.getTemplateFieldId());
+    // Builds an unsaved field value and its allocations, checking every id against the template snapshot
+    private NewFieldValue buildNewFieldValue(TemplateInstance instance, CompiledTemplate template,
+                                             AddFieldValueRequest request) {
+        CompiledTemplate.Field templateField = template.field(request.getTemplateFieldId());
 
         InstanceFieldValue fieldValue = new InstanceFieldValue();
         fieldValue.setInstance(instance);
-        fieldValue.setTemplateField(templateField);
+        fieldValue.setTemplateField(templateService.getFieldReference(templateField.id()));
         fieldValue.setAmount(request.getAmount());
         fieldValue.setNote(request.getNote());
         fieldValue.setEntryDate(request.getEntryDate() != null ? request.getEntryDate() : LocalDate.now());
         fieldValue.setSplitMode(request.getSplitMode() != null ? request.getSplitMode() : SplitMode.TEMPLATE_FIELD_PERCENT_SPLIT);
 
         if (request.getOverrideSplitRuleId() != null) {
-            SplitRule overrideRule = templateService.getSplitRuleById(request.getOverrideSplitRuleId());
-            fieldValue.setOverrideSplitRule(overrideRule);
+            template.allocationsForRule(request.getOverrideSplitRuleId());
+            fieldValue.setOverrideSplitRule(templateService.getSplitRuleReference(request.getOverrideSplitRuleId()));
         }
 
         if (request.getPayerParticipantId() != null) {
-            TemplateParticipant payer = templateService.getParticipantById(request.getPayerParticipantId());
-            fieldValue.setPayerParticipant(payer);
+            fieldValue.setPayerParticipant(participantReference(template, request.getPayerParticipantId()));
         }
 
-        InstanceFieldValue savedInstanceFieldValue = fieldValueRepository.save(fieldValue);
-
         // Handle different split modes
+        List<ParticipantEntryAmount> allocations;
         if (request.getParticipantAmounts() != null && !request.getParticipantAmounts().isEmpty()) {
             // Direct allocation provided (fixed amounts or custom percentage split)
-            createFixedAmountAllocations(savedInstanceFieldValue, request.getParticipantAmounts());
+            allocations = buildFixedAmountAllocations(fieldValue, request.getParticipantAmounts(),
+                    id -> participantReference(template, id));
         } else {
             // Calculate allocations from split rule
-            calculateAndCreateParticipantEntryAmounts(savedInstanceFieldValue);
+            allocations = buildRuleAllocations(fieldValue, template);
         }
+        return new NewFieldValue(fieldValue, allocations);
+    }
 
-        return savedInstanceFieldValue;
+    private record NewFieldValue(InstanceFieldValue fieldValue, List<ParticipantEntryAmount> allocations) {}
+
+    // Validates the participant against the template snapshot and wires it without a lookup
+    private TemplateParticipant participantReference(CompiledTemplate template, UUID participantId) {
+        return templateService.getParticipantReference(template.participant(participantId).id());
     }
 
-    private void createFixedAmountAllocations(InstanceFieldValue fieldValue, Map<UUID, BigDecimal> participantAmounts) {
+    private List<ParticipantEntryAmount> buildFixedAmountAllocations(InstanceFieldValue fieldValue,
+                                                                     Map<UUID, BigDecimal> participantAmounts,
+                                                                     Function<UUID, TemplateParticipant> participants) {
         if (participantAmounts == null || participantAmounts.isEmpty()) {
             throw new ValidationException("Participant amounts are required for FIELD_VALUE_FIXED_AMOUNTS mode");
         }
 
-        // Validate that amounts sum to the field value amount
-        BigDecimal totalAmount = participantAmounts.values()
-                .stream()
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        // Validate in cents that amounts sum exactly to the field value amount
+        long totalCents = 0;
+        for (BigDecimal amount : participantAmounts.values()) {
+            totalCents = Math.addExact(totalCents, SplitAllocator.toCents(amount));
+        }
 
-        if (totalAmount.compareTo(fieldValue.getAmount()) != 0) {
+        if (totalCents != SplitAllocator.toCents(fieldValue.getAmount())) {
             throw new ValidationException("Participant amounts must sum to the total amount");
         }
 
         // Create ParticipantEntryAmount for each participant
+        List<ParticipantEntryAmount> allocations = new ArrayList<>(participantAmounts.size());
         for (Map.Entry<UUID, BigDecimal> entry : participantAmounts.entrySet()) {
-            UUID participantId = entry.getKey();
-            BigDecimal amount = entry.getValue();
+            allocations.add(newAllocation(fieldValue, participants.apply(entry.getKey()),
+                    SplitAllocator.toCents(entry.getValue())));
+        }
+        return allocations;
+    }
 
-            TemplateParticipant participant = templateService.getParticipantById(participantId);
+    @Transactional(readOnly = true)
+    public List<InstanceFieldValueResponse> getFieldValuesByInstanceAndField(UUID instanceId, UUID templateFieldId) {
+        TemplateInstance instance = getInstanceById(instanceId);
+        if (instance.getArchivedAt() != null) {
+            return getArchive(instanceId).fieldValues().stream()
+                    .filter(fv -> fv.templateFieldId().equals(templateFieldId))
+                    .toList();
+        }
+        return fieldValueRepository.findResponsesByInstanceIdAndTemplateFieldId(instanceId, templateFieldId);
+    }
 
-            ParticipantEntryAmount participantAmount = new ParticipantEntryAmount();
-            participantAmount.setInstanceFieldValue(fieldValue);
-            participantAmount.setTemplateParticipant(participant);
-            participantAmount.setAmount(amount);
+    /**
+     * One page of an instance's field values in (createdAt, id) order. Pages are addressed by the
+     * cursor of the previous page's last row rather than an offset, so each page costs the same
+     * however deep into the instance it is.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<InstanceFieldValueResponse> getFieldValuePage(UUID instanceId, UUID templateFieldId,
+                                                                            UUID payerParticipantId, LocalDate from,
+                                                                            LocalDate to, String cursor, Integer limit) {
+        int pageSize = CursorPages.pageSize(limit);
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new ValidationException("From date must not be after to date");
+        }
+        TemplateInstance instance = getInstanceById(instanceId);
+        if (instance.getArchivedAt() != null) {
+            return getArchivedFieldValuePage(instanceId, templateFieldId, payerParticipantId, from, to, cursor, pageSize);
+        }
 
-            participantEntryAmountRepository.save(participantAmount);
+        Specification<InstanceFieldValue> spec = inInstance(instanceId);
+        if (templateFieldId != null) {
+            spec = spec.and(forTemplateField(templateFieldId));
+        }
+        if (payerParticipantId != null) {
+            spec = spec.and(paidBy(payerParticipantId));
+        }
+        if (from != null) {
+            spec = spec.and(enteredOnOrAfter(from));
+        }
+        if (to != null) {
+            spec = spec.and(enteredOnOrBefore(to));
+        }
+        if (cursor != null && !cursor.isBlank()) {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            spec = spec.and(after(position.createdAt(), position.id()));
         }
-    }
 
-    public List<InstanceFieldValue> getFieldValuesByInstance(UUID instanceId) {
-        return fieldValueRepository.findByInstanceIdOrderByCreatedAtAsc(instanceId);
+        List<InstanceFieldValue> rows = fieldValueRepository.findBy(spec, query -> query
+                .sortBy(Sort.by("createdAt", "id"))
+                .limit(pageSize + 1)
+                .all());
+        return CursorPages.of(rows, pageSize, InstanceFieldValueResponse::from,
+                fv -> new KeysetCursor(fv.getCreatedAt(), fv.getId()).encode());
     }
 
-    public List<InstanceFieldValue> getFieldValuesByInstanceAndField(UUID instanceId, UUID templateFieldId) {
-        return fieldValueRepository.findByInstanceIdAndTemplateFieldIdOrderByCreatedAtAsc(instanceId, templateFieldId);
+    // The same page over the archived entries, which are already in (createdAt, id) order
+    private CursorPageResponse<InstanceFieldValueResponse> getArchivedFieldValuePage(UUID instanceId, UUID templateFieldId,
+                                                                                     UUID payerParticipantId, LocalDate from,
+                                                                                     LocalDate to, String cursor, int pageSize) {
+        List<ArchivedInstance.Entry> entries = getArchive(instanceId).entries();
+        int start = 0;
+        if (cursor != null && !cursor.isBlank()) {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            // Skips up to and including the cursor's row, compared by id rather than by UUID order
+            while (start < entries.size() && !entries.get(start).createdAt().isAfter(position.createdAt())) {
+                if (entries.get(start++).fieldValue().id().equals(position.id())) {
+                    break;
+                }
+            }
+        }
+        List<ArchivedInstance.Entry> rows = entries.subList(start, entries.size()).stream()
+                .filter(e -> templateFieldId == null || templateFieldId.equals(e.fieldValue().templateFieldId()))
+                .filter(e -> payerParticipantId == null || payerParticipantId.equals(e.fieldValue().payerParticipantId()))
+                .filter(e -> from == null || (e.fieldValue().entryDate() != null && !e.fieldValue().entryDate().isBefore(from)))
+                .filter(e -> to == null || (e.fieldValue().entryDate() != null && !e.fieldValue().entryDate().isAfter(to)))
+                .limit(pageSize + 1)
+                .toList();
+        return CursorPages.of(rows, pageSize, ArchivedInstance.Entry::fieldValue,
+                e -> new KeysetCursor(e.createdAt(), e.fieldValue().id()).encode());
     }
 
+    @Transactional(readOnly = true)
     public InstanceFieldValue getFieldValueById(UUID fieldValueId) {
-        return fieldValueRepository.findById(fieldValueId)
+        return fieldValueRepository.findLiveById(fieldValueId)
                 .orElseThrow(() -> new ResourceNotFoundException("Field value not found with id: " + fieldValueId));
     }
 
@@ -208,8 +515,20 @@ public class InstanceService {
                                                com.expensesplitter.enums.SplitMode splitMode,
                                                UUID overrideSplitRuleId,
                                                Map<UUID, BigDecimal> participantAmounts,
-                                               UUID payerParticipantId) {
+                                               UUID payerParticipantId,
+                                               Long expectedVersion) {
         InstanceFieldValue fieldValue = getFieldValueById(fieldValueId);
+        getEditableInstance(fieldValue.getInstance().getId());
+        checkVersion("Field value", expectedVersion, fieldValue.getVersion());
+        BigDecimal previousAmount = fieldValue.getAmount();
+        UUID previousPayerId = payerId(fieldValue);
+
+        // Allocations only depend on the amount, split mode, override rule and explicit participant amounts
+        boolean allocationChanged = amount.compareTo(previousAmount) != 0
+                || splitMode != fieldValue.getSplitMode()
+                || fieldValue.getOverrideSplitRule() != null
+                || (participantAmounts != null && !participantAmounts.isEmpty());
+
         fieldValue.setAmount(amount);
         fieldValue.setNote(note);
         fieldValue.setEntryDate(entryDate);
@@ -218,27 +537,35 @@ public class InstanceService {
         // Clear any previously stored override rule (no longer used for editing)
         fieldValue.setOverrideSplitRule(null);
 
+        CompiledTemplate template = templateService.getCompiledTemplate(fieldValue.getInstance().getTemplate().getId());
         if (payerParticipantId != null) {
-            TemplateParticipant payer = templateService.getParticipantById(payerParticipantId);
-            fieldValue.setPayerParticipant(payer);
+            fieldValue.setPayerParticipant(participantReference(template, payerParticipantId));
         } else {
             fieldValue.setPayerParticipant(null);
         }
 
         InstanceFieldValue savedFieldValue = fieldValueRepository.save(fieldValue);
-
-        // Delete existing allocations and recreate based on new split mode
-        participantEntryAmountRepository.deleteByInstanceFieldValueId(fieldValueId);
-
-        if (amount.compareTo(BigDecimal.ZERO) > 0) {
-            if (participantAmounts != null && !participantAmounts.isEmpty()) {
-                // Direct allocation provided (fixed amounts or custom percentage split)
-                createFixedAmountAllocations(savedFieldValue, participantAmounts);
-            } else {
-                // Calculate allocations from split rule
-                calculateAndCreateParticipantEntryAmounts(savedFieldValue);
+        BalanceChanges changes = new BalanceChanges();
+
+        if (allocationChanged) {
+            List<ParticipantEntryAmount> allocations = List.of();
+            if (amount.compareTo(BigDecimal.ZERO) > 0) {
+                if (participantAmounts != null && !participantAmounts.isEmpty()) {
+                    // Direct allocation provided (fixed amounts or custom percentage split)
+                    allocations = buildFixedAmountAllocations(savedFieldValue, participantAmounts,
+                            id -> participantReference(template, id));
+                } else {
+                    // Calculate allocations from split rule
+                    allocations = buildRuleAllocations(savedFieldValue, template);
+                }
             }
+            syncAllocations(savedFieldValue, previousPayerId, previousAmount, allocations, changes);
+        } else if (!Objects.equals(previousPayerId, payerId(savedFieldValue))) {
+            // Note, date or payer edit: allocations stay as they are, only the payment moves
+            changes.removeEntry(previousPayerId, previousAmount, List.of());
+            changes.addEntry(payerId(savedFieldValue), amount, List.of());
         }
+        applyChanges(savedFieldValue.getInstance().getId(), InstanceEventType.FIELD_VALUE_UPDATED, savedFieldValue, changes);
 
         return savedFieldValue;
     }
@@ -249,6 +576,10 @@ public class InstanceService {
         }
 
         InstanceFieldValue fieldValue = getFieldValueById(fieldValueId);
+        getEditableInstance(fieldValue.getInstance().getId());
+        BalanceChanges changes = new BalanceChanges();
+        retractFromBalances(fieldValue, changes);
+        applyChanges(fieldValue.getInstance().getId(), InstanceEventType.FIELD_VALUE_DELETED, fieldValue, changes);
 
         // Delete all ParticipantEntryAmount records for this field value first
         participantEntryAmountRepository.deleteByInstanceFieldValueId(fieldValueId);
@@ -258,88 +589,94 @@ public class InstanceService {
     }
 
     // Calculation & Auto-Allocation
-    public void calculateAndCreateParticipantEntryAmounts(InstanceFieldValue fieldValue) {
+    public List<ParticipantEntryAmount> calculateAndCreateParticipantEntryAmounts(InstanceFieldValue fieldValue) {
+        CompiledTemplate template = templateService.getCompiledTemplate(fieldValue.getInstance().getTemplate().getId());
+        return participantEntryAmountRepository.saveAll(buildRuleAllocations(fieldValue, template));
+    }
 
+    private List<ParticipantEntryAmount> buildRuleAllocations(InstanceFieldValue fieldValue, CompiledTemplate template) {
         // Determine which split rule to use
-        SplitRule splitRule = null;
-        if (fieldValue.getOverrideSplitRule() != null) {
-            splitRule = fieldValue.getOverrideSplitRule();
-        } else {
-            splitRule = fieldValue.getTemplateField().getDefaultSplitRule();
-        }
+        UUID splitRuleId = fieldValue.getOverrideSplitRule() != null
+                ? fieldValue.getOverrideSplitRule().getId()
+                : template.field(fieldValue.getTemplateField().getId()).defaultSplitRuleId();
 
         // If no split rule is defined, we can't allocate
-        if (splitRule == null) {
+        if (splitRuleId == null) {
             throw new ResourceNotFoundException("No split rule defined for field value: " + fieldValue.getId());
         }
 
-        // Get all allocations (percentages) for this split rule
-        List<SplitRuleAllocation> ruleAllocations = templateService.getAllocationsForRule(splitRule.getId());
-
         // Create a participant_entry_amount for each person in the split rule
-        for (SplitRuleAllocation ruleAllocation : ruleAllocations) {
-            BigDecimal participantAmount = fieldValue.getAmount()
-                    .multiply(ruleAllocation.getPercent())
-                    .divide(new BigDecimal("100"), 2, java.math.RoundingMode.HALF_UP);
-
-            ParticipantEntryAmount participantEntryAmount = new ParticipantEntryAmount();
-            participantEntryAmount.setInstanceFieldValue(fieldValue);
-            participantEntryAmount.setTemplateParticipant(ruleAllocation.getTemplateParticipant());
-            participantEntryAmount.setAmount(participantAmount);
-            participantEntryAmountRepository.save(participantEntryAmount);
+        List<CompiledTemplate.Allocation> ruleAllocations = template.allocationsForRule(splitRuleId);
+        long[] shares = SplitAllocator.allocateByPercent(SplitAllocator.toCents(fieldValue.getAmount()),
+                template.basisPointsForRule(splitRuleId));
+        List<ParticipantEntryAmount> allocations = new ArrayList<>(ruleAllocations.size());
+        for (int i = 0; i < shares.length; i++) {
+            allocations.add(newAllocation(fieldValue,
+                    templateService.getParticipantReference(ruleAllocations.get(i).participantId()), shares[i]));
         }
+        return allocations;
+    }
+
+    private static ParticipantEntryAmount newAllocation(InstanceFieldValue fieldValue, TemplateParticipant participant,
+                                                        long cents) {
+        ParticipantEntryAmount participantEntryAmount = new ParticipantEntryAmount();
+        participantEntryAmount.setInstanceFieldValue(fieldValue);
+        participantEntryAmount.setTemplateParticipant(participant);
+        participantEntryAmount.setAmount(SplitAllocator.fromCents(cents));
+        return participantEntryAmount;
     }
 
     // automatically create fieldvalue for all newly created fields
     public void createDefaultFieldValues(UUID instanceId) {
         TemplateInstance instance = getInstanceById(instanceId);
-        List<TemplateField> fields = templateService.getFieldsByTemplate(instance.getTemplate().getId());
 
-        for (TemplateField field : fields) {
+        // Fields, rule allocations and default amounts all come from the template snapshot
+        CompiledTemplate template = templateService.getCompiledTemplate(instance.getTemplate().getId());
+        List<CompiledTemplate.Field> fields = template.fields().values().stream()
+                .sorted(Comparator.comparingInt(CompiledTemplate.Field::displayOrder))
+                .toList();
+
+        List<InstanceFieldValue> fieldValues = new ArrayList<>(fields.size());
+        List<ParticipantEntryAmount> allocations = new ArrayList<>();
+        BalanceChanges changes = new BalanceChanges();
+
+        for (CompiledTemplate.Field field : fields) {
             // Create a field value for every field, using default amount if available
             InstanceFieldValue fieldValue = new InstanceFieldValue();
             fieldValue.setInstance(instance);
-            fieldValue.setTemplateField(field);
-
-            // Use default amount if provided, otherwise 0
-            if (field.getDefaultAmount() != null) {
-                fieldValue.setAmount(field.getDefaultAmount());
-            } else {
-                fieldValue.setAmount(BigDecimal.ZERO);
-            }
-
-            if (field.getDefaultPayerParticipant() != null) {
-                fieldValue.setPayerParticipant(field.getDefaultPayerParticipant());
+            fieldValue.setTemplateField(templateService.getFieldReference(field.id()));
+            fieldValue.setAmount(field.defaultAmount() != null ? field.defaultAmount() : BigDecimal.ZERO);
+            if (field.defaultPayerParticipantId() != null) {
+                fieldValue.setPayerParticipant(templateService.getParticipantReference(field.defaultPayerParticipantId()));
             }
 
-            boolean hasDefaultSplitRule = field.getDefaultSplitRule() != null;
-            InstanceFieldValue savedFieldValue;
-
-            if (hasDefaultSplitRule) {
+            List<ParticipantEntryAmount> fieldAllocations = List.of();
+            if (field.defaultSplitRuleId() != null) {
                 fieldValue.setSplitMode(SplitMode.TEMPLATE_FIELD_PERCENT_SPLIT);
-                fieldValue.setAmount(field.getDefaultAmount() != null ? field.getDefaultAmount() : BigDecimal.ZERO);
-                savedFieldValue = fieldValueRepository.save(fieldValue);
-                if (field.getDefaultAmount() != null && field.getDefaultAmount().compareTo(BigDecimal.ZERO) > 0) {
-                    calculateAndCreateParticipantEntryAmounts(savedFieldValue);
+                if (fieldValue.getAmount().compareTo(BigDecimal.ZERO) > 0) {
+                    fieldAllocations = buildRuleAllocations(fieldValue, template);
                 }
+            } else if (!field.defaultParticipantAmounts().isEmpty()) {
+                fieldValue.setSplitMode(SplitMode.FIELD_VALUE_FIXED_AMOUNTS);
+                fieldValue.setAmount(field.defaultParticipantAmounts().values().stream().reduce(BigDecimal.ZERO, BigDecimal::add));
+                fieldAllocations = buildFixedAmountAllocations(fieldValue, field.defaultParticipantAmounts(),
+                        templateService::getParticipantReference);
             } else {
-                Map<UUID, BigDecimal> defaultAmounts = templateService.getDefaultParticipantAmountsForField(field.getId());
-                if (!defaultAmounts.isEmpty()) {
-                    fieldValue.setSplitMode(SplitMode.FIELD_VALUE_FIXED_AMOUNTS);
-                    BigDecimal total = defaultAmounts.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
-                    fieldValue.setAmount(total);
-                    savedFieldValue = fieldValueRepository.save(fieldValue);
-                    createFixedAmountAllocations(savedFieldValue, defaultAmounts);
-                } else {
-                    fieldValue.setSplitMode(SplitMode.FIELD_VALUE_CUSTOM_PERCENT);
-                    fieldValue.setAmount(field.getDefaultAmount() != null ? field.getDefaultAmount() : BigDecimal.ZERO);
-                    savedFieldValue = fieldValueRepository.save(fieldValue);
-                }
+                fieldValue.setSplitMode(SplitMode.FIELD_VALUE_CUSTOM_PERCENT);
             }
+
+            fieldValues.add(fieldValue);
+            allocations.addAll(fieldAllocations);
+            changes.addEntry(payerId(fieldValue), fieldValue.getAmount(), fieldAllocations);
         }
+
+        // Written as JDBC batches (see JpaConfig)
+        fieldValueRepository.saveAll(fieldValues);
+        participantEntryAmountRepository.saveAll(allocations);
+        applyChanges(instanceId, InstanceEventType.FIELD_VALUES_ADDED, null, changes);
     }
 
-    public InstanceFieldValue updateFieldValueAmount(UUID fieldValueId, BigDecimal amount) {
+    public InstanceFieldValue updateFieldValueAmount(UUID fieldValueId, BigDecimal amount, Long expectedVersion) {
         if (fieldValueId == null) {
             throw new ValidationException("Field value ID is required");
         }
@@ -348,35 +685,192 @@ public class InstanceService {
         }
 
         InstanceFieldValue fieldValue = getFieldValueById(fieldValueId);
+        getEditableInstance(fieldValue.getInstance().getId());
+        checkVersion("Field value", expectedVersion, fieldValue.getVersion());
+        if (amount.compareTo(fieldValue.getAmount()) == 0) {
+            return fieldValue;
+        }
+        BigDecimal previousAmount = fieldValue.getAmount();
+
         fieldValue.setAmount(amount);
         InstanceFieldValue updatedFieldValue = fieldValueRepository.save(fieldValue);
 
-        // Delete existing allocations and recalculate if amount > 0
-        participantEntryAmountRepository.deleteByInstanceFieldValueId(fieldValueId);
-
+        // Recalculate allocations if amount > 0, otherwise remove them
+        List<ParticipantEntryAmount> allocations = List.of();
         if (amount.compareTo(BigDecimal.ZERO) > 0) {
-            calculateAndCreateParticipantEntryAmounts(updatedFieldValue);
+            CompiledTemplate template = templateService.getCompiledTemplate(updatedFieldValue.getInstance().getTemplate().getId());
+            allocations = buildRuleAllocations(updatedFieldValue, template);
         }
 
+        BalanceChanges changes = new BalanceChanges();
+        syncAllocations(updatedFieldValue, payerId(updatedFieldValue), previousAmount, allocations, changes);
+        applyChanges(updatedFieldValue.getInstance().getId(), InstanceEventType.FIELD_VALUE_UPDATED, updatedFieldValue, changes);
+
         return updatedFieldValue;
     }
 
-    public InstanceFieldValue updateFieldValueSplitRule(UUID fieldValueId, UUID splitRuleId) {
+    public InstanceFieldValue updateFieldValueSplitRule(UUID fieldValueId, UUID splitRuleId, Long expectedVersion) {
         if (fieldValueId == null) {
             throw new ValidationException("Field value ID is required");
         }
 
         InstanceFieldValue fieldValue = getFieldValueById(fieldValueId);
-        SplitRule splitRule = templateService.getSplitRuleById(splitRuleId);
+        getEditableInstance(fieldValue.getInstance().getId());
+        checkVersion("Field value", expectedVersion, fieldValue.getVersion());
+        CompiledTemplate template = templateService.getCompiledTemplate(fieldValue.getInstance().getTemplate().getId());
+        template.allocationsForRule(splitRuleId);
 
-        fieldValue.setOverrideSplitRule(splitRule);
+        fieldValue.setOverrideSplitRule(templateService.getSplitRuleReference(splitRuleId));
         InstanceFieldValue updatedFieldValue = fieldValueRepository.save(fieldValue);
 
         // Recalculate allocations with new split rule
-        participantEntryAmountRepository.deleteByInstanceFieldValueId(fieldValueId);
-        calculateAndCreateParticipantEntryAmounts(updatedFieldValue);
+        BalanceChanges changes = new BalanceChanges();
+        syncAllocations(updatedFieldValue, payerId(updatedFieldValue), updatedFieldValue.getAmount(),
+                buildRuleAllocations(updatedFieldValue, template), changes);
+        applyChanges(updatedFieldValue.getInstance().getId(), InstanceEventType.FIELD_VALUE_UPDATED, updatedFieldValue, changes);
 
         return updatedFieldValue;
     }
 
+    // Bulk Re-allocation
+    @Transactional(readOnly = true)
+    public List<UUID> getFieldValueIdsAllocatedByRule(UUID splitRuleId) {
+        return fieldValueRepository.findIdsAllocatedByRule(splitRuleId, InstanceStatus.IN_PROGRESS,
+                SplitMode.TEMPLATE_FIELD_PERCENT_SPLIT);
+    }
+
+    /**
+     * Recomputes the allocations of the given field values from the rule's current percentages.
+     * Field values that no longer draw on the rule, or whose instance has been settled since they
+     * were selected, are left untouched. Returns how many field values were re-allocated.
+     * A batch that overlaps an edit of one of its field values is retried from a fresh read.
+     */
+    @Retryable(includes = OptimisticLockingFailureException.class, maxRetries = 3, delay = 20, jitter = 10, multiplier = 2)
+    public int reallocateFieldValues(Collection<UUID> fieldValueIds, UUID splitRuleId) {
+        List<InstanceFieldValue> fieldValues = fieldValueRepository.findForReallocationByIdIn(fieldValueIds);
+        // Loads the instances behind the field values' proxies, so a concurrent settle is detected at commit
+        instanceRepository.findVersionCheckedByIdIn(fieldValues.stream()
+                .map(fv -> fv.getInstance().getId())
+                .distinct()
+                .toList());
+        Map<UUID, List<ParticipantEntryAmount>> existingByFieldValue = participantEntryAmountRepository
+                .findByInstanceFieldValueIdIn(fieldValueIds).stream()
+                .collect(Collectors.groupingBy(pea -> pea.getInstanceFieldValue().getId()));
+
+        int reallocated = 0;
+        List<ParticipantEntryAmount> inserts = new ArrayList<>();
+        List<ParticipantEntryAmount> deletes = new ArrayList<>();
+        // Instances in id order, so their ledger deltas and events are written in a stable order
+        Map<UUID, BalanceChanges> changesByInstance = new TreeMap<>();
+
+        for (InstanceFieldValue fieldValue : fieldValues) {
+            TemplateInstance instance = fieldValue.getInstance();
+            CompiledTemplate template = templateService.getCompiledTemplate(instance.getTemplate().getId());
+            UUID ruleInUse = fieldValue.getOverrideSplitRule() != null
+                    ? fieldValue.getOverrideSplitRule().getId()
+                    : template.field(fieldValue.getTemplateField().getId()).defaultSplitRuleId();
+            if (instance.getStatus() != InstanceStatus.IN_PROGRESS
+                    || fieldValue.getSplitMode() != SplitMode.TEMPLATE_FIELD_PERCENT_SPLIT
+                    || fieldValue.getAmount().compareTo(BigDecimal.ZERO) <= 0
+                    || !splitRuleId.equals(ruleInUse)
+                    // Edited to an incomplete split since the job started; the edit completing it runs again
+                    || !template.ruleCoversFullAmount(splitRuleId)) {
+                continue;
+            }
+
+            List<ParticipantEntryAmount> existing = existingByFieldValue.getOrDefault(fieldValue.getId(), List.of());
+            BalanceChanges changes = changesByInstance.computeIfAbsent(instance.getId(), id -> new BalanceChanges());
+            changes.removeEntry(payerId(fieldValue), fieldValue.getAmount(), existing);
+            AllocationDiff diff = AllocationDiff.apply(existing, buildRuleAllocations(fieldValue, template));
+            changes.addEntry(payerId(fieldValue), fieldValue.getAmount(), diff.stored());
+
+            inserts.addAll(diff.inserts());
+            deletes.addAll(diff.deletes());
+            reallocated++;
+        }
+
+        // Changed amounts are written as batched updates when the transaction flushes
+        participantEntryAmountRepository.deleteAll(deletes);
+        participantEntryAmountRepository.saveAll(inserts);
+        changesByInstance.forEach((instanceId, changes) ->
+                applyChanges(instanceId, InstanceEventType.BALANCES_CHANGED, null, changes));
+        return reallocated;
+    }
+
+    /**
+     * Writes {@code allocations} as the field value's allocations by diffing against the stored rows,
+     * and records the ledger change from the previous payer and amount to the current ones.
+     */
+    private void syncAllocations(InstanceFieldValue fieldValue, UUID previousPayerId, BigDecimal previousAmount,
+                                 List<ParticipantEntryAmount> allocations, BalanceChanges changes) {
+        List<ParticipantEntryAmount> existing = participantEntryAmountRepository.findByInstanceFieldValueId(fieldValue.getId());
+        changes.removeEntry(previousPayerId, previousAmount, existing);
+
+        AllocationDiff diff = AllocationDiff.apply(existing, allocations);
+        participantEntryAmountRepository.deleteAll(diff.deletes());
+        participantEntryAmountRepository.saveAll(diff.inserts());
+        changes.addEntry(payerId(fieldValue), fieldValue.getAmount(), diff.stored());
+    }
+
+    private SettledTotals collectTotals(UUID instanceId, ParticipantTotalsResponse totals) {
+        List<SettledTotals.FieldTotal> fields = fieldValueRepository.sumAmountsByInstanceId(instanceId).stream()
+                .map(f -> new SettledTotals.FieldTotal(f.templateFieldId(), f.total(), f.entryCount()))
+                .toList();
+        return new SettledTotals(totals.shares(), totals.paid(), totals.net(), fields);
+    }
+
+    // Updates the ledger and queues the change for the instance's event stream, pushed once this commits
+    private void applyChanges(UUID instanceId, InstanceEventType type, InstanceFieldValue fieldValue,
+                              BalanceChanges changes) {
+        balanceService.apply(instanceId, changes);
+        // A re-allocation that leaves every balance where it was has nothing to tell clients
+        if (type != InstanceEventType.BALANCES_CHANGED || !changes.isEmpty()) {
+            eventPublisher.publishEvent(new InstanceChangedEvent(instanceId, type, fieldValue, changes));
+        }
+    }
+
+    // Loads the instance behind a change to its entries; a concurrent settle makes the change fail at commit
+    TemplateInstance getEditableInstance(UUID instanceId) {
+        TemplateInstance instance = instanceRepository.findVersionCheckedById(instanceId)
+                .orElseThrow(() -> new ResourceNotFoundException("Instance not found with id: " + instanceId));
+        checkNotArchived(instance);
+        // The summary and transfers frozen at settlement must keep matching the entries
+        if (instance.getStatus() == InstanceStatus.SETTLED) {
+            throw new ApiException("Instance " + instanceId + " is settled; reopen it to change its entries",
+                    "INSTANCE_SETTLED", 409);
+        }
+        return instance;
+    }
+
+    private ArchivedInstance getArchive(UUID instanceId) {
+        return archiveService.findArchive(instanceId)
+                .orElseThrow(() -> new ResourceNotFoundException("Archive not found for instance: " + instanceId));
+    }
+
+    // An archived instance's entries are no longer in the ledger tables, so they cannot be edited, added to or re-totalled
+    static void checkNotArchived(TemplateInstance instance) {
+        if (instance.getArchivedAt() != null) {
+            throw new ApiException("Instance " + instance.getId() + " is archived and can no longer be changed",
+                    "INSTANCE_ARCHIVED", 409);
+        }
+    }
+
+    // The version the client last read, when it sent one; a mismatch means it would overwrite a newer change
+    private static void checkVersion(String resource, Long expectedVersion, long currentVersion) {
+        if (expectedVersion != null && expectedVersion != currentVersion) {
+            throw new ApiException(resource + " was changed by another request; reload it and try again",
+                    "VERSION_CONFLICT", 409);
+        }
+    }
+
+    // Records the field value's current allocations and payment as negative balance deltas
+    private void retractFromBalances(InstanceFieldValue fieldValue, BalanceChanges changes) {
+        changes.removeEntry(payerId(fieldValue), fieldValue.getAmount(),
+                participantEntryAmountRepository.findByInstanceFieldValueId(fieldValue.getId()));
+    }
+
+    private static UUID payerId(InstanceFieldValue fieldValue) {
+        return fieldValue.getPayerParticipant() != null ? fieldValue.getPayerParticipant().getId() : null;
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,28 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.enums.SplitMode;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * One exported field value with its allocations. The property names match
+ * {@link com.expensesplitter.dto.AddFieldValueRequest}, so an export can be imported again.
+ */
+public record LedgerExportEntry(
+        UUID instanceId,
+        String instanceName,
+        UUID fieldValueId,
+        UUID templateFieldId,
+        String fieldLabel,
+        BigDecimal amount,
+        String note,
+        LocalDate entryDate,
+        SplitMode splitMode,
+        UUID overrideSplitRuleId,
+        UUID payerParticipantId,
+        String payerName,
+        Map<UUID, BigDecimal> participantAmounts
+) {}
@@ -0,0 +1,198 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.dto.InstanceFieldValueResponse;
+import com.expensesplitter.dto.ParticipantEntryAmountResponse;
+import com.expensesplitter.entity.TemplateInstance;
+import com.expensesplitter.enums.ExportFormat;
+import com.expensesplitter.repository.InstanceFieldValueRepository;
+import com.expensesplitter.repository.LedgerExportRow;
+import com.expensesplitter.repository.TemplateInstanceRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Streams ledgers as CSV or NDJSON straight from a database cursor. Rows are written as they are
+ * read, so memory use does not grow with the size of the ledger and the first bytes go out before
+ * the query has finished. Callers check that the instance or template exists before the response
+ * is committed; the export itself runs on the async request thread.
+ * <p>
+ * Archived instances have no rows left to stream; their entries are decoded from the archive one
+ * instance at a time and written where the instance falls in creation order.
+ */
+@Service
+@Transactional(readOnly = true)
+public class LedgerExportService {
+
+    private final InstanceFieldValueRepository fieldValueRepository;
+    private final TemplateInstanceRepository instanceRepository;
+    private final InstanceArchiveService archiveService;
+    private final TemplateService templateService;
+    private final JsonMapper jsonMapper;
+
+    public LedgerExportService(InstanceFieldValueRepository fieldValueRepository,
+                               TemplateInstanceRepository instanceRepository,
+                               InstanceArchiveService archiveService,
+                               TemplateService templateService,
+                               JsonMapper jsonMapper) {
+        this.fieldValueRepository = fieldValueRepository;
+        this.instanceRepository = instanceRepository;
+        this.archiveService = archiveService;
+        this.templateService = templateService;
+        this.jsonMapper = jsonMapper;
+    }
+
+    public ExportFormat resolveFormat(String format) {
+        if (format == null || format.isBlank()) {
+            return ExportFormat.CSV;
+        }
+        try {
+            return ExportFormat.valueOf(format.strip().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Unsupported export format: " + format);
+        }
+    }
+
+    public void exportInstance(UUID instanceId, ExportFormat format, OutputStream out) throws IOException {
+        List<TemplateInstance> archived = instanceRepository.findById(instanceId)
+                .filter(instance -> instance.getArchivedAt() != null)
+                .stream()
+                .toList();
+        try (Stream<LedgerExportRow> rows = fieldValueRepository.streamLedgerByInstanceId(instanceId)) {
+            write(rows, new ArrayDeque<>(archived), openWriter(format, out));
+        }
+    }
+
+    public void exportTemplate(UUID templateId, ExportFormat format, OutputStream out) throws IOException {
+        List<TemplateInstance> archived = instanceRepository.findArchivedByTemplateId(templateId);
+        try (Stream<LedgerExportRow> rows = fieldValueRepository.streamLedgerByTemplateId(templateId)) {
+            write(rows, new ArrayDeque<>(archived), openWriter(format, out));
+        }
+    }
+
+    private LedgerExportWriter openWriter(ExportFormat format, OutputStream out) {
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        return switch (format) {
+            case CSV -> new CsvLedgerExportWriter(writer);
+            case NDJSON -> new NdjsonLedgerExportWriter(writer, jsonMapper.writer());
+        };
+    }
+
+    // A field value arrives as one row per allocated participant; consecutive rows are folded into one entry
+    private void write(Stream<LedgerExportRow> rows, Deque<TemplateInstance> archived,
+                       LedgerExportWriter writer) throws IOException {
+        writer.begin();
+        writer.flush();
+
+        Iterator<LedgerExportRow> iterator = rows.iterator();
+        LedgerExportRow current = null;
+        Map<UUID, BigDecimal> participantAmounts = new LinkedHashMap<>();
+        while (iterator.hasNext()) {
+            LedgerExportRow row = iterator.next();
+            if (current == null || !current.getFieldValueId().equals(row.getFieldValueId())) {
+                if (current != null) {
+                    writer.write(toEntry(current, participantAmounts));
+                    participantAmounts = new LinkedHashMap<>();
+                }
+                if (current == null || !current.getInstanceId().equals(row.getInstanceId())) {
+                    writeArchived(archived, row.getInstanceCreatedAt(), writer);
+                }
+                current = row;
+            }
+            if (row.getParticipantId() != null) {
+                participantAmounts.put(row.getParticipantId(), row.getParticipantAmount());
+            }
+        }
+        if (current != null) {
+            writer.write(toEntry(current, participantAmounts));
+        }
+        writeArchived(archived, null, writer);
+        writer.flush();
+    }
+
+    // Writes the archived instances created up to createdBefore, or all that are left when it is null
+    private void writeArchived(Deque<TemplateInstance> archived, LocalDateTime createdBefore,
+                               LedgerExportWriter writer) throws IOException {
+        while (!archived.isEmpty()
+                && (createdBefore == null || !archived.peekFirst().getCreatedAt().isAfter(createdBefore))) {
+            TemplateInstance instance = archived.pollFirst();
+            ArchivedInstance contents = archiveService.findArchive(instance.getId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Archive not found for instance: " + instance.getId()));
+            CompiledTemplate template = templateService.getCompiledTemplate(instance.getTemplate().getId());
+            for (ArchivedInstance.Entry entry : contents.entries()) {
+                writer.write(toEntry(instance, template, entry));
+            }
+        }
+    }
+
+    private LedgerExportEntry toEntry(LedgerExportRow row, Map<UUID, BigDecimal> participantAmounts) {
+        return new LedgerExportEntry(
+                row.getInstanceId(),
+                row.getInstanceName(),
+                row.getFieldValueId(),
+                row.getTemplateFieldId(),
+                row.getFieldLabel(),
+                row.getAmount(),
+                row.getNote(),
+                row.getEntryDate(),
+                row.getSplitMode(),
+                row.getOverrideSplitRuleId(),
+                row.getPayerParticipantId(),
+                row.getPayerName(),
+                participantAmounts
+        );
+    }
+
+    // Labels and names are today's, as they are for the live rows; allocations follow the participants' order
+    private LedgerExportEntry toEntry(TemplateInstance instance, CompiledTemplate template, ArchivedInstance.Entry entry) {
+        InstanceFieldValueResponse fieldValue = entry.fieldValue();
+        CompiledTemplate.Field field = template.fields().get(fieldValue.templateFieldId());
+        CompiledTemplate.Participant payer = fieldValue.payerParticipantId() != null
+                ? template.participants().get(fieldValue.payerParticipantId())
+                : null;
+        Map<UUID, BigDecimal> participantAmounts = new LinkedHashMap<>();
+        entry.allocations().stream()
+                .sorted(Comparator.comparing((ParticipantEntryAmountResponse allocation) ->
+                                displayOrder(template, allocation.templateParticipantId()))
+                        .thenComparing(ParticipantEntryAmountResponse::templateParticipantId))
+                .forEach(allocation -> participantAmounts.put(allocation.templateParticipantId(), allocation.amount()));
+        return new LedgerExportEntry(
+                instance.getId(),
+                instance.getName(),
+                fieldValue.id(),
+                fieldValue.templateFieldId(),
+                field != null ? field.label() : null,
+                fieldValue.amount(),
+                fieldValue.note(),
+                fieldValue.entryDate(),
+                fieldValue.splitMode(),
+                fieldValue.overrideSplitRuleId(),
+                fieldValue.payerParticipantId(),
+                payer != null ? payer.name() : null,
+                participantAmounts
+        );
+    }
+
+    private static int displayOrder(CompiledTemplate template, UUID participantId) {
+        CompiledTemplate.Participant participant = template.participants().get(participantId);
+        return participant != null ? participant.displayOrder() : Integer.MAX_VALUE;
+    }
+}
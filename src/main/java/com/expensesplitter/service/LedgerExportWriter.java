@@ -0,0 +1,28 @@
+package com.expensesplitter.service;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes an export one entry at a time so a ledger is never held in memory as a whole.
+ */
+public abstract class LedgerExportWriter {
+
+    protected final Writer writer;
+
+    protected LedgerExportWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Called once before the first entry.
+     */
+    public void begin() throws IOException {
+    }
+
+    public abstract void write(LedgerExportEntry entry) throws IOException;
+
+    public void flush() throws IOException {
+        writer.flush();
+    }
+}
@@ -0,0 +1,56 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.dto.AddFieldValueRequest;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Newline-delimited JSON: one {@link AddFieldValueRequest} object per line, blank lines ignored.
+ */
+public class NdjsonFieldValueImportReader extends FieldValueImportReader {
+
+    private final ObjectReader objectReader;
+    private final StringBuilder buffer = new StringBuilder();
+
+    public NdjsonFieldValueImportReader(Reader reader, ObjectReader objectReader) {
+        super(reader);
+        this.objectReader = objectReader.forType(AddFieldValueRequest.class);
+    }
+
+    @Override
+    public FieldValueImportRow next() throws IOException {
+        while (true) {
+            long rowLine = line;
+            buffer.setLength(0);
+            boolean tooLong = false;
+            int c;
+            while ((c = read()) != -1 && c != '\n') {
+                if (buffer.length() < MAX_ROW_LENGTH) {
+                    buffer.append((char) c);
+                } else {
+                    tooLong = true;
+                }
+            }
+            if (c == -1 && buffer.isEmpty()) {
+                return null;
+            }
+            line++;
+
+            if (tooLong) {
+                return FieldValueImportRow.failed(rowLine, "Row exceeds " + MAX_ROW_LENGTH + " characters");
+            }
+            String json = buffer.toString().strip();
+            if (json.isEmpty()) {
+                continue;
+            }
+            try {
+                return FieldValueImportRow.of(rowLine, objectReader.readValue(json));
+            } catch (JacksonException e) {
+                return FieldValueImportRow.failed(rowLine, "Invalid JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+}
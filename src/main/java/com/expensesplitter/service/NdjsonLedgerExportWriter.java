@@ -0,0 +1,25 @@
+package com.expensesplitter.service;
+
+import tools.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Newline-delimited JSON: one {@link LedgerExportEntry} object per line.
+ */
+public class NdjsonLedgerExportWriter extends LedgerExportWriter {
+
+    private final ObjectWriter objectWriter;
+
+    public NdjsonLedgerExportWriter(Writer writer, ObjectWriter objectWriter) {
+        super(writer);
+        this.objectWriter = objectWriter.forType(LedgerExportEntry.class);
+    }
+
+    @Override
+    public void write(LedgerExportEntry entry) throws IOException {
+        writer.write(objectWriter.writeValueAsString(entry));
+        writer.write('\n');
+    }
+}
@@ -1,13 +1,19 @@
 package com.expensesplitter.service;
 
+import com.expensesplitter.dto.CursorPageResponse;
+import com.expensesplitter.dto.ParticipantEntryAmountResponse;
 import com.expensesplitter.dto.ParticipantTotalsResponse;
 import com.expensesplitter.entity.*;
+import com.expensesplitter.enums.InstanceEventType;
 import com.expensesplitter.repository.*;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.function.Function;
 
 @Service
 @Transactional
@@ -16,13 +22,19 @@ public class ParticipantEntryAmountService {
     private final ParticipantEntryAmountRepository participantEntryAmountRepository;
     private final InstanceService instanceService;
     private final TemplateService templateService;
+    private final InstanceBalanceService balanceService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public ParticipantEntryAmountService(ParticipantEntryAmountRepository participantEntryAmountRepository,
                                          InstanceService instanceService,
-                                         TemplateService templateService) {
+                                         TemplateService templateService,
+                                         InstanceBalanceService balanceService,
+                                         ApplicationEventPublisher eventPublisher) {
         this.participantEntryAmountRepository = participantEntryAmountRepository;
         this.instanceService = instanceService;
         this.templateService = templateService;
+        this.balanceService = balanceService;
+        this.eventPublisher = eventPublisher;
     }
 
     // ParticipantEntryAmount CRUD Operations
@@ -47,24 +59,39 @@ public class ParticipantEntryAmountService {
         participantEntryAmount.setInstanceFieldValue(fieldValue);
         participantEntryAmount.setTemplateParticipant(participant);
         participantEntryAmount.setAmount(amount);
-        return participantEntryAmountRepository.save(participantEntryAmount);
+        ParticipantEntryAmount saved = participantEntryAmountRepository.save(participantEntryAmount);
+
+        BalanceChanges changes = new BalanceChanges();
+        changes.addShare(participantId, amount, 1);
+        applyChanges(fieldValue.getInstance().getId(), changes);
+
+        return saved;
     }
 
+    @Transactional(readOnly = true)
     public ParticipantEntryAmount getParticipantEntryAmountById(UUID participantEntryAmountId) {
-        return participantEntryAmountRepository.findById(participantEntryAmountId)
+        return participantEntryAmountRepository.findLiveById(participantEntryAmountId)
                 .orElseThrow(() -> new ResourceNotFoundException("ParticipantEntryAmount not found with id: " + participantEntryAmountId));
     }
 
-    public List<ParticipantEntryAmount> getParticipantEntryAmountsByFieldValue(UUID fieldValueId) {
-        return participantEntryAmountRepository.findByInstanceFieldValueId(fieldValueId);
+    @Transactional(readOnly = true)
+    public List<ParticipantEntryAmountResponse> getParticipantEntryAmountsByFieldValue(UUID fieldValueId) {
+        return participantEntryAmountRepository.findResponsesByInstanceFieldValueId(fieldValueId);
     }
 
-    public List<ParticipantEntryAmount> getParticipantEntryAmountsByParticipant(UUID participantId) {
-        return participantEntryAmountRepository.findByTemplateParticipantId(participantId);
+    @Transactional(readOnly = true)
+    public List<ParticipantEntryAmountResponse> getParticipantEntryAmountsByParticipant(UUID participantId) {
+        return participantEntryAmountRepository.findResponsesByTemplateParticipantId(participantId);
     }
 
-    public List<ParticipantEntryAmount> getAllParticipantEntryAmounts() {
-        return participantEntryAmountRepository.findAll();
+    @Transactional(readOnly = true)
+    public CursorPageResponse<ParticipantEntryAmountResponse> getParticipantEntryAmountPage(String cursor, Integer limit) {
+        int pageSize = CursorPages.pageSize(limit);
+        List<ParticipantEntryAmountResponse> rows = cursor == null || cursor.isBlank()
+                ? participantEntryAmountRepository.findResponsePage(Limit.of(pageSize + 1))
+                : participantEntryAmountRepository.findResponsePageAfter(KeysetCursor.decodeId(cursor),
+                        Limit.of(pageSize + 1));
+        return CursorPages.of(rows, pageSize, Function.identity(), pea -> KeysetCursor.encodeId(pea.id()));
     }
 
     public ParticipantEntryAmount updateParticipantEntryAmount(UUID participantEntryAmountId, BigDecimal amount) {
@@ -79,73 +106,69 @@ public class ParticipantEntryAmountService {
         }
 
         ParticipantEntryAmount participantEntryAmount = getParticipantEntryAmountById(participantEntryAmountId);
+        BalanceChanges changes = new BalanceChanges();
+        changes.addShare(participantEntryAmount.getTemplateParticipant().getId(),
+                amount.subtract(participantEntryAmount.getAmount()), 0);
+        applyChanges(participantEntryAmount.getInstanceFieldValue().getInstance().getId(), changes);
+
         participantEntryAmount.setAmount(amount);
         return participantEntryAmountRepository.save(participantEntryAmount);
     }
 
     public void deleteParticipantEntryAmount(UUID participantEntryAmountId) {
+        participantEntryAmountRepository.findById(participantEntryAmountId).ifPresent(pea -> retract(List.of(pea)));
         participantEntryAmountRepository.deleteById(participantEntryAmountId);
     }
 
     // Batch Operations
     public void deleteAllParticipantEntryAmountsByFieldValue(UUID fieldValueId) {
-        List<ParticipantEntryAmount> participantEntryAmounts = getParticipantEntryAmountsByFieldValue(fieldValueId);
+        List<ParticipantEntryAmount> participantEntryAmounts =
+                participantEntryAmountRepository.findByInstanceFieldValueId(fieldValueId);
+        retract(participantEntryAmounts);
         participantEntryAmountRepository.deleteAll(participantEntryAmounts);
     }
 
     public void deleteAllParticipantEntryAmountsByParticipant(UUID participantId) {
-        List<ParticipantEntryAmount> participantEntryAmounts = getParticipantEntryAmountsByParticipant(participantId);
+        List<ParticipantEntryAmount> participantEntryAmounts =
+                participantEntryAmountRepository.findByTemplateParticipantId(participantId);
+        retract(participantEntryAmounts);
         participantEntryAmountRepository.deleteAll(participantEntryAmounts);
     }
 
-    // Utility Methods
-    public ParticipantTotalsResponse getInstanceTotals(UUID instanceId) {
-        List<InstanceFieldValue> fieldValues = instanceService.getFieldValuesByInstance(instanceId);
-
-        boolean hasPayers = fieldValues.stream()
-                .anyMatch(fv -> fv.getPayerParticipant() != null);
-
-        Map<UUID, BigDecimal> shares = new HashMap<>();
-        Map<UUID, BigDecimal> paid = new HashMap<>();
-
-        for (InstanceFieldValue fv : fieldValues) {
-            List<ParticipantEntryAmount> amounts = participantEntryAmountRepository.findByInstanceFieldValueId(fv.getId());
-            for (ParticipantEntryAmount pea : amounts) {
-                UUID pid = pea.getTemplateParticipant().getId();
-                shares.merge(pid, pea.getAmount(), BigDecimal::add);
-            }
-            if (fv.getPayerParticipant() != null) {
-                UUID pid = fv.getPayerParticipant().getId();
-                paid.merge(pid, fv.getAmount(), BigDecimal::add);
-            }
+    // Removes the given allocations from their instances' balance ledgers
+    private void retract(List<ParticipantEntryAmount> participantEntryAmounts) {
+        Map<UUID, BalanceChanges> changesByInstance = new HashMap<>();
+        for (ParticipantEntryAmount pea : participantEntryAmounts) {
+            UUID instanceId = pea.getInstanceFieldValue().getInstance().getId();
+            changesByInstance.computeIfAbsent(instanceId, id -> new BalanceChanges())
+                    .addShare(pea.getTemplateParticipant().getId(), pea.getAmount().negate(), -1);
         }
+        changesByInstance.forEach(this::applyChanges);
+    }
 
-        Map<UUID, BigDecimal> net = new HashMap<>();
-        if (hasPayers) {
-            Set<UUID> allIds = new HashSet<>(shares.keySet());
-            allIds.addAll(paid.keySet());
-            for (UUID id : allIds) {
-                BigDecimal s = shares.getOrDefault(id, BigDecimal.ZERO);
-                BigDecimal p = paid.getOrDefault(id, BigDecimal.ZERO);
-                net.put(id, s.subtract(p));
-            }
+    // Allocation edits move balances without changing the field value, so clients only get the deltas.
+    // Every allocation change passes through here, so this is also where settled instances are refused.
+    private void applyChanges(UUID instanceId, BalanceChanges changes) {
+        instanceService.getEditableInstance(instanceId);
+        balanceService.apply(instanceId, changes);
+        if (!changes.isEmpty()) {
+            eventPublisher.publishEvent(new InstanceChangedEvent(instanceId, InstanceEventType.BALANCES_CHANGED, null, changes));
         }
+    }
+
+    // Utility Methods
+    @Transactional(readOnly = true)
+    public ParticipantTotalsResponse getInstanceTotals(UUID instanceId) {
+        return instanceService.getInstanceTotals(instanceId);
+    }
 
-        return new ParticipantTotalsResponse(hasPayers, shares, paid, net);
+    public ParticipantTotalsResponse rebuildInstanceTotals(UUID instanceId) {
+        InstanceService.checkNotArchived(instanceService.getInstanceById(instanceId));
+        return balanceService.rebuild(instanceId);
     }
 
+    @Transactional(readOnly = true)
     public BigDecimal getTotalAmountForParticipantInInstance(UUID instanceId, UUID participantId) {
-        List<InstanceFieldValue> fieldValues = instanceService.getFieldValuesByInstance(instanceId);
-
-        BigDecimal total = BigDecimal.ZERO;
-        for (InstanceFieldValue fieldValue : fieldValues) {
-            List<ParticipantEntryAmount> amounts = getParticipantEntryAmountsByFieldValue(fieldValue.getId());
-            for (ParticipantEntryAmount amount : amounts) {
-                if (amount.getTemplateParticipant().getId().equals(participantId)) {
-                    total = total.add(amount.getAmount());
-                }
-            }
-        }
-        return total;
+        return balanceService.getParticipantShare(instanceId, participantId);
     }
-}
\ No newline at end of file
+}
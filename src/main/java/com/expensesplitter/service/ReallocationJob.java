@@ -0,0 +1,68 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.enums.ReallocationJobStatus;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Progress of one background re-allocation run. Written by the worker thread and read by
+ * status requests, so every mutable field is volatile.
+ */
+@Getter
+public class ReallocationJob {
+
+    private final UUID id = UUID.randomUUID();
+    private final UUID splitRuleId;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+
+    private volatile ReallocationJobStatus status = ReallocationJobStatus.QUEUED;
+    private volatile int totalFieldValues;
+    private volatile int processedFieldValues;
+    private volatile int reallocatedFieldValues;
+    private volatile String error;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+
+    public ReallocationJob(UUID splitRuleId) {
+        this.splitRuleId = splitRuleId;
+    }
+
+    public boolean isFinished() {
+        return status == ReallocationJobStatus.COMPLETED
+                || status == ReallocationJobStatus.SKIPPED
+                || status == ReallocationJobStatus.FAILED;
+    }
+
+    void start() {
+        this.startedAt = LocalDateTime.now();
+        this.status = ReallocationJobStatus.RUNNING;
+    }
+
+    void recordTotal(int totalFieldValues) {
+        this.totalFieldValues = totalFieldValues;
+    }
+
+    void recordChunk(int processed, int reallocated) {
+        this.processedFieldValues += processed;
+        this.reallocatedFieldValues += reallocated;
+    }
+
+    void complete() {
+        this.finishedAt = LocalDateTime.now();
+        this.status = ReallocationJobStatus.COMPLETED;
+    }
+
+    void skip(String reason) {
+        this.error = reason;
+        this.finishedAt = LocalDateTime.now();
+        this.status = ReallocationJobStatus.SKIPPED;
+    }
+
+    void fail(String error) {
+        this.error = error;
+        this.finishedAt = LocalDateTime.now();
+        this.status = ReallocationJobStatus.FAILED;
+    }
+}
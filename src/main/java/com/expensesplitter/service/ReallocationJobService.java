@@ -0,0 +1,148 @@
+package com.expensesplitter.service;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Recomputes stored allocations in the background after a split rule's percentages change.
+ * Runs are skipped while the rule's percentages do not sum to 100%. Each chunk of field values is
+ * re-allocated in its own transaction; job progress is kept in memory for the status endpoints.
+ */
+@Service
+public class ReallocationJobService {
+
+    private final InstanceService instanceService;
+    private final TemplateService templateService;
+    private final TaskExecutor executor;
+    private final int chunkSize;
+    private final int historySize;
+
+    private final Map<UUID, ReallocationJob> jobs = new ConcurrentHashMap<>();
+    // At most one running and one waiting job per rule: a burst of edits to a rule collapses
+    // into a single follow-up run instead of several runs racing over the same entries
+    private final Map<UUID, ReallocationJob> runningByRule = new HashMap<>();
+    private final Map<UUID, ReallocationJob> waitingByRule = new HashMap<>();
+
+    public ReallocationJobService(InstanceService instanceService,
+                                  TemplateService templateService,
+                                  @Qualifier("reallocationExecutor") TaskExecutor executor,
+                                  @Value("${reallocation.chunk-size:200}") int chunkSize,
+                                  @Value("${reallocation.job-history:100}") int historySize) {
+        this.instanceService = instanceService;
+        this.templateService = templateService;
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+        this.historySize = historySize;
+    }
+
+    // Runs after the rule change commits, so the job always sees the new percentages
+    @TransactionalEventListener
+    public void onSplitRuleChanged(SplitRuleChangedEvent event) {
+        submit(event.splitRuleId());
+    }
+
+    public ReallocationJob startJob(UUID splitRuleId) {
+        templateService.getSplitRuleById(splitRuleId);
+        return submit(splitRuleId);
+    }
+
+    public ReallocationJob getJob(UUID jobId) {
+        ReallocationJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Re-allocation job not found with id: " + jobId);
+        }
+        return job;
+    }
+
+    public List<ReallocationJob> getJobsForSplitRule(UUID splitRuleId) {
+        return jobs.values().stream()
+                .filter(job -> job.getSplitRuleId().equals(splitRuleId))
+                .sorted(Comparator.comparing(ReallocationJob::getCreatedAt).reversed())
+                .toList();
+    }
+
+    synchronized ReallocationJob submit(UUID splitRuleId) {
+        ReallocationJob waiting = waitingByRule.get(splitRuleId);
+        if (waiting != null) {
+            return waiting;
+        }
+
+        pruneFinishedJobs();
+        ReallocationJob job = new ReallocationJob(splitRuleId);
+        jobs.put(job.getId(), job);
+        if (runningByRule.containsKey(splitRuleId)) {
+            // Dispatched when the running job for this rule finishes
+            waitingByRule.put(splitRuleId, job);
+        } else {
+            dispatch(job);
+        }
+        return job;
+    }
+
+    private void dispatch(ReallocationJob job) {
+        runningByRule.put(job.getSplitRuleId(), job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (TaskRejectedException e) {
+            runningByRule.remove(job.getSplitRuleId(), job);
+            job.fail("Re-allocation queue is full, start the job again later");
+        }
+    }
+
+    private void run(ReallocationJob job) {
+        job.start();
+        try {
+            // A rule is edited one allocation at a time, so it passes through totals other than 100%
+            // while being rebalanced. Entries keep their allocations until the edit that completes it
+            if (!templateService.splitRuleCoversFullAmount(job.getSplitRuleId())) {
+                job.skip("Split rule percentages do not sum to 100%; entries are re-allocated once they do");
+                return;
+            }
+            List<UUID> fieldValueIds = instanceService.getFieldValueIdsAllocatedByRule(job.getSplitRuleId());
+            job.recordTotal(fieldValueIds.size());
+            for (int from = 0; from < fieldValueIds.size(); from += chunkSize) {
+                List<UUID> chunk = fieldValueIds.subList(from, Math.min(from + chunkSize, fieldValueIds.size()));
+                int reallocated = instanceService.reallocateFieldValues(chunk, job.getSplitRuleId());
+                job.recordChunk(chunk.size(), reallocated);
+            }
+            job.complete();
+        } catch (RuntimeException e) {
+            job.fail(e.getMessage());
+        } finally {
+            finished(job);
+        }
+    }
+
+    private synchronized void finished(ReallocationJob job) {
+        runningByRule.remove(job.getSplitRuleId(), job);
+        ReallocationJob next = waitingByRule.remove(job.getSplitRuleId());
+        if (next != null) {
+            dispatch(next);
+        }
+    }
+
+    // Keeps the registry bounded by dropping the oldest finished jobs
+    private void pruneFinishedJobs() {
+        int excess = jobs.size() - historySize + 1;
+        if (excess <= 0) {
+            return;
+        }
+        jobs.values().stream()
+                .filter(ReallocationJob::isFinished)
+                .sorted(Comparator.comparing(ReallocationJob::getFinishedAt))
+                .limit(excess)
+                .toList()
+                .forEach(job -> jobs.remove(job.getId()));
+    }
+}
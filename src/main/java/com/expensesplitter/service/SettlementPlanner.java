@@ -0,0 +1,66 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.dto.SettlementTransferResponse;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+
+/**
+ * Turns net balances (share minus paid) into a short list of transfers.
+ * <p>
+ * Greedy matcher: the participant who owes the most pays the participant who is owed the most,
+ * and whoever has a remainder goes back on their heap. Each step settles at least one participant,
+ * so the plan has at most n - 1 transfers and runs in O(n log n).
+ */
+public final class SettlementPlanner {
+
+    private SettlementPlanner() {
+    }
+
+    public static List<SettlementTransferResponse> plan(Map<UUID, BigDecimal> net) {
+        PriorityQueue<Balance> debtors = new PriorityQueue<>(Math.max(1, net.size()));
+        PriorityQueue<Balance> creditors = new PriorityQueue<>(Math.max(1, net.size()));
+
+        // Work in cents so matching doesn't allocate a BigDecimal per step
+        for (Map.Entry<UUID, BigDecimal> entry : net.entrySet()) {
+            long cents = entry.getValue().setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+            if (cents > 0) {
+                debtors.add(new Balance(entry.getKey(), cents));
+            } else if (cents < 0) {
+                creditors.add(new Balance(entry.getKey(), -cents));
+            }
+        }
+
+        List<SettlementTransferResponse> transfers = new ArrayList<>(Math.min(debtors.size() + creditors.size(), 1024));
+        while (!debtors.isEmpty() && !creditors.isEmpty()) {
+            Balance debtor = debtors.poll();
+            Balance creditor = creditors.poll();
+            long amount = Math.min(debtor.cents, creditor.cents);
+
+            transfers.add(new SettlementTransferResponse(debtor.participantId, creditor.participantId,
+                    BigDecimal.valueOf(amount, 2)));
+
+            if (debtor.cents > amount) {
+                debtors.add(new Balance(debtor.participantId, debtor.cents - amount));
+            }
+            if (creditor.cents > amount) {
+                creditors.add(new Balance(creditor.participantId, creditor.cents - amount));
+            }
+        }
+        return transfers;
+    }
+
+    // Largest balance first; ties broken by id so the plan is deterministic
+    private record Balance(UUID participantId, long cents) implements Comparable<Balance> {
+        @Override
+        public int compareTo(Balance other) {
+            int byAmount = Long.compare(other.cents, cents);
+            return byAmount != 0 ? byAmount : participantId.compareTo(other.participantId);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.repository.*;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Removes soft-deleted templates and instances. Every method is one short transaction so the
+ * worker can commit and pause between chunks; see {@link SoftDeletePurgeWorker}.
+ */
+@Service
+@Transactional
+public class SoftDeletePurgeService {
+
+    private final TemplateRepository templateRepository;
+    private final TemplateInstanceRepository instanceRepository;
+    private final InstanceFieldValueRepository fieldValueRepository;
+    private final ParticipantEntryAmountRepository participantEntryAmountRepository;
+    private final SplitRuleAllocationRepository splitRuleAllocationRepository;
+    private final TemplateFieldRepository fieldRepository;
+    private final SplitRuleRepository splitRuleRepository;
+    private final TemplateParticipantRepository participantRepository;
+
+    public SoftDeletePurgeService(TemplateRepository templateRepository,
+                                  TemplateInstanceRepository instanceRepository,
+                                  InstanceFieldValueRepository fieldValueRepository,
+                                  ParticipantEntryAmountRepository participantEntryAmountRepository,
+                                  SplitRuleAllocationRepository splitRuleAllocationRepository,
+                                  TemplateFieldRepository fieldRepository,
+                                  SplitRuleRepository splitRuleRepository,
+                                  TemplateParticipantRepository participantRepository) {
+        this.templateRepository = templateRepository;
+        this.instanceRepository = instanceRepository;
+        this.fieldValueRepository = fieldValueRepository;
+        this.participantEntryAmountRepository = participantEntryAmountRepository;
+        this.splitRuleAllocationRepository = splitRuleAllocationRepository;
+        this.fieldRepository = fieldRepository;
+        this.splitRuleRepository = splitRuleRepository;
+        this.participantRepository = participantRepository;
+    }
+
+    // The scans run on the primary: a lagging replica would miss recent deletes and repeat purged ids
+    public List<UUID> findDeletedInstanceIds(int limit) {
+        return instanceRepository.findDeletedIds(limit);
+    }
+
+    public List<UUID> findPurgeableTemplateIds(int limit) {
+        return templateRepository.findPurgeableIds(limit);
+    }
+
+    /**
+     * Deletes up to {@code chunkSize} field values of a deleted instance with their allocations and
+     * returns the number of rows removed. Once no field values are left the instance row itself is
+     * removed (balances, settlement transfers, the settlement summary and the archive cascade) and
+     * 0 is returned.
+     */
+    public int purgeInstanceChunk(UUID instanceId, int chunkSize) {
+        List<UUID> fieldValueIds = fieldValueRepository.findIdsByInstanceId(instanceId, Limit.of(chunkSize));
+        if (fieldValueIds.isEmpty()) {
+            instanceRepository.purgeById(instanceId);
+            return 0;
+        }
+        int allocations = participantEntryAmountRepository.deleteByInstanceFieldValueIdIn(fieldValueIds);
+        return allocations + fieldValueRepository.deleteByIdIn(fieldValueIds);
+    }
+
+    // Template configuration is small, so it goes in one transaction once the instances are gone
+    public void purgeTemplate(UUID templateId) {
+        splitRuleAllocationRepository.deleteByTemplateId(templateId);
+        fieldRepository.deleteByTemplateId(templateId);
+        splitRuleRepository.deleteByTemplateId(templateId);
+        participantRepository.deleteByTemplateId(templateId);
+        templateRepository.purgeById(templateId);
+    }
+}
@@ -0,0 +1,74 @@
+package com.expensesplitter.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically removes soft-deleted instances and templates. Rows go in small committed chunks,
+ * and the worker sleeps between chunks so it deletes at most {@code purge.max-rows-per-second}
+ * rows; locks are held only for one chunk and online requests keep their share of the database.
+ */
+@Component
+public class SoftDeletePurgeWorker {
+
+    // Deleted instances or templates looked up per query
+    private static final int BATCH_SIZE = 100;
+
+    private final SoftDeletePurgeService purgeService;
+    private final int chunkSize;
+    private final int maxRowsPerSecond;
+
+    public SoftDeletePurgeWorker(SoftDeletePurgeService purgeService,
+                                 @Value("${purge.chunk-size:200}") int chunkSize,
+                                 @Value("${purge.max-rows-per-second:2000}") int maxRowsPerSecond) {
+        if (chunkSize < 1 || maxRowsPerSecond < 1) {
+            throw new IllegalArgumentException("purge.chunk-size and purge.max-rows-per-second must be positive");
+        }
+        this.purgeService = purgeService;
+        this.chunkSize = chunkSize;
+        this.maxRowsPerSecond = maxRowsPerSecond;
+    }
+
+    @Scheduled(fixedDelayString = "${purge.interval-ms:60000}", initialDelayString = "${purge.interval-ms:60000}")
+    public void purge() {
+        try {
+            List<UUID> instanceIds;
+            while (!(instanceIds = purgeService.findDeletedInstanceIds(BATCH_SIZE)).isEmpty()) {
+                for (UUID instanceId : instanceIds) {
+                    purgeInstance(instanceId);
+                }
+            }
+            List<UUID> templateIds;
+            while (!(templateIds = purgeService.findPurgeableTemplateIds(BATCH_SIZE)).isEmpty()) {
+                for (UUID templateId : templateIds) {
+                    purgeService.purgeTemplate(templateId);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void purgeInstance(UUID instanceId) throws InterruptedException {
+        int removed;
+        do {
+            long started = System.nanoTime();
+            removed = purgeService.purgeInstanceChunk(instanceId, chunkSize);
+            throttle(removed, started);
+        } while (removed > 0);
+    }
+
+    // Sleeps until the chunk has taken as long as its rows are allowed to at the configured rate
+    private void throttle(int rows, long startedNanos) throws InterruptedException {
+        long allowedNanos = TimeUnit.SECONDS.toNanos(rows) / maxRowsPerSecond;
+        long remainingNanos = allowedNanos - (System.nanoTime() - startedNanos);
+        if (remainingNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(remainingNanos);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.expensesplitter.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+
+/**
+ * Splits amounts in integer cents so the shares always add back up to what was split.
+ * <p>
+ * Every share starts at the floor of its exact quota, and the cents left over go one each to the
+ * shares with the largest remainders (earlier positions win ties). Nothing is rounded per
+ * participant, so 100.00 split three ways is 33.34 / 33.33 / 33.33 rather than 99.99 in total.
+ */
+public final class SplitAllocator {
+
+    // 100.00 percent in basis points
+    public static final long FULL_PERCENT = 10_000;
+
+    private SplitAllocator() {
+    }
+
+    /**
+     * Splits {@code totalCents} by percentages given in basis points.
+     * When the percentages cover 100% the shares sum to exactly {@code totalCents}; a rule that
+     * covers less allocates that portion of the total, rounded half up to the cent.
+     */
+    public static long[] allocateByPercent(long totalCents, long[] basisPoints) {
+        long weightSum = sum(basisPoints);
+        long target = weightSum == FULL_PERCENT
+                ? totalCents
+                : divideHalfUp(Math.multiplyExact(totalCents, weightSum), FULL_PERCENT);
+        return distribute(totalCents, basisPoints, FULL_PERCENT, target);
+    }
+
+    public static long toCents(BigDecimal amount) {
+        try {
+            return amount.setScale(2, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new ValidationException("Amounts must have at most two decimal places");
+        }
+    }
+
+    public static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    public static long toBasisPoints(BigDecimal percent) {
+        return percent.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static long[] distribute(long totalCents, long[] weights, long denominator, long target) {
+        if (totalCents < 0) {
+            throw new IllegalArgumentException("Amount to split must not be negative");
+        }
+
+        long[] shares = new long[weights.length];
+        // (remainder << 32 | inverted index) so one primitive sort orders by remainder, then position
+        long[] keys = new long[weights.length];
+        int fractional = 0;
+        long allocated = 0;
+        for (int i = 0; i < weights.length; i++) {
+            long scaled = Math.multiplyExact(totalCents, weights[i]);
+            shares[i] = scaled / denominator;
+            allocated += shares[i];
+            long remainder = scaled % denominator;
+            if (remainder != 0) {
+                keys[fractional++] = remainder << 32 | (Integer.MAX_VALUE - i);
+            }
+        }
+
+        long leftover = target - allocated;
+        if (leftover > 0) {
+            Arrays.sort(keys, 0, fractional);
+            for (int k = fractional - 1; k >= fractional - leftover; k--) {
+                shares[Integer.MAX_VALUE - (int) keys[k]]++;
+            }
+        }
+        return shares;
+    }
+
+    private static long sum(long[] weights) {
+        long sum = 0;
+        for (long weight : weights) {
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weights must not be negative");
+            }
+            sum = Math.addExact(sum, weight);
+        }
+        if (sum > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Weights must sum to at most " + Integer.MAX_VALUE);
+        }
+        return sum;
+    }
+
+    private static long divideHalfUp(long dividend, long divisor) {
+        return (dividend + divisor / 2) / divisor;
+    }
+}
@@ -0,0 +1,8 @@
+package com.expensesplitter.service;
+
+import java.util.UUID;
+
+/**
+ * Published when a split rule's percentages change, so allocations computed from it can be refreshed.
+ */
+public record SplitRuleChangedEvent(UUID splitRuleId) {}
@@ -1,15 +1,23 @@
 package com.expensesplitter.service;
 
+import com.expensesplitter.config.PrimaryReads;
+import com.expensesplitter.dto.CursorPageResponse;
 import com.expensesplitter.entity.*;
 import com.expensesplitter.repository.*;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,6 +33,9 @@ public class TemplateService {
     private final InstanceFieldValueRepository fieldValueRepository;
     private final ParticipantEntryAmountRepository participantEntryAmountRepository;
     private final TemplateFieldDefaultParticipantAmountRepository defaultParticipantAmountRepository;
+    private final TemplateSnapshotCache snapshotCache;
+    private final PrimaryReads primaryReads;
+    private final ApplicationEventPublisher eventPublisher;
 
     public TemplateService(TemplateRepository templateRepository,
                            TemplateParticipantRepository participantRepository,
@@ -34,7 +45,10 @@ public class TemplateService {
                            TemplateInstanceRepository instanceRepository,
                            InstanceFieldValueRepository fieldValueRepository,
                            ParticipantEntryAmountRepository participantEntryAmountRepository,
-                           TemplateFieldDefaultParticipantAmountRepository defaultParticipantAmountRepository) {
+                           TemplateFieldDefaultParticipantAmountRepository defaultParticipantAmountRepository,
+                           TemplateSnapshotCache snapshotCache,
+                           PrimaryReads primaryReads,
+                           ApplicationEventPublisher eventPublisher) {
         this.templateRepository = templateRepository;
         this.participantRepository = participantRepository;
         this.splitRuleRepository = splitRuleRepository;
@@ -44,6 +58,9 @@ public class TemplateService {
         this.fieldValueRepository = fieldValueRepository;
         this.participantEntryAmountRepository = participantEntryAmountRepository;
         this.defaultParticipantAmountRepository = defaultParticipantAmountRepository;
+        this.snapshotCache = snapshotCache;
+        this.primaryReads = primaryReads;
+        this.eventPublisher = eventPublisher;
     }
 
     // Template CRUD Operations
@@ -65,17 +82,39 @@ public class TemplateService {
         return templateRepository.save(template);
     }
 
+    @Transactional(readOnly = true)
     public Template getTemplateById(UUID templateId) {
+        // A lookup by id can be answered from the second-level cache, which the soft-delete restriction does not filter
         return templateRepository.findById(templateId)
+                .filter(template -> template.getDeletedAt() == null)
                 .orElseThrow(() -> new ResourceNotFoundException("Template not found with id: " + templateId));
     }
 
+    // Configuration rows keep their template_id when the template is soft-deleted, so lookups that do
+    // not go through the template check it here; the restriction on Template does not reach them
+    private boolean isLive(Template template) {
+        return templateRepository.findById(template.getId())
+                .filter(t -> t.getDeletedAt() == null)
+                .isPresent();
+    }
+
+    @Transactional(readOnly = true)
     public List<Template> getTemplatesByUserId(UUID userId) {
         return templateRepository.findByUserIdOrderByCreatedAtAsc(userId);
     }
 
-    public List<Template> getAllTemplates() {
-        return templateRepository.findAll();
+    @Transactional(readOnly = true)
+    public CursorPageResponse<Template> getTemplatePage(String cursor, Integer limit) {
+        int pageSize = CursorPages.pageSize(limit);
+        List<Template> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = templateRepository.findAllByOrderByCreatedAtAscIdAsc(Limit.of(pageSize + 1));
+        } else {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            rows = templateRepository.findPageAfter(position.createdAt(), position.id(), Limit.of(pageSize + 1));
+        }
+        return CursorPages.of(rows, pageSize, Function.identity(),
+                t -> new KeysetCursor(t.getCreatedAt(), t.getId()).encode());
     }
 
     public Template updateTemplate(UUID templateId, String name, String description) {
@@ -85,25 +124,16 @@ public class TemplateService {
         return templateRepository.save(template);
     }
 
+    // Soft delete: the template and its instances disappear from every query at once, and
+    // SoftDeletePurgeWorker removes the rows later in small chunks
     public void deleteTemplate(UUID templateId) {
-        // Delete instances and their field values/participant amounts
-        instanceRepository.findByTemplateId(templateId).forEach(instance -> {
-            fieldValueRepository.findByInstanceIdOrderByCreatedAtAsc(instance.getId()).forEach(fv -> {
-                participantEntryAmountRepository.deleteByInstanceFieldValueId(fv.getId());
-            });
-            fieldValueRepository.deleteAll(fieldValueRepository.findByInstanceIdOrderByCreatedAtAsc(instance.getId()));
-        });
-        instanceRepository.deleteAll(instanceRepository.findByTemplateId(templateId));
-
-        // Delete split rule allocations, fields, split rules, participants
-        splitRuleRepository.findByTemplateId(templateId).forEach(rule ->
-            splitRuleAllocationRepository.deleteAll(splitRuleAllocationRepository.findBySplitRuleId(rule.getId()))
-        );
-        fieldRepository.deleteAll(fieldRepository.findByTemplateIdOrderByDisplayOrder(templateId));
-        splitRuleRepository.deleteAll(splitRuleRepository.findByTemplateId(templateId));
-        participantRepository.deleteAll(participantRepository.findByTemplateIdOrderByDisplayOrder(templateId));
+        Template template = getTemplateById(templateId);
+        snapshotCache.invalidate(templateId);
 
-        templateRepository.deleteById(templateId);
+        LocalDateTime deletedAt = LocalDateTime.now();
+        instanceRepository.markDeletedByTemplateId(templateId, deletedAt);
+        template.setDeletedAt(deletedAt);
+        templateRepository.save(template);
     }
 
     // Participant Operations
@@ -119,6 +149,7 @@ public class TemplateService {
         }
 
         Template template = getTemplateById(templateId);
+        snapshotCache.invalidate(templateId);
         TemplateParticipant participant = new TemplateParticipant();
         participant.setTemplate(template);
         participant.setName(name);
@@ -126,18 +157,28 @@ public class TemplateService {
         return participantRepository.save(participant);
     }
 
+    @Transactional(readOnly = true)
     public List<TemplateParticipant> getParticipantsByTemplate(UUID templateId) {
+        getTemplateById(templateId);
         return participantRepository.findByTemplateIdOrderByDisplayOrder(templateId);
     }
 
+    @Transactional(readOnly = true)
     public TemplateParticipant getParticipantById(UUID participantId) {
         if (participantId == null) {
             throw new ValidationException("Participant ID is required");
         }
         return participantRepository.findById(participantId)
+                .filter(participant -> isLive(participant.getTemplate()))
                 .orElseThrow(() -> new ResourceNotFoundException("Participant not found with id: " + participantId));
     }
 
+    // Proxy for wiring foreign keys without loading the participant row
+    @Transactional(readOnly = true)
+    public TemplateParticipant getParticipantReference(UUID participantId) {
+        return participantRepository.getReferenceById(participantId);
+    }
+
     public TemplateParticipant renameParticipant(UUID participantId, String name) {
         if (name == null || name.trim().isEmpty()) {
             throw new ValidationException("Participant name is required");
@@ -146,12 +187,18 @@ public class TemplateService {
             throw new ValidationException("Participant name cannot exceed 100 characters");
         }
         TemplateParticipant participant = getParticipantById(participantId);
+        snapshotCache.invalidate(participant.getTemplate().getId());
         participant.setName(name.trim());
         return participantRepository.save(participant);
     }
 
     public void deleteParticipant(UUID participantId) {
-        participantRepository.deleteById(participantId);
+        participantRepository.findById(participantId)
+                .filter(participant -> isLive(participant.getTemplate()))
+                .ifPresent(participant -> {
+                    snapshotCache.invalidate(participant.getTemplate().getId());
+                    participantRepository.delete(participant);
+                });
     }
 
     // Split Rule Operations
@@ -167,23 +214,38 @@ public class TemplateService {
         }
 
         Template template = getTemplateById(templateId);
+        snapshotCache.invalidate(templateId);
         SplitRule splitRule = new SplitRule();
         splitRule.setTemplate(template);
         splitRule.setName(name);
         return splitRuleRepository.save(splitRule);
     }
 
+    @Transactional(readOnly = true)
     public List<SplitRule> getSplitRulesByTemplate(UUID templateId) {
+        getTemplateById(templateId);
         return splitRuleRepository.findByTemplateId(templateId);
     }
 
+    @Transactional(readOnly = true)
     public SplitRule getSplitRuleById(UUID splitRuleId) {
         return splitRuleRepository.findById(splitRuleId)
+                .filter(rule -> isLive(rule.getTemplate()))
                 .orElseThrow(() -> new ResourceNotFoundException("Split rule not found with id: " + splitRuleId));
     }
 
+    @Transactional(readOnly = true)
+    public SplitRule getSplitRuleReference(UUID splitRuleId) {
+        return splitRuleRepository.getReferenceById(splitRuleId);
+    }
+
     public void deleteSplitRule(UUID splitRuleId) {
-        splitRuleRepository.deleteById(splitRuleId);
+        splitRuleRepository.findById(splitRuleId)
+                .filter(rule -> isLive(rule.getTemplate()))
+                .ifPresent(rule -> {
+                    snapshotCache.invalidate(rule.getTemplate().getId());
+                    splitRuleRepository.delete(rule);
+                });
     }
 
     // Split Rule Allocation Operations
@@ -203,20 +265,50 @@ public class TemplateService {
 
         SplitRule splitRule = getSplitRuleById(splitRuleId);
         TemplateParticipant participant = getParticipantById(participantId);
+        snapshotCache.invalidate(splitRule.getTemplate().getId());
 
         SplitRuleAllocation allocation = new SplitRuleAllocation();
         allocation.setSplitRule(splitRule);
         allocation.setTemplateParticipant(participant);
         allocation.setPercent(percent);
-        return splitRuleAllocationRepository.save(allocation);
+        SplitRuleAllocation savedAllocation = splitRuleAllocationRepository.save(allocation);
+
+        // Existing entries split by this rule are re-allocated in the background once this commits
+        eventPublisher.publishEvent(new SplitRuleChangedEvent(splitRuleId));
+        return savedAllocation;
     }
 
+    @Transactional(readOnly = true)
     public List<SplitRuleAllocation> getAllocationsForRule(UUID splitRuleId) {
+        getSplitRuleById(splitRuleId);
         return splitRuleAllocationRepository.findBySplitRuleId(splitRuleId);
     }
 
+    @Transactional(readOnly = true)
+    public Map<UUID, List<SplitRuleAllocation>> getAllocationsGroupedByRule(Collection<UUID> splitRuleIds) {
+        if (splitRuleIds.isEmpty()) {
+            return Map.of();
+        }
+        return splitRuleAllocationRepository.findBySplitRuleIdIn(splitRuleIds).stream()
+                .collect(Collectors.groupingBy(a -> a.getSplitRule().getId()));
+    }
+
+    // Not read-only, so a job started right after a rule edit reads the edit from the primary
+    public boolean splitRuleCoversFullAmount(UUID splitRuleId) {
+        return splitRuleRepository.findById(splitRuleId)
+                .filter(rule -> isLive(rule.getTemplate()))
+                .map(rule -> getCompiledTemplate(rule.getTemplate().getId()).ruleCoversFullAmount(splitRuleId))
+                .orElse(false);
+    }
+
     public void deleteAllocation(UUID allocationId) {
-        splitRuleAllocationRepository.deleteById(allocationId);
+        splitRuleAllocationRepository.findById(allocationId)
+                .filter(allocation -> isLive(allocation.getSplitRule().getTemplate()))
+                .ifPresent(allocation -> {
+                    snapshotCache.invalidate(allocation.getSplitRule().getTemplate().getId());
+                    eventPublisher.publishEvent(new SplitRuleChangedEvent(allocation.getSplitRule().getId()));
+                    splitRuleAllocationRepository.delete(allocation);
+                });
     }
 
     // Template Field Operations
@@ -240,6 +332,7 @@ public class TemplateService {
         }
 
         Template template = getTemplateById(templateId);
+        snapshotCache.invalidate(templateId);
         TemplateField field = new TemplateField();
         field.setTemplate(template);
         field.setLabel(label);
@@ -260,15 +353,24 @@ public class TemplateService {
         return fieldRepository.save(field);
     }
 
+    @Transactional(readOnly = true)
     public List<TemplateField> getFieldsByTemplate(UUID templateId) {
+        getTemplateById(templateId);
         return fieldRepository.findByTemplateIdOrderByDisplayOrder(templateId);
     }
 
+    @Transactional(readOnly = true)
     public TemplateField getFieldById(UUID fieldId) {
         return fieldRepository.findById(fieldId)
+                .filter(field -> isLive(field.getTemplate()))
                 .orElseThrow(() -> new ResourceNotFoundException("Field not found with id: " + fieldId));
     }
 
+    @Transactional(readOnly = true)
+    public TemplateField getFieldReference(UUID fieldId) {
+        return fieldRepository.getReferenceById(fieldId);
+    }
+
     public TemplateField renameField(UUID fieldId, String label) {
         if (label == null || label.trim().isEmpty()) {
             throw new ValidationException("Field label is required");
@@ -277,6 +379,7 @@ public class TemplateService {
             throw new ValidationException("Field label cannot exceed 255 characters");
         }
         TemplateField field = getFieldById(fieldId);
+        snapshotCache.invalidate(field.getTemplate().getId());
         field.setLabel(label.trim());
         return fieldRepository.save(field);
     }
@@ -286,6 +389,7 @@ public class TemplateService {
                                      boolean clearDefaultAmount, boolean clearDefaultSplitRule,
                                      boolean clearDefaultPayer) {
         TemplateField field = getFieldById(fieldId);
+        snapshotCache.invalidate(field.getTemplate().getId());
         if (label != null && !label.isBlank()) {
             if (label.length() > 255) throw new ValidationException("Field label cannot exceed 255 characters");
             field.setLabel(label.trim());
@@ -314,10 +418,16 @@ public class TemplateService {
     }
 
     public void deleteField(UUID fieldId) {
-        fieldRepository.deleteById(fieldId);
+        fieldRepository.findById(fieldId)
+                .filter(field -> isLive(field.getTemplate()))
+                .ifPresent(field -> {
+                    snapshotCache.invalidate(field.getTemplate().getId());
+                    fieldRepository.delete(field);
+                });
     }
 
     // Default Participant Amount Operations
+    @Transactional(readOnly = true)
     public Map<UUID, BigDecimal> getDefaultParticipantAmountsForField(UUID fieldId) {
         return defaultParticipantAmountRepository.findByTemplateFieldId(fieldId).stream()
                 .collect(Collectors.toMap(
@@ -326,6 +436,7 @@ public class TemplateService {
                 ));
     }
 
+    @Transactional(readOnly = true)
     public Map<UUID, Map<UUID, BigDecimal>> getDefaultParticipantAmountsGrouped(Collection<UUID> fieldIds) {
         return defaultParticipantAmountRepository.findByTemplateFieldIdIn(fieldIds).stream()
                 .collect(Collectors.groupingBy(
@@ -339,6 +450,7 @@ public class TemplateService {
 
     public void setDefaultParticipantAmounts(UUID fieldId, Map<UUID, BigDecimal> amounts) {
         TemplateField field = getFieldById(fieldId);
+        snapshotCache.invalidate(field.getTemplate().getId());
         defaultParticipantAmountRepository.deleteByTemplateFieldId(fieldId);
         if (amounts != null) {
             amounts.forEach((participantId, amount) -> {
@@ -351,4 +463,50 @@ public class TemplateService {
             });
         }
     }
-}
\ No newline at end of file
+
+    // Compiled Template Snapshot
+    // A snapshot outlives the request, so a miss is compiled from the primary rather than a replica
+    @Transactional(readOnly = true)
+    public CompiledTemplate getCompiledTemplate(UUID templateId) {
+        return snapshotCache.get(templateId, id -> primaryReads.read(() -> compileTemplate(id)));
+    }
+
+    private CompiledTemplate compileTemplate(UUID templateId) {
+        Map<UUID, CompiledTemplate.Participant> participants = participantRepository.findByTemplateIdOrderByDisplayOrder(templateId)
+                .stream()
+                .collect(Collectors.toMap(TemplateParticipant::getId,
+                        p -> new CompiledTemplate.Participant(p.getId(), p.getName(), p.getDisplayOrder())));
+
+        List<TemplateField> templateFields = fieldRepository.findByTemplateIdOrderByDisplayOrder(templateId);
+        List<UUID> fieldIds = templateFields.stream().map(TemplateField::getId).toList();
+        Map<UUID, Map<UUID, BigDecimal>> defaultAmountsByField = fieldIds.isEmpty()
+                ? Map.of()
+                : getDefaultParticipantAmountsGrouped(fieldIds);
+        Map<UUID, CompiledTemplate.Field> fields = templateFields.stream()
+                .collect(Collectors.toMap(TemplateField::getId, f -> new CompiledTemplate.Field(
+                        f.getId(),
+                        f.getLabel(),
+                        f.getFieldType(),
+                        f.getDefaultSplitRule() != null ? f.getDefaultSplitRule().getId() : null,
+                        f.getDefaultAmount(),
+                        f.getDefaultPayerParticipant() != null ? f.getDefaultPayerParticipant().getId() : null,
+                        f.getDisplayOrder(),
+                        defaultAmountsByField.getOrDefault(f.getId(), Map.of()))));
+
+        List<UUID> ruleIds = splitRuleRepository.findByTemplateId(templateId).stream().map(SplitRule::getId).toList();
+        Map<UUID, List<SplitRuleAllocation>> allocationsByRule = getAllocationsGroupedByRule(ruleIds);
+        // Display order decides which participants receive leftover cents when shares tie (see SplitAllocator)
+        Comparator<CompiledTemplate.Allocation> byDisplayOrder = Comparator
+                .comparingInt((CompiledTemplate.Allocation a) -> participants.get(a.participantId()).displayOrder())
+                .thenComparing(CompiledTemplate.Allocation::participantId);
+        Map<UUID, List<CompiledTemplate.Allocation>> ruleAllocations = new HashMap<>();
+        for (UUID ruleId : ruleIds) {
+            ruleAllocations.put(ruleId, allocationsByRule.getOrDefault(ruleId, List.of()).stream()
+                    .map(a -> new CompiledTemplate.Allocation(a.getTemplateParticipant().getId(), a.getPercent()))
+                    .sorted(byDisplayOrder)
+                    .toList());
+        }
+
+        return new CompiledTemplate(templateId, participants, fields, ruleAllocations);
+    }
+}
@@ -0,0 +1,73 @@
+package com.expensesplitter.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Bounded LRU cache of {@link CompiledTemplate} snapshots keyed by template id.
+ */
+@Component
+public class TemplateSnapshotCache {
+
+    private final Map<UUID, CompiledTemplate> snapshots;
+
+    // Bumped on every invalidation; a snapshot compiled across an invalidation is not stored
+    private long generation;
+
+    public TemplateSnapshotCache(@Value("${template.snapshot-cache.max-size:256}") int maxSize) {
+        this.snapshots = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, CompiledTemplate> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public CompiledTemplate get(UUID templateId, Function<UUID, CompiledTemplate> compiler) {
+        long startGeneration;
+        synchronized (this) {
+            CompiledTemplate cached = snapshots.get(templateId);
+            if (cached != null) {
+                return cached;
+            }
+            startGeneration = generation;
+        }
+
+        // Compile outside the lock so a slow load doesn't block other templates
+        CompiledTemplate compiled = compiler.apply(templateId);
+        synchronized (this) {
+            if (generation == startGeneration) {
+                snapshots.put(templateId, compiled);
+            }
+        }
+        return compiled;
+    }
+
+    /**
+     * Drops the snapshot now and again after the surrounding transaction commits, so a reader
+     * racing the write cannot re-cache the pre-commit configuration.
+     */
+    public void invalidate(UUID templateId) {
+        evict(templateId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(templateId);
+                }
+            });
+        }
+    }
+
+    private synchronized void evict(UUID templateId) {
+        generation++;
+        snapshots.remove(templateId);
+    }
+}
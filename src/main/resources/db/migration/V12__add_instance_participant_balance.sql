@@ -0,0 +1,26 @@
+CREATE TABLE instance_participant_balance (
+    id UUID DEFAULT gen_random_uuid() PRIMARY KEY,
+    instance_id UUID NOT NULL REFERENCES template_instance(id) ON DELETE CASCADE,
+    template_participant_id UUID NOT NULL REFERENCES template_participant(id) ON DELETE CASCADE,
+    share_total NUMERIC(14, 2) NOT NULL DEFAULT 0,
+    paid_total NUMERIC(14, 2) NOT NULL DEFAULT 0,
+    share_entry_count INT NOT NULL DEFAULT 0,
+    paid_entry_count INT NOT NULL DEFAULT 0,
+    UNIQUE(instance_id, template_participant_id)
+);
+
+INSERT INTO instance_participant_balance
+    (instance_id, template_participant_id, share_total, paid_total, share_entry_count, paid_entry_count)
+SELECT t.instance_id, t.participant_id, SUM(t.share_total), SUM(t.paid_total), SUM(t.share_count), SUM(t.paid_count)
+FROM (
+    SELECT ifv.instance_id, pea.template_participant_id AS participant_id,
+           pea.amount AS share_total, 0 AS paid_total, 1 AS share_count, 0 AS paid_count
+    FROM participant_entry_amount pea
+    JOIN instance_field_value ifv ON ifv.id = pea.entry_id
+    UNION ALL
+    SELECT ifv.instance_id, ifv.payer_participant_id,
+           0, ifv.amount, 0, 1
+    FROM instance_field_value ifv
+    WHERE ifv.payer_participant_id IS NOT NULL
+) t
+GROUP BY t.instance_id, t.participant_id;
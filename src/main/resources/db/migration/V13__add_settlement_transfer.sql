@@ -0,0 +1,9 @@
+CREATE TABLE settlement_transfer (
+    id UUID DEFAULT gen_random_uuid() PRIMARY KEY,
+    instance_id UUID NOT NULL REFERENCES template_instance(id) ON DELETE CASCADE,
+    from_participant_id UUID NOT NULL REFERENCES template_participant(id) ON DELETE CASCADE,
+    to_participant_id UUID NOT NULL REFERENCES template_participant(id) ON DELETE CASCADE,
+    amount NUMERIC(14, 2) NOT NULL
+);
+
+CREATE INDEX idx_settlement_transfer_instance_id ON settlement_transfer(instance_id);
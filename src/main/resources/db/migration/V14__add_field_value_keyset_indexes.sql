@@ -0,0 +1,14 @@
+-- Keyset pagination over an instance's field values in (created_at, id) order
+CREATE INDEX idx_instance_field_value_instance_created
+    ON instance_field_value (instance_id, created_at, id);
+
+-- Same order, filtered by template field or payer
+CREATE INDEX idx_instance_field_value_instance_field_created
+    ON instance_field_value (instance_id, template_field_id, created_at, id);
+
+CREATE INDEX idx_instance_field_value_instance_payer_created
+    ON instance_field_value (instance_id, payer_participant_id, created_at, id);
+
+-- Entry date range filter
+CREATE INDEX idx_instance_field_value_instance_entry_date
+    ON instance_field_value (instance_id, entry_date);
@@ -0,0 +1,3 @@
+-- Keyset pagination over all templates and instances in (created_at, id) order
+CREATE INDEX idx_template_created ON template (created_at, id);
+CREATE INDEX idx_template_instance_created ON template_instance (created_at, id);
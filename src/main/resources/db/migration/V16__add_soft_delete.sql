@@ -0,0 +1,10 @@
+-- Deleted templates and instances stay in place until the purge worker removes them
+ALTER TABLE template ADD COLUMN deleted_at TIMESTAMP;
+ALTER TABLE template_instance ADD COLUMN deleted_at TIMESTAMP;
+
+-- The purge worker only ever scans deleted rows
+CREATE INDEX idx_template_deleted_at ON template (deleted_at) WHERE deleted_at IS NOT NULL;
+CREATE INDEX idx_template_instance_deleted_at ON template_instance (deleted_at) WHERE deleted_at IS NOT NULL;
+
+-- Purging removes allocations by field value
+CREATE INDEX idx_participant_entry_amount_entry_id ON participant_entry_amount (entry_id);
@@ -0,0 +1,26 @@
+-- Lookups by owner. Composite where the repository query also sorts.
+CREATE INDEX idx_template_user_created ON template (user_id, created_at);
+CREATE INDEX idx_template_participant_template_order ON template_participant (template_id, display_order);
+CREATE INDEX idx_template_field_template_order ON template_field (template_id, display_order);
+CREATE INDEX idx_split_rule_template_id ON split_rule (template_id);
+CREATE INDEX idx_split_rule_allocation_split_rule_id ON split_rule_allocation (split_rule_id);
+CREATE INDEX idx_template_instance_template_status ON template_instance (template_id, status);
+
+-- Referencing sides of foreign keys, so deleting a participant, split rule or field does not
+-- scan every table that points at it. Optional references only index the rows that are set.
+CREATE INDEX idx_split_rule_allocation_participant_id ON split_rule_allocation (template_participant_id);
+CREATE INDEX idx_template_field_default_split_rule_id
+    ON template_field (default_split_rule_id) WHERE default_split_rule_id IS NOT NULL;
+CREATE INDEX idx_template_field_default_payer_id
+    ON template_field (default_payer_participant_id) WHERE default_payer_participant_id IS NOT NULL;
+CREATE INDEX idx_template_field_default_participant_amount_participant_id
+    ON template_field_default_participant_amount (template_participant_id);
+CREATE INDEX idx_instance_field_value_template_field_id ON instance_field_value (template_field_id);
+CREATE INDEX idx_instance_field_value_override_split_rule_id
+    ON instance_field_value (override_split_rule_id) WHERE override_split_rule_id IS NOT NULL;
+CREATE INDEX idx_instance_field_value_payer_id
+    ON instance_field_value (payer_participant_id) WHERE payer_participant_id IS NOT NULL;
+CREATE INDEX idx_participant_entry_amount_participant_id ON participant_entry_amount (template_participant_id);
+CREATE INDEX idx_instance_participant_balance_participant_id ON instance_participant_balance (template_participant_id);
+CREATE INDEX idx_settlement_transfer_from_participant_id ON settlement_transfer (from_participant_id);
+CREATE INDEX idx_settlement_transfer_to_participant_id ON settlement_transfer (to_participant_id);
@@ -0,0 +1,24 @@
+-- Time-ordered UUIDv7 (RFC 9562) for rows inserted without an id, matching what the application
+-- generates: 48-bit Unix milliseconds followed by random bits, so new keys append to the index.
+CREATE FUNCTION uuid_generate_v7() RETURNS UUID AS $$
+DECLARE
+    value BYTEA := substring(int8send(floor(extract(epoch FROM clock_timestamp()) * 1000)::BIGINT) FROM 3)
+                   || substring(uuid_send(gen_random_uuid()) FROM 7);
+BEGIN
+    -- Version 7 in the high nibble of byte 6; the variant bits come from gen_random_uuid
+    value := set_byte(value, 6, (get_byte(value, 6) & 15) | 112);
+    RETURN encode(value, 'hex')::UUID;
+END
+$$ LANGUAGE plpgsql VOLATILE;
+
+ALTER TABLE template ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE template_participant ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE split_rule ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE split_rule_allocation ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE template_field ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE template_field_default_participant_amount ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE template_instance ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE instance_field_value ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE participant_entry_amount ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE instance_participant_balance ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE settlement_transfer ALTER COLUMN id SET DEFAULT uuid_generate_v7();
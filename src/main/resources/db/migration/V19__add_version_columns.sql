@@ -0,0 +1,3 @@
+-- Optimistic concurrency: every update checks and bumps the version it read
+ALTER TABLE template_instance ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE instance_field_value ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,7 @@
+-- Totals frozen when an instance is settled, so a settled instance is read from one row instead of
+-- its ledger and field values. Removed again when the instance is reopened.
+CREATE TABLE instance_settlement_summary (
+    instance_id UUID PRIMARY KEY REFERENCES template_instance(id) ON DELETE CASCADE,
+    settled_at TIMESTAMP NOT NULL,
+    totals JSONB NOT NULL
+);
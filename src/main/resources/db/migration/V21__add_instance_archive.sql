@@ -0,0 +1,14 @@
+-- Entries of long-settled instances, moved out of instance_field_value and participant_entry_amount
+-- by the archive worker. The payload is the instance's field values and allocations as gzip-compressed
+-- JSON; it is stored out of line without TOAST compression, which would not shrink it any further.
+ALTER TABLE template_instance ADD COLUMN archived_at TIMESTAMP;
+
+CREATE TABLE instance_archive (
+    instance_id UUID PRIMARY KEY REFERENCES template_instance(id) ON DELETE CASCADE,
+    archived_at TIMESTAMP NOT NULL,
+    payload BYTEA NOT NULL
+);
+ALTER TABLE instance_archive ALTER COLUMN payload SET STORAGE EXTERNAL;
+
+-- The archive worker picks the instances settled longest ago first
+CREATE INDEX idx_instance_settlement_summary_settled_at ON instance_settlement_summary (settled_at);
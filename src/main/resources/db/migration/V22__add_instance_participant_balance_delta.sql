@@ -0,0 +1,16 @@
+-- Balance changes are inserted here rather than applied to instance_participant_balance, so writers to
+-- the same instance never update a shared row. The fold worker moves them into the balance rows;
+-- until then reads add them to the folded totals.
+CREATE TABLE instance_participant_balance_delta (
+    id UUID DEFAULT uuid_generate_v7() PRIMARY KEY,
+    instance_id UUID NOT NULL REFERENCES template_instance(id) ON DELETE CASCADE,
+    template_participant_id UUID NOT NULL REFERENCES template_participant(id) ON DELETE CASCADE,
+    share_delta NUMERIC(14, 2) NOT NULL,
+    paid_delta NUMERIC(14, 2) NOT NULL,
+    share_entry_count_delta INT NOT NULL,
+    paid_entry_count_delta INT NOT NULL
+);
+
+CREATE INDEX idx_instance_participant_balance_delta_instance_id ON instance_participant_balance_delta (instance_id);
+CREATE INDEX idx_instance_participant_balance_delta_participant_id
+    ON instance_participant_balance_delta (template_participant_id);
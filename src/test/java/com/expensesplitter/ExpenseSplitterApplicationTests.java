@@ -1,10 +1,8 @@
 package com.expensesplitter;
 
 import org.junit.jupiter.api.Test;
-import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
-class ExpenseSplitterApplicationTests {
+class ExpenseSplitterApplicationTests extends PostgresIntegrationTest {
 
 	@Test
 	void contextLoads() {
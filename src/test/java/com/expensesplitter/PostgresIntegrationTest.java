@@ -0,0 +1,57 @@
+package com.expensesplitter;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+
+/**
+ * Base for tests that run the full application against an embedded Postgres migrated by Flyway.
+ * <p>
+ * All subclasses share one database and one application context, so tests must create their own
+ * templates rather than rely on the tables being empty.
+ */
+@SpringBootTest
+@Import(PostgresIntegrationTest.Config.class)
+public abstract class PostgresIntegrationTest {
+
+    private static final EmbeddedPostgres postgres = startPostgres();
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        // Tests call the workers themselves instead of racing the schedule
+        registry.add("purge.interval-ms", () -> "86400000");
+        registry.add("archive.interval-ms", () -> "86400000");
+        registry.add("ledger.fold-interval-ms", () -> "86400000");
+    }
+
+    private static EmbeddedPostgres startPostgres() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start embedded Postgres", e);
+        }
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        // No test authenticates over HTTP, so there is no issuer to fetch keys from
+        @Bean
+        JwtDecoder jwtDecoder() {
+            return token -> {
+                throw new BadJwtException("Tokens are not accepted in tests");
+            };
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.expensesplitter.benchmark;
+
+import com.expensesplitter.dto.InstanceFieldValueResponse;
+import com.expensesplitter.dto.ParticipantEntryAmountResponse;
+import com.expensesplitter.entity.*;
+import com.expensesplitter.repository.InstanceFieldValueRepository;
+import com.expensesplitter.repository.ParticipantEntryAmountRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.hibernate.Session;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.HibernatePersistenceConfiguration;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listing rows as managed entities mapped to responses, against reading the responses straight
+ * from the repository projections, on the same Postgres rows. The entity side runs read-only,
+ * as the services' read transactions do. Add {@code -prof gc} (included when run through main)
+ * for bytes allocated per listing.
+ * Run with: mvn test-compile exec:exec
+ *           -Dbenchmark=com.expensesplitter.benchmark.ProjectionBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProjectionBenchmark {
+
+    private static final UUID INSTANCE_ID = UUID.fromString("00000000-0000-0000-0000-0000000000a1");
+    private static final UUID PARTICIPANT_ID = UUID.fromString("00000000-0000-0000-0000-0000000000b1");
+
+    @Param({"1000"})
+    private int rows;
+
+    private EmbeddedPostgres postgres;
+    private EntityManagerFactory entityManagerFactory;
+    private EntityManager entityManager;
+    private InstanceFieldValueRepository fieldValueRepository;
+    private ParticipantEntryAmountRepository entryAmountRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        postgres = EmbeddedPostgres.start();
+        DataSource dataSource = postgres.getPostgresDatabase();
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+        seed(dataSource);
+
+        entityManagerFactory = new HibernatePersistenceConfiguration("projection-benchmark")
+                .managedClasses(Template.class, TemplateParticipant.class, SplitRule.class, SplitRuleAllocation.class,
+                        TemplateField.class, TemplateFieldDefaultParticipantAmount.class, TemplateInstance.class,
+                        InstanceFieldValue.class, ParticipantEntryAmount.class, InstanceParticipantBalance.class,
+                        SettlementTransfer.class)
+                .property(AvailableSettings.JAKARTA_NON_JTA_DATASOURCE, dataSource)
+                .createEntityManagerFactory();
+        entityManager = entityManagerFactory.createEntityManager();
+        entityManager.unwrap(Session.class).setDefaultReadOnly(true);
+
+        JpaRepositoryFactory repositories = new JpaRepositoryFactory(entityManager);
+        fieldValueRepository = repositories.getRepository(InstanceFieldValueRepository.class);
+        entryAmountRepository = repositories.getRepository(ParticipantEntryAmountRepository.class);
+    }
+
+    // One instance with the given number of field values, each split across three participants
+    private void seed(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO template (id, name) VALUES (md5('t')::uuid, 'Benchmark')");
+            statement.execute("INSERT INTO template_participant (id, template_id, name, display_order) " +
+                              "SELECT CASE k WHEN 1 THEN '" + PARTICIPANT_ID + "'::uuid ELSE md5('p' || k)::uuid END, " +
+                              "md5('t')::uuid, 'Participant ' || k, k FROM generate_series(1, 3) k");
+            statement.execute("INSERT INTO template_field (id, template_id, label, field_type, display_order) " +
+                              "VALUES (md5('f')::uuid, md5('t')::uuid, 'Field', 'MULTIPLE', 0)");
+            statement.execute("INSERT INTO template_instance (id, template_id, name, status) " +
+                              "VALUES ('" + INSTANCE_ID + "', md5('t')::uuid, 'Instance', 'IN_PROGRESS')");
+            statement.execute("INSERT INTO instance_field_value (id, instance_id, template_field_id, amount, note, " +
+                              "entry_date, split_mode, payer_participant_id) " +
+                              "SELECT md5('v' || n)::uuid, '" + INSTANCE_ID + "', md5('f')::uuid, 30.00, 'Note ' || n, " +
+                              "date '2024-01-01' + n % 365, 'TEMPLATE_FIELD_PERCENT_SPLIT', '" + PARTICIPANT_ID + "' " +
+                              "FROM generate_series(1, " + rows + ") n");
+            statement.execute("INSERT INTO participant_entry_amount (id, entry_id, template_participant_id, amount) " +
+                              "SELECT md5('e' || n || '-' || p.id)::uuid, md5('v' || n)::uuid, p.id, 10.00 " +
+                              "FROM generate_series(1, " + rows + ") n, template_participant p");
+            statement.execute("VACUUM ANALYZE");
+        }
+    }
+
+    @Benchmark
+    public List<InstanceFieldValueResponse> fieldValuesAsEntities() {
+        List<InstanceFieldValueResponse> responses = entityManager.createQuery(
+                        "select fv from InstanceFieldValue fv where fv.instance.id = :instanceId " +
+                        "order by fv.createdAt, fv.id", InstanceFieldValue.class)
+                .setParameter("instanceId", INSTANCE_ID)
+                .getResultStream()
+                .map(InstanceFieldValueResponse::from)
+                .toList();
+        entityManager.clear();
+        return responses;
+    }
+
+    @Benchmark
+    public List<InstanceFieldValueResponse> fieldValuesAsProjection() {
+        List<InstanceFieldValueResponse> responses = fieldValueRepository.findResponsesByInstanceId(INSTANCE_ID);
+        entityManager.clear();
+        return responses;
+    }
+
+    @Benchmark
+    public List<ParticipantEntryAmountResponse> entryAmountsAsEntities() {
+        List<ParticipantEntryAmountResponse> responses = entryAmountRepository.findByTemplateParticipantId(PARTICIPANT_ID)
+                .stream()
+                .map(ParticipantEntryAmountResponse::from)
+                .toList();
+        entityManager.clear();
+        return responses;
+    }
+
+    @Benchmark
+    public List<ParticipantEntryAmountResponse> entryAmountsAsProjection() {
+        List<ParticipantEntryAmountResponse> responses =
+                entryAmountRepository.findResponsesByTemplateParticipantId(PARTICIPANT_ID);
+        entityManager.clear();
+        return responses;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        entityManager.close();
+        entityManagerFactory.close();
+        postgres.close();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ProjectionBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
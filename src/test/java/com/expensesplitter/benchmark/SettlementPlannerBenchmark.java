@@ -0,0 +1,60 @@
+package com.expensesplitter.benchmark;
+
+import com.expensesplitter.dto.SettlementTransferResponse;
+import com.expensesplitter.service.SettlementPlanner;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Settlement planning cost across group sizes.
+ * Run with: mvn test-compile exec:exec
+ *           -Dbenchmark=com.expensesplitter.benchmark.SettlementPlannerBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SettlementPlannerBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    private int participants;
+
+    private Map<UUID, BigDecimal> net;
+
+    @Setup
+    public void setUp() {
+        // Random balances in cents that sum to zero, like a fully paid instance
+        Random random = new Random(42);
+        net = new HashMap<>();
+        long remaining = 0;
+        for (int i = 0; i < participants - 1; i++) {
+            long cents = random.nextLong(-500_000, 500_000);
+            remaining -= cents;
+            net.put(UUID.randomUUID(), BigDecimal.valueOf(cents, 2));
+        }
+        net.put(UUID.randomUUID(), BigDecimal.valueOf(remaining, 2));
+    }
+
+    @Benchmark
+    public List<SettlementTransferResponse> plan() {
+        return SettlementPlanner.plan(net);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SettlementPlannerBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,73 @@
+package com.expensesplitter.benchmark;
+
+import com.expensesplitter.service.SplitAllocator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Integer-cents allocation against the previous per-participant BigDecimal rounding.
+ * Run with: mvn test-compile exec:exec
+ *           -Dbenchmark=com.expensesplitter.benchmark.SplitAllocatorBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SplitAllocatorBenchmark {
+
+    private static final BigDecimal HUNDRED = new BigDecimal("100");
+
+    @Param({"2", "10", "500"})
+    private int participants;
+
+    private BigDecimal amount;
+    private BigDecimal[] percents;
+    private long[] basisPoints;
+
+    @Setup
+    public void setUp() {
+        // An even split, which is where per-participant rounding drifts from the total
+        amount = new BigDecimal("1234.57");
+        percents = new BigDecimal[participants];
+        basisPoints = new long[participants];
+        long remaining = SplitAllocator.FULL_PERCENT;
+        for (int i = 0; i < participants; i++) {
+            basisPoints[i] = i == participants - 1 ? remaining : SplitAllocator.FULL_PERCENT / participants;
+            remaining -= basisPoints[i];
+            percents[i] = BigDecimal.valueOf(basisPoints[i], 2);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal[] bigDecimalHalfUp() {
+        BigDecimal[] shares = new BigDecimal[participants];
+        for (int i = 0; i < participants; i++) {
+            shares[i] = amount.multiply(percents[i]).divide(HUNDRED, 2, RoundingMode.HALF_UP);
+        }
+        return shares;
+    }
+
+    @Benchmark
+    public BigDecimal[] integerCents() {
+        long[] cents = SplitAllocator.allocateByPercent(SplitAllocator.toCents(amount), basisPoints);
+        BigDecimal[] shares = new BigDecimal[participants];
+        for (int i = 0; i < participants; i++) {
+            shares[i] = SplitAllocator.fromCents(cents[i]);
+        }
+        return shares;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SplitAllocatorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,106 @@
+package com.expensesplitter.benchmark;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.hibernate.id.uuid.UuidVersion7Strategy;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insert throughput and primary key index size with random v4 ids against time-ordered v7 ids,
+ * on a table shaped like participant_entry_amount that is already seeded with ids of the same kind.
+ * Each operation inserts one batch; the index size is printed when the trial ends.
+ * Run with: mvn test-compile exec:exec
+ *           -Dbenchmark=com.expensesplitter.benchmark.UuidInsertBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class UuidInsertBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"V4", "V7"})
+    private String version;
+
+    @Param({"1000000"})
+    private int seededRows;
+
+    private EmbeddedPostgres postgres;
+    private Connection connection;
+    private PreparedStatement insert;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        postgres = EmbeddedPostgres.start();
+        DataSource dataSource = postgres.getPostgresDatabase();
+        // Migrations provide uuid_generate_v7() for seeding
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+
+        connection = dataSource.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE id_benchmark (id UUID PRIMARY KEY, entry_id UUID NOT NULL, " +
+                              "amount NUMERIC(10, 2) NOT NULL)");
+            statement.execute("INSERT INTO id_benchmark (id, entry_id, amount) " +
+                              "SELECT " + (version.equals("V7") ? "uuid_generate_v7()" : "gen_random_uuid()") +
+                              ", gen_random_uuid(), 10.00 FROM generate_series(1, " + seededRows + ")");
+            statement.execute("VACUUM ANALYZE id_benchmark");
+        }
+        connection.setAutoCommit(false);
+        insert = connection.prepareStatement("INSERT INTO id_benchmark (id, entry_id, amount) VALUES (?, ?, ?)");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void insertBatch() throws SQLException {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            insert.setObject(1, nextId());
+            insert.setObject(2, UUID.randomUUID());
+            insert.setBigDecimal(3, BigDecimal.TEN);
+            insert.addBatch();
+        }
+        insert.executeBatch();
+        connection.commit();
+    }
+
+    private UUID nextId() {
+        return version.equals("V7") ? UuidVersion7Strategy.INSTANCE.generateUuid(null) : UUID.randomUUID();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException, SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet sizes = statement.executeQuery(
+                     "SELECT count(*), pg_relation_size('id_benchmark_pkey') FROM id_benchmark")) {
+            sizes.next();
+            long rows = sizes.getLong(1);
+            long indexBytes = sizes.getLong(2);
+            System.out.printf("%n%s: %d rows, primary key index %d MB, %.1f bytes per row%n",
+                    version, rows, indexBytes / (1024 * 1024), (double) indexBytes / rows);
+        }
+        connection.close();
+        postgres.close();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(UuidInsertBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
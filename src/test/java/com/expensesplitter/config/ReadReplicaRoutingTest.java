@@ -0,0 +1,143 @@
+package com.expensesplitter.config;
+
+import com.expensesplitter.PostgresIntegrationTest;
+import com.expensesplitter.entity.Template;
+import com.expensesplitter.entity.TemplateInstance;
+import com.expensesplitter.entity.TemplateParticipant;
+import com.expensesplitter.repository.TemplateRepository;
+import com.expensesplitter.service.CompiledTemplate;
+import com.expensesplitter.service.InstanceArchiveService;
+import com.expensesplitter.service.InstanceService;
+import com.expensesplitter.service.ResourceNotFoundException;
+import com.expensesplitter.service.SoftDeletePurgeService;
+import com.expensesplitter.service.TemplateService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the application with a second embedded Postgres as its only replica. Nothing replicates
+ * between the two, which stands in for a replica that lags arbitrarily far behind: rows written
+ * through the application exist only on the primary, and rows inserted into the replica directly
+ * are stale copies the primary has already moved past.
+ */
+class ReadReplicaRoutingTest extends PostgresIntegrationTest {
+
+    private static final EmbeddedPostgres replica = startReplica();
+
+    @DynamicPropertySource
+    static void replicaProperties(DynamicPropertyRegistry registry) {
+        registry.add("datasource.replica.urls", () -> replica.getJdbcUrl("postgres", "postgres"));
+    }
+
+    @AfterAll
+    static void stopReplica() throws IOException {
+        replica.close();
+    }
+
+    @Autowired
+    private TemplateService templateService;
+
+    @Autowired
+    private InstanceService instanceService;
+
+    @Autowired
+    private TemplateRepository templateRepository;
+
+    @Autowired
+    private SoftDeletePurgeService purgeService;
+
+    @Autowired
+    private InstanceArchiveService archiveService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final JdbcTemplate replicaJdbc = new JdbcTemplate(replica.getPostgresDatabase());
+
+    // Instances are not in the second-level cache, so every read goes to a database
+    @Test
+    void readOnlyTransactionsUseTheReplicaUnlessPinned() {
+        Template template = templateService.createTemplate(UUID.randomUUID(), "Flat", null);
+        TemplateInstance instance = instanceService.createInstance(template.getId(), "March");
+
+        assertThatThrownBy(() -> instanceService.getInstanceById(instance.getId()))
+                .isInstanceOf(ResourceNotFoundException.class);
+
+        ReplicaRoutingDataSource.pinToPrimary();
+        try {
+            assertThat(instanceService.getInstanceById(instance.getId()).getName()).isEqualTo("March");
+        } finally {
+            ReplicaRoutingDataSource.unpin();
+        }
+    }
+
+    @Test
+    void replicaReadsDoNotFillTheSecondLevelCache() {
+        Template template = templateService.createTemplate(UUID.randomUUID(), "Current", null);
+        replicaJdbc.update("INSERT INTO template (id, name) VALUES (?, 'Stale')", template.getId());
+        // Creating the template cached it; the replica read must miss the cache to matter
+        entityManagerFactory.getCache().evict(Template.class, template.getId());
+
+        assertThat(templateService.getTemplateById(template.getId()).getName()).isEqualTo("Stale");
+
+        String primaryName = new TransactionTemplate(transactionManager).execute(status ->
+                templateRepository.findById(template.getId()).orElseThrow().getName());
+        assertThat(primaryName).isEqualTo("Current");
+    }
+
+    @Test
+    void templateSnapshotsAreCompiledFromThePrimary() {
+        Template template = templateService.createTemplate(UUID.randomUUID(), "Flat", null);
+        TemplateParticipant alice = templateService.addParticipant(template.getId(), "Alice", 0);
+        replicaJdbc.update("INSERT INTO template (id, name) VALUES (?, 'Flat')", template.getId());
+        replicaJdbc.update("INSERT INTO template_participant (id, template_id, name, display_order) VALUES (?, ?, 'Stale', 0)",
+                alice.getId(), template.getId());
+
+        CompiledTemplate compiled = templateService.getCompiledTemplate(template.getId());
+
+        assertThat(compiled.participant(alice.getId()).name()).isEqualTo("Alice");
+        assertThat(templateService.getCompiledTemplate(template.getId())).isSameAs(compiled);
+    }
+
+    @Test
+    void workerScansReadThePrimary() {
+        Template template = templateService.createTemplate(UUID.randomUUID(), "Flat", null);
+        TemplateInstance deleted = instanceService.createInstance(template.getId(), "March");
+        instanceService.deleteInstance(deleted.getId());
+        TemplateInstance settled = instanceService.createInstance(template.getId(), "April");
+        instanceService.markInstanceAsSettled(settled.getId());
+
+        assertThat(purgeService.findDeletedInstanceIds(1000)).contains(deleted.getId());
+        assertThat(archiveService.findArchivableInstanceIds(LocalDateTime.now().plusDays(1), 1000))
+                .contains(settled.getId());
+    }
+
+    private static EmbeddedPostgres startReplica() {
+        try {
+            EmbeddedPostgres postgres = EmbeddedPostgres.start();
+            Flyway.configure().dataSource(postgres.getPostgresDatabase()).locations("classpath:db/migration").load().migrate();
+            return postgres;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start embedded Postgres", e);
+        }
+    }
+}
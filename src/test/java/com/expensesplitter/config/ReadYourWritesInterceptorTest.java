@@ -0,0 +1,72 @@
+package com.expensesplitter.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class ReadYourWritesInterceptorTest {
+
+    private final ReadYourWritesInterceptor interceptor = new ReadYourWritesInterceptor(new ReadYourWritesTracker(5000));
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource replica = mock(DataSource.class);
+    private final ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.of(replica));
+
+    @AfterEach
+    void unpin() {
+        ReplicaRoutingDataSource.unpin();
+    }
+
+    // The write's response is already with the client while its afterCompletion has yet to run
+    @Test
+    void readStraightAfterAWriteUsesThePrimary() throws SQLException {
+        interceptor.preHandle(request("POST", "alice"), new MockHttpServletResponse(), null);
+
+        readOnOtherThread("alice");
+
+        verify(primary).getConnection();
+        verify(replica, never()).getConnection();
+    }
+
+    @Test
+    void otherUsersKeepReadingReplicas() throws SQLException {
+        interceptor.preHandle(request("POST", "alice"), new MockHttpServletResponse(), null);
+
+        readOnOtherThread("bob");
+
+        verify(replica).getConnection();
+        verify(primary, never()).getConnection();
+    }
+
+    // A separate request thread, as the next request from the client would get
+    private void readOnOtherThread(String user) {
+        CompletableFuture.runAsync(() -> {
+            MockHttpServletRequest read = request("GET", user);
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            interceptor.preHandle(read, response, null);
+            try {
+                routing.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            } finally {
+                interceptor.afterCompletion(read, response, null, null);
+            }
+        }).orTimeout(10, TimeUnit.SECONDS).join();
+    }
+
+    private static MockHttpServletRequest request(String method, String user) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/api/templates");
+        request.setUserPrincipal(() -> user);
+        return request;
+    }
+}
@@ -0,0 +1,54 @@
+package com.expensesplitter.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadYourWritesTrackerTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final ReadYourWritesTracker tracker = new ReadYourWritesTracker(5000, now::get);
+
+    @Test
+    void writerIsPinnedUntilWindowEnds() {
+        tracker.recordWrite("alice");
+
+        advanceMillis(4999);
+        assertThat(tracker.wroteRecently("alice")).isTrue();
+
+        advanceMillis(1);
+        assertThat(tracker.wroteRecently("alice")).isFalse();
+    }
+
+    @Test
+    void onlyTheWriterIsPinned() {
+        tracker.recordWrite("alice");
+
+        assertThat(tracker.wroteRecently("bob")).isFalse();
+    }
+
+    @Test
+    void laterWriteRestartsWindow() {
+        tracker.recordWrite("alice");
+        advanceMillis(4000);
+        tracker.recordWrite("alice");
+
+        advanceMillis(4000);
+        assertThat(tracker.wroteRecently("alice")).isTrue();
+    }
+
+    @Test
+    void zeroWindowNeverPins() {
+        ReadYourWritesTracker disabled = new ReadYourWritesTracker(0, now::get);
+        disabled.recordWrite("alice");
+
+        assertThat(disabled.wroteRecently("alice")).isFalse();
+    }
+
+    private void advanceMillis(long millis) {
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+}
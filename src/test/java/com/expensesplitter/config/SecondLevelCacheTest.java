@@ -0,0 +1,117 @@
+package com.expensesplitter.config;
+
+import com.expensesplitter.PostgresIntegrationTest;
+import com.expensesplitter.entity.SplitRule;
+import com.expensesplitter.entity.SplitRuleAllocation;
+import com.expensesplitter.entity.Template;
+import com.expensesplitter.entity.TemplateParticipant;
+import com.expensesplitter.repository.SplitRuleAllocationRepository;
+import com.expensesplitter.repository.TemplateParticipantRepository;
+import com.expensesplitter.service.ResourceNotFoundException;
+import com.expensesplitter.service.SoftDeletePurgeService;
+import com.expensesplitter.service.TemplateService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks that the second-level cache never serves template configuration that a write has
+ * replaced. Rows changed with plain JDBC, which Hibernate does not see, tell a cached read apart
+ * from one that went to the database.
+ */
+class SecondLevelCacheTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private TemplateService templateService;
+
+    @Autowired
+    private SplitRuleAllocationRepository splitRuleAllocationRepository;
+
+    @Autowired
+    private TemplateParticipantRepository participantRepository;
+
+    @Autowired
+    private SoftDeletePurgeService purgeService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Cache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    @Test
+    void entityWritesReplaceTheCachedEntry() {
+        Template template = templateService.createTemplate(UUID.randomUUID(), "Flat", null);
+        templateService.getTemplateById(template.getId());
+        assertThat(cache.containsEntity(Template.class, template.getId())).isTrue();
+
+        templateService.updateTemplate(template.getId(), "Home", null);
+        jdbcTemplate.update("UPDATE template SET name = 'Unseen' WHERE id = ?", template.getId());
+
+        // Served from the cache, which the rename updated when it committed
+        assertThat(templateService.getTemplateById(template.getId()).getName()).isEqualTo("Home");
+    }
+
+    @Test
+    void bulkDeletesDropCachedEntitiesAndQueryResults() {
+        Template template = templateService.createTemplate(UUID.randomUUID(), "Flat", null);
+        TemplateParticipant alice = templateService.addParticipant(template.getId(), "Alice", 0);
+        SplitRule rule = templateService.createSplitRule(template.getId(), "All Alice");
+        SplitRuleAllocation allocation = templateService.addAllocationToRule(rule.getId(), alice.getId(), new BigDecimal("100"));
+        assertThat(templateService.getAllocationsForRule(rule.getId())).extracting(SplitRuleAllocation::getId)
+                .containsExactly(allocation.getId());
+        assertThat(cache.containsEntity(SplitRuleAllocation.class, allocation.getId())).isTrue();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                splitRuleAllocationRepository.deleteByTemplateId(template.getId()));
+
+        assertThat(cache.containsEntity(SplitRuleAllocation.class, allocation.getId())).isFalse();
+        assertThat(templateService.getAllocationsForRule(rule.getId())).isEmpty();
+    }
+
+    @Test
+    void purgedConfigurationIsNotServedFromTheCache() {
+        Template purged = templateService.createTemplate(UUID.randomUUID(), "Old flat", null);
+        TemplateParticipant alice = templateService.addParticipant(purged.getId(), "Alice", 0);
+        Template kept = templateService.createTemplate(UUID.randomUUID(), "Flat", null);
+        templateService.getParticipantById(alice.getId());
+        assertThat(templateService.getParticipantsByTemplate(purged.getId())).hasSize(1);
+        templateService.getTemplateById(kept.getId());
+        assertThat(cache.containsEntity(TemplateParticipant.class, alice.getId())).isTrue();
+
+        templateService.deleteTemplate(purged.getId());
+        // Participants go with a bulk HQL delete, which drops their region; the template row goes with
+        // native SQL, which Hibernate cannot attribute to a region, so every region is dropped
+        purgeService.purgeTemplate(purged.getId());
+
+        assertThat(cache.containsEntity(Template.class, purged.getId())).isFalse();
+        assertThat(cache.containsEntity(TemplateParticipant.class, alice.getId())).isFalse();
+        assertThatThrownBy(() -> templateService.getParticipantById(alice.getId()))
+                .isInstanceOf(ResourceNotFoundException.class);
+        // The service turns the purged template away first, so the cached list is checked at the repository
+        assertThat(participantRepository.findByTemplateIdOrderByDisplayOrder(purged.getId())).isEmpty();
+        assertThat(templateService.getTemplateById(kept.getId()).getName()).isEqualTo("Flat");
+    }
+}
@@ -0,0 +1,287 @@
+package com.expensesplitter.repository;
+
+import com.expensesplitter.config.JpaConfig;
+import com.expensesplitter.entity.InstanceFieldValue;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jackson.autoconfigure.JacksonAutoConfiguration;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.repository.Repository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ClassUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static com.expensesplitter.repository.InstanceFieldValueSpecifications.*;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Runs every query the repositories declare against a seeded Postgres and fails when its plan
+ * sequentially scans a large table, so a new query without a matching index, or a migration that
+ * drops one, shows up here instead of in production.
+ * <p>
+ * Each repository method is called with placeholder arguments, the SQL Hibernate sends is
+ * captured, and {@code EXPLAIN (GENERIC_PLAN)} plans it the way a prepared statement is planned
+ * for arbitrary parameter values.
+ */
+@DataJpaTest
+// Production Hibernate settings, so cacheable queries are planned with their regions configured;
+// the JSON column mapper comes from the Jackson auto-configuration
+@Import(JpaConfig.class)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "com.expensesplitter.repository.QueryPlanTest$CapturingStatementInspector")
+class QueryPlanTest {
+
+    // Tables at least this big must never be read with a sequential scan
+    private static final long LARGE_TABLE_ROWS = 5_000;
+
+    // Queries whose job is to read the whole table
+    private static final Set<String> FULL_SCANS = Set.of(
+            "TemplateRepository#streamAll",
+            "TemplateInstanceRepository#streamAll",
+            "ParticipantEntryAmountRepository#streamAll");
+
+    private static final Pattern SEQ_SCAN = Pattern.compile("Seq Scan on (\\w+)");
+    private static final Pattern PARAMETER = Pattern.compile("\\?");
+    private static final UUID ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+
+    private static final EmbeddedPostgres postgres = startPostgres();
+    private static final List<String> captured = new ArrayList<>();
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private InstanceFieldValueRepository fieldValueRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeAll
+    static void seed() {
+        DataSource dataSource = postgres.getPostgresDatabase();
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+        new ResourceDatabasePopulator(new ClassPathResource("db/query-plan-seed.sql")).execute(dataSource);
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        postgres.close();
+    }
+
+    @TestFactory
+    Stream<DynamicTest> repositoryQueriesUseIndexes() {
+        Set<String> largeTables = largeTables();
+        return repositoryMethods().map(method -> {
+            String name = method.getDeclaringClass().getSimpleName() + "#" + method.getName();
+            Object repository = context.getBean(method.getDeclaringClass());
+            return DynamicTest.dynamicTest(name, () -> {
+                List<String> statements = capture(() -> invoke(repository, method));
+                assertFalse(statements.isEmpty(), name + " did not run any SQL");
+                if (!FULL_SCANS.contains(name)) {
+                    statements.forEach(sql -> assertNoSeqScan(name, sql, largeTables));
+                }
+            });
+        });
+    }
+
+    @TestFactory
+    Stream<DynamicTest> fieldValuePageQueriesUseIndexes() {
+        Set<String> largeTables = largeTables();
+        return Stream.of(
+                fieldValuePage("unfiltered", inInstance(ID)),
+                fieldValuePage("after cursor", inInstance(ID).and(after(LocalDateTime.now(), ID))),
+                fieldValuePage("by field", inInstance(ID).and(forTemplateField(ID)).and(after(LocalDateTime.now(), ID))),
+                fieldValuePage("by payer", inInstance(ID).and(paidBy(ID)).and(after(LocalDateTime.now(), ID))),
+                fieldValuePage("by entry date", inInstance(ID)
+                        .and(enteredOnOrAfter(LocalDate.now())).and(enteredOnOrBefore(LocalDate.now()))))
+                .map(page -> DynamicTest.dynamicTest("InstanceFieldValueRepository#findBy " + page.name(), () -> {
+                    List<String> statements = capture(() -> fieldValueRepository.findBy(page.spec(), query -> query
+                            .sortBy(Sort.by("createdAt", "id"))
+                            .limit(51)
+                            .all()));
+                    statements.forEach(sql -> assertNoSeqScan(page.name(), sql, largeTables));
+                }));
+    }
+
+    private record FieldValuePage(String name, Specification<InstanceFieldValue> spec) {
+    }
+
+    private static FieldValuePage fieldValuePage(String name, Specification<InstanceFieldValue> spec) {
+        return new FieldValuePage(name, spec);
+    }
+
+    private Stream<Method> repositoryMethods() {
+        return Arrays.stream(context.getBeanNamesForType(Repository.class))
+                .map(context::getType)
+                .flatMap(type -> Arrays.stream(ClassUtils.getAllInterfacesForClass(type)))
+                .filter(type -> type.getPackageName().equals(QueryPlanTest.class.getPackageName()))
+                .distinct()
+                .flatMap(type -> Arrays.stream(type.getDeclaredMethods()))
+                .filter(method -> Modifier.isAbstract(method.getModifiers()))
+                .sorted(Comparator.comparing(Method::toString));
+    }
+
+    // Runs the call in a rolled-back transaction and returns the SQL it sent
+    private List<String> capture(Runnable call) {
+        synchronized (captured) {
+            captured.clear();
+        }
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            call.run();
+        });
+        synchronized (captured) {
+            return List.copyOf(captured);
+        }
+    }
+
+    private static void invoke(Object repository, Method method) {
+        Object[] args = Arrays.stream(method.getParameterTypes()).map(QueryPlanTest::placeholder).toArray();
+        try {
+            if (method.invoke(repository, args) instanceof Stream<?> stream) {
+                stream.close();
+            }
+        } catch (InvocationTargetException e) {
+            // Placeholder ids can violate constraints on writes; the statement was captured before it ran
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Object placeholder(Class<?> type) {
+        if (type == UUID.class) {
+            return ID;
+        }
+        if (Collection.class.isAssignableFrom(type)) {
+            return List.of(ID, UUID.randomUUID());
+        }
+        if (type == Limit.class) {
+            return Limit.of(50);
+        }
+        if (type == int.class || type == Integer.class) {
+            return 50;
+        }
+        if (type == LocalDateTime.class) {
+            return LocalDateTime.now();
+        }
+        if (type == LocalDate.class) {
+            return LocalDate.now();
+        }
+        if (type == BigDecimal.class) {
+            return BigDecimal.ONE;
+        }
+        if (type.isEnum()) {
+            return type.getEnumConstants()[0];
+        }
+        return fail("No placeholder for parameter type " + type.getName());
+    }
+
+    private static Set<String> largeTables() {
+        Set<String> tables = Set.copyOf(jdbc().queryForList(
+                "SELECT relname FROM pg_class " +
+                "WHERE relkind = 'r' AND relnamespace = 'public'::regnamespace AND reltuples >= ?",
+                String.class, LARGE_TABLE_ROWS));
+        assertFalse(tables.isEmpty(), "Seed data did not produce any large table");
+        return tables;
+    }
+
+    private void assertNoSeqScan(String name, String sql, Set<String> largeTables) {
+        String plan = String.join("\n", jdbc().queryForList("EXPLAIN (GENERIC_PLAN) " + numberParameters(sql), String.class));
+        Matcher scan = SEQ_SCAN.matcher(plan);
+        while (scan.find()) {
+            assertTrue(!largeTables.contains(scan.group(1)),
+                    () -> name + " scans " + scan.group(1) + " sequentially:\n" + sql + "\n" + plan);
+        }
+    }
+
+    // JDBC placeholders to the $n form EXPLAIN accepts
+    private static String numberParameters(String sql) {
+        Matcher matcher = PARAMETER.matcher(sql);
+        StringBuilder numbered = new StringBuilder();
+        int index = 0;
+        while (matcher.find()) {
+            matcher.appendReplacement(numbered, "\\$" + ++index);
+        }
+        return matcher.appendTail(numbered).toString();
+    }
+
+    // Simple query protocol, otherwise the driver sends the $n placeholders as unbound parameters
+    private static JdbcTemplate jdbc() {
+        return new JdbcTemplate(postgres.getDatabase("postgres", "postgres", Map.of("preferQueryMode", "simple")));
+    }
+
+    private static EmbeddedPostgres startPostgres() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start embedded Postgres", e);
+        }
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        DataSource dataSource() {
+            return postgres.getPostgresDatabase();
+        }
+    }
+
+    public static class CapturingStatementInspector implements StatementInspector {
+
+        @Override
+        public String inspect(String sql) {
+            synchronized (captured) {
+                captured.add(sql);
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.entity.ParticipantEntryAmount;
+import com.expensesplitter.entity.TemplateParticipant;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AllocationDiffTest {
+
+    private final UUID alice = UUID.randomUUID();
+    private final UUID bob = UUID.randomUUID();
+    private final UUID carol = UUID.randomUUID();
+
+    @Test
+    void updatesChangedRowsInPlaceInsertsNewAndDeletesRemovedParticipants() {
+        ParticipantEntryAmount storedAlice = allocation(alice, "50.00");
+        ParticipantEntryAmount storedBob = allocation(bob, "50.00");
+        ParticipantEntryAmount newCarol = allocation(carol, "20.00");
+
+        AllocationDiff diff = AllocationDiff.apply(List.of(storedAlice, storedBob),
+                List.of(allocation(alice, "80.00"), newCarol));
+
+        assertThat(diff.stored()).containsExactly(storedAlice, newCarol);
+        assertThat(storedAlice.getAmount()).isEqualByComparingTo("80.00");
+        assertThat(diff.inserts()).containsExactly(newCarol);
+        assertThat(diff.deletes()).containsExactly(storedBob);
+    }
+
+    @Test
+    void unchangedAllocationsProduceNoWrites() {
+        ParticipantEntryAmount storedAlice = allocation(alice, "33.34");
+        ParticipantEntryAmount storedBob = allocation(bob, "66.66");
+        BigDecimal aliceAmount = storedAlice.getAmount();
+
+        AllocationDiff diff = AllocationDiff.apply(List.of(storedAlice, storedBob),
+                List.of(allocation(bob, "66.660"), allocation(alice, "33.34")));
+
+        assertThat(diff.stored()).containsExactly(storedBob, storedAlice);
+        assertThat(diff.inserts()).isEmpty();
+        assertThat(diff.deletes()).isEmpty();
+        // Equal amounts are left untouched so dirty checking doesn't issue an update
+        assertThat(storedAlice.getAmount()).isSameAs(aliceAmount);
+    }
+
+    @Test
+    void duplicateRowsForAParticipantAreCollapsed() {
+        ParticipantEntryAmount first = allocation(alice, "10.00");
+        ParticipantEntryAmount duplicate = allocation(alice, "10.00");
+
+        AllocationDiff diff = AllocationDiff.apply(List.of(first, duplicate), List.of(allocation(alice, "20.00")));
+
+        assertThat(diff.stored()).containsExactly(first);
+        assertThat(diff.deletes()).containsExactly(duplicate);
+    }
+
+    private static ParticipantEntryAmount allocation(UUID participantId, String amount) {
+        TemplateParticipant participant = new TemplateParticipant();
+        participant.setId(participantId);
+        ParticipantEntryAmount allocation = new ParticipantEntryAmount();
+        allocation.setTemplateParticipant(participant);
+        allocation.setAmount(new BigDecimal(amount));
+        return allocation;
+    }
+}
@@ -0,0 +1,121 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.PostgresIntegrationTest;
+import com.expensesplitter.dto.AddFieldValueRequest;
+import com.expensesplitter.dto.InstanceFieldValueResponse;
+import com.expensesplitter.entity.SplitRule;
+import com.expensesplitter.entity.Template;
+import com.expensesplitter.entity.TemplateField;
+import com.expensesplitter.entity.TemplateInstance;
+import com.expensesplitter.entity.TemplateParticipant;
+import com.expensesplitter.enums.ExportFormat;
+import com.expensesplitter.enums.FieldType;
+import com.expensesplitter.enums.SplitMode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArchivedInstanceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private TemplateService templateService;
+
+    @Autowired
+    private InstanceService instanceService;
+
+    @Autowired
+    private InstanceArchiveService archiveService;
+
+    @Autowired
+    private LedgerExportService ledgerExportService;
+
+    private Template template;
+    private TemplateParticipant alice;
+    private TemplateParticipant bob;
+    private TemplateField groceries;
+    private TemplateField rent;
+    private TemplateInstance archived;
+
+    @BeforeEach
+    void createSettledInstance() {
+        template = templateService.createTemplate(UUID.randomUUID(), "Flat", null);
+        alice = templateService.addParticipant(template.getId(), "Alice", 0);
+        bob = templateService.addParticipant(template.getId(), "Bob", 1);
+        SplitRule evenSplit = templateService.createSplitRule(template.getId(), "Even");
+        templateService.addAllocationToRule(evenSplit.getId(), alice.getId(), new BigDecimal("50"));
+        templateService.addAllocationToRule(evenSplit.getId(), bob.getId(), new BigDecimal("50"));
+        groceries = templateService.addField(template.getId(), "Groceries", FieldType.SINGLE, evenSplit.getId(), 0, null, null);
+        rent = templateService.addField(template.getId(), "Rent", FieldType.SINGLE, evenSplit.getId(), 1, null, null);
+
+        archived = instanceService.createInstance(template.getId(), "March");
+        instanceService.addFieldValue(archived.getId(), entry(groceries, "40.00", bob));
+        instanceService.addFieldValue(archived.getId(), entry(rent, "900.00", alice));
+        instanceService.markInstanceAsSettled(archived.getId());
+    }
+
+    @Test
+    void fieldValueListsReadTheArchive() {
+        List<InstanceFieldValueResponse> all =
+                instanceService.getFieldValuePage(archived.getId(), null, null, null, null, null, null).items();
+        List<InstanceFieldValueResponse> rentOnly =
+                instanceService.getFieldValuesByInstanceAndField(archived.getId(), rent.getId());
+
+        archive(archived);
+
+        assertThat(instanceService.getFieldValuePage(archived.getId(), null, null, null, null, null, null).items())
+                .isEqualTo(all);
+        assertThat(instanceService.getFieldValuesByInstanceAndField(archived.getId(), rent.getId())).isEqualTo(rentOnly);
+    }
+
+    @Test
+    void exportsReadTheArchive() throws IOException {
+        TemplateInstance live = instanceService.createInstance(template.getId(), "April");
+        instanceService.addFieldValue(live.getId(), entry(groceries, "25.00", alice));
+        String instanceExport = exportInstance(archived, ExportFormat.NDJSON);
+        String instanceCsv = exportInstance(archived, ExportFormat.CSV);
+        String templateExport = exportTemplate(ExportFormat.NDJSON);
+        assertThat(templateExport).contains("Groceries", "Rent", "March", "April");
+
+        archive(archived);
+
+        assertThat(exportInstance(archived, ExportFormat.NDJSON)).isEqualTo(instanceExport);
+        assertThat(exportInstance(archived, ExportFormat.CSV)).isEqualTo(instanceCsv);
+        assertThat(exportTemplate(ExportFormat.NDJSON)).isEqualTo(templateExport);
+    }
+
+    private void archive(TemplateInstance instance) {
+        archiveService.archiveInstance(instance.getId(), LocalDateTime.now().plusDays(1));
+        assertThat(instanceService.getInstanceById(instance.getId()).getArchivedAt()).isNotNull();
+    }
+
+    private String exportInstance(TemplateInstance instance, ExportFormat format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ledgerExportService.exportInstance(instance.getId(), format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private String exportTemplate(ExportFormat format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ledgerExportService.exportTemplate(template.getId(), format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static AddFieldValueRequest entry(TemplateField field, String amount, TemplateParticipant payer) {
+        AddFieldValueRequest request = new AddFieldValueRequest();
+        request.setTemplateFieldId(field.getId());
+        request.setAmount(new BigDecimal(amount));
+        request.setSplitMode(SplitMode.TEMPLATE_FIELD_PERCENT_SPLIT);
+        request.setPayerParticipantId(payer.getId());
+        return request;
+    }
+}
@@ -0,0 +1,43 @@
+package com.expensesplitter.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceLedgerFoldWorkerTest {
+
+    @Mock
+    private InstanceBalanceService balanceService;
+
+    @Test
+    void foldsFullBatchesUntilAShortOne() {
+        List<UUID> fullBatch = IntStream.range(0, 100).mapToObj(i -> UUID.randomUUID()).toList();
+        UUID last = UUID.randomUUID();
+        when(balanceService.findInstanceIdsWithDeltas(anyInt())).thenReturn(fullBatch).thenReturn(List.of(last));
+
+        new BalanceLedgerFoldWorker(balanceService).fold();
+
+        fullBatch.forEach(id -> verify(balanceService).fold(id));
+        verify(balanceService).fold(last);
+        verify(balanceService, times(2)).findInstanceIdsWithDeltas(anyInt());
+    }
+
+    @Test
+    void doesNothingWithoutPendingDeltas() {
+        when(balanceService.findInstanceIdsWithDeltas(anyInt())).thenReturn(List.of());
+
+        new BalanceLedgerFoldWorker(balanceService).fold();
+
+        verify(balanceService, never()).fold(any());
+    }
+}
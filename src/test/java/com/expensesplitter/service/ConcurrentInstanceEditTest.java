@@ -0,0 +1,208 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.PostgresIntegrationTest;
+import com.expensesplitter.dto.AddFieldValueRequest;
+import com.expensesplitter.dto.InstanceFieldValueResponse;
+import com.expensesplitter.dto.ParticipantTotalsResponse;
+import com.expensesplitter.entity.InstanceFieldValue;
+import com.expensesplitter.entity.Template;
+import com.expensesplitter.entity.TemplateField;
+import com.expensesplitter.entity.TemplateInstance;
+import com.expensesplitter.entity.TemplateParticipant;
+import com.expensesplitter.enums.FieldType;
+import com.expensesplitter.enums.InstanceStatus;
+import com.expensesplitter.enums.SplitMode;
+import org.assertj.core.api.ThrowableAssert.ThrowingCallable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.context.event.ApplicationEventMulticaster;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs a second request while an append is between its writes and its commit. The append's
+ * {@link InstanceChangedEvent} is published inside its transaction, so a listener on it sees the
+ * append's rows written but not yet committed.
+ */
+class ConcurrentInstanceEditTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private TemplateService templateService;
+
+    @Autowired
+    private InstanceService instanceService;
+
+    @Autowired
+    private ParticipantEntryAmountService participantEntryAmountService;
+
+    @Autowired
+    private InstanceBalanceService balanceService;
+
+    @Autowired
+    private ApplicationEventMulticaster eventMulticaster;
+
+    private final AtomicInteger appendAttempts = new AtomicInteger();
+    private Runnable beforeFirstCommit;
+    private ApplicationListener<ApplicationEvent> listener;
+
+    private TemplateParticipant alice;
+    private TemplateParticipant bob;
+    private TemplateField groceries;
+    private TemplateInstance instance;
+
+    @BeforeEach
+    void setUp() {
+        // Entries are split by fixed amounts, so no rule change starts a re-allocation job
+        Template template = templateService.createTemplate(UUID.randomUUID(), "Flat", null);
+        alice = templateService.addParticipant(template.getId(), "Alice", 0);
+        bob = templateService.addParticipant(template.getId(), "Bob", 1);
+        groceries = templateService.addField(template.getId(), "Groceries", FieldType.SINGLE, null, 0, null, null);
+        instance = instanceService.createInstance(template.getId(), "March");
+
+        listener = event -> {
+            if (event instanceof PayloadApplicationEvent<?> payload
+                    && payload.getPayload() instanceof InstanceChangedEvent changed
+                    && changed.instanceId().equals(instance.getId())
+                    && appendAttempts.incrementAndGet() == 1
+                    && beforeFirstCommit != null) {
+                beforeFirstCommit.run();
+            }
+        };
+        eventMulticaster.addApplicationListener(listener);
+    }
+
+    @AfterEach
+    void removeListener() {
+        eventMulticaster.removeApplicationListener(listener);
+    }
+
+    @Test
+    void staleVersionIsAConflict() {
+        long readVersion = instanceService.getInstanceById(instance.getId()).getVersion();
+        instanceService.updateInstanceName(instance.getId(), "April", readVersion);
+        assertVersionConflict(() -> instanceService.updateInstanceName(instance.getId(), "May", readVersion));
+        assertThat(instanceService.getInstanceById(instance.getId()).getName()).isEqualTo("April");
+
+        InstanceFieldValue entry = instanceService.addFieldValue(instance.getId(), entry("10.00"));
+        long entryVersion = entry.getVersion();
+        updateEntry(entry, "20.00", entryVersion);
+        assertVersionConflict(() -> updateEntry(entry, "30.00", entryVersion));
+        assertThat(instanceService.getFieldValueById(entry.getId()).getAmount()).isEqualByComparingTo("20.00");
+    }
+
+    @Test
+    void appendOverlappingARenameIsRetried() {
+        beforeFirstCommit = () -> inOtherTransaction(() -> instanceService.updateInstanceName(instance.getId(), "April", null));
+
+        InstanceFieldValue appended = instanceService.addFieldValue(instance.getId(), entry("10.00"));
+
+        assertThat(appendAttempts).hasValue(2);
+        assertThat(instanceService.getInstanceById(instance.getId()).getName()).isEqualTo("April");
+        assertThat(amountsOf(appended)).containsExactly(new BigDecimal("10.00"));
+        assertThat(participantEntryAmountService.getInstanceTotals(instance.getId()).paid().get(alice.getId()))
+                .isEqualByComparingTo("10.00");
+    }
+
+    @Test
+    void appendOverlappingASettleIsRetriedAndRejected() {
+        beforeFirstCommit = () -> inOtherTransaction(() -> instanceService.markInstanceAsSettled(instance.getId()));
+
+        assertThatThrownBy(() -> instanceService.addFieldValue(instance.getId(), entry("10.00")))
+                .isInstanceOfSatisfying(ApiException.class, e -> {
+                    assertThat(e.getHttpStatus()).isEqualTo(409);
+                    assertThat(e.getErrorCode()).isEqualTo("INSTANCE_SETTLED");
+                });
+
+        // The first attempt failed its version check at commit; the retry then found the instance settled
+        assertThat(appendAttempts).hasValue(1);
+        assertThat(instanceService.getInstanceById(instance.getId()).getStatus()).isEqualTo(InstanceStatus.SETTLED);
+        assertThat(instanceService.getFieldValuePage(instance.getId(), null, null, null, null, null, null).items())
+                .extracting(InstanceFieldValueResponse::amount)
+                .allSatisfy(amount -> assertThat(amount).isEqualByComparingTo("0"));
+        assertThat(participantEntryAmountService.getInstanceTotals(instance.getId()).hasPayers()).isFalse();
+    }
+
+    // With a shared balance row, the second append would wait for the first to commit and this would time out
+    @Test
+    void concurrentAppendsDoNotWaitForEachOther() {
+        beforeFirstCommit = () -> inOtherTransaction(() -> instanceService.addFieldValue(instance.getId(), entry("25.00")));
+
+        instanceService.addFieldValue(instance.getId(), entry("10.00"));
+
+        ParticipantTotalsResponse totals = participantEntryAmountService.getInstanceTotals(instance.getId());
+        assertThat(totals.paid().get(alice.getId())).isEqualByComparingTo("35.00");
+        assertThat(totals.shares().get(alice.getId())).isEqualByComparingTo("14.00");
+        assertThat(totals.shares().get(bob.getId())).isEqualByComparingTo("21.00");
+    }
+
+    @Test
+    void foldingDeltasKeepsTotals() {
+        instanceService.addFieldValue(instance.getId(), entry("10.00"));
+        instanceService.addFieldValue(instance.getId(), entry("25.00"));
+        ParticipantTotalsResponse beforeFold = participantEntryAmountService.getInstanceTotals(instance.getId());
+        assertThat(balanceService.findInstanceIdsWithDeltas(Integer.MAX_VALUE)).contains(instance.getId());
+
+        balanceService.fold(instance.getId());
+
+        assertThat(balanceService.findInstanceIdsWithDeltas(Integer.MAX_VALUE)).doesNotContain(instance.getId());
+        assertThat(participantEntryAmountService.getInstanceTotals(instance.getId())).isEqualTo(beforeFold);
+        assertThat(participantEntryAmountService.getTotalAmountForParticipantInInstance(instance.getId(), bob.getId()))
+                .isEqualByComparingTo("21.00");
+
+        instanceService.addFieldValue(instance.getId(), entry("5.00"));
+        assertThat(participantEntryAmountService.getTotalAmountForParticipantInInstance(instance.getId(), bob.getId()))
+                .isEqualByComparingTo("24.00");
+    }
+
+    private void updateEntry(InstanceFieldValue fieldValue, String amount, long expectedVersion) {
+        AddFieldValueRequest request = entry(amount);
+        instanceService.updateFieldValue(fieldValue.getId(), request.getAmount(), null, null, request.getSplitMode(),
+                null, request.getParticipantAmounts(), request.getPayerParticipantId(), expectedVersion);
+    }
+
+    private List<BigDecimal> amountsOf(InstanceFieldValue fieldValue) {
+        return instanceService.getFieldValuePage(instance.getId(), null, null, null, null, null, null).items().stream()
+                .filter(value -> value.id().equals(fieldValue.getId()))
+                .map(InstanceFieldValueResponse::amount)
+                .toList();
+    }
+
+    // Another thread, so the work gets its own connection and commits before the append does
+    private static void inOtherTransaction(Runnable work) {
+        CompletableFuture.runAsync(work).orTimeout(10, TimeUnit.SECONDS).join();
+    }
+
+    private static void assertVersionConflict(ThrowingCallable call) {
+        assertThatThrownBy(call)
+                .isInstanceOfSatisfying(ApiException.class, e -> {
+                    assertThat(e.getHttpStatus()).isEqualTo(409);
+                    assertThat(e.getErrorCode()).isEqualTo("VERSION_CONFLICT");
+                });
+    }
+
+    private AddFieldValueRequest entry(String amount) {
+        BigDecimal total = new BigDecimal(amount);
+        BigDecimal aliceShare = total.multiply(new BigDecimal("0.4")).setScale(2);
+        AddFieldValueRequest request = new AddFieldValueRequest();
+        request.setTemplateFieldId(groceries.getId());
+        request.setAmount(total);
+        request.setSplitMode(SplitMode.FIELD_VALUE_FIXED_AMOUNTS);
+        request.setParticipantAmounts(Map.of(alice.getId(), aliceShare, bob.getId(), total.subtract(aliceShare)));
+        request.setPayerParticipantId(alice.getId());
+        return request;
+    }
+}
@@ -0,0 +1,93 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.enums.SplitMode;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvFieldValueImportReaderTest {
+
+    private final UUID field = UUID.randomUUID();
+    private final UUID alice = UUID.randomUUID();
+    private final UUID bob = UUID.randomUUID();
+
+    @Test
+    void mapsColumnsByHeaderName() throws IOException {
+        String csv = "Amount,templateFieldId,note,entryDate,payerParticipantId,splitMode,participantAmounts\r\n"
+                + "12.50," + field + ",Groceries,2026-03-01," + alice + ",field_value_fixed_amounts,"
+                + "\"" + alice + "=10.00;" + bob + "=2.50\"\r\n";
+
+        List<FieldValueImportRow> rows = readAll(csv);
+
+        assertThat(rows).hasSize(1);
+        FieldValueImportRow row = rows.get(0);
+        assertThat(row.error()).isNull();
+        assertThat(row.line()).isEqualTo(2);
+        assertThat(row.request().getTemplateFieldId()).isEqualTo(field);
+        assertThat(row.request().getAmount()).isEqualByComparingTo("12.50");
+        assertThat(row.request().getNote()).isEqualTo("Groceries");
+        assertThat(row.request().getEntryDate()).isEqualTo(LocalDate.of(2026, 3, 1));
+        assertThat(row.request().getPayerParticipantId()).isEqualTo(alice);
+        assertThat(row.request().getSplitMode()).isEqualTo(SplitMode.FIELD_VALUE_FIXED_AMOUNTS);
+        assertThat(row.request().getParticipantAmounts()).containsOnlyKeys(alice, bob);
+    }
+
+    @Test
+    void quotedValuesMayContainCommasQuotesAndLineBreaks() throws IOException {
+        String csv = "templateFieldId,amount,note\n"
+                + field + ",5,\"Dinner, \"\"Luigi's\"\"\nsecond line\"\n"
+                + field + ",6,plain\n";
+
+        List<FieldValueImportRow> rows = readAll(csv);
+
+        assertThat(rows).extracting(row -> row.request().getNote())
+                .containsExactly("Dinner, \"Luigi's\"\nsecond line", "plain");
+        // Line numbers point at the start of each record
+        assertThat(rows).extracting(FieldValueImportRow::line).containsExactly(2L, 4L);
+    }
+
+    @Test
+    void badRowsAreReportedWithoutStoppingTheImport() throws IOException {
+        String csv = "templateFieldId,amount,entryDate\n"
+                + "not-a-uuid,5,\n"
+                + field + ",abc,\n"
+                + "\n"
+                + field + ",5,01/02/2026\n"
+                + field + ",7,2026-02-01\n";
+
+        List<FieldValueImportRow> rows = readAll(csv);
+
+        assertThat(rows).extracting(FieldValueImportRow::error).containsExactly(
+                "Invalid templateFieldId: not-a-uuid",
+                "Invalid amount: abc",
+                "Invalid entryDate, expected YYYY-MM-DD: 01/02/2026",
+                null);
+        assertThat(rows.get(3).line()).isEqualTo(6);
+    }
+
+    @Test
+    void headerMustNameRequiredColumns() {
+        assertThatThrownBy(() -> readAll("note,amount\nx,1\n"))
+                .isInstanceOf(ValidationException.class)
+                .hasMessageContaining("templateFieldId");
+    }
+
+    private static List<FieldValueImportRow> readAll(String csv) throws IOException {
+        List<FieldValueImportRow> rows = new ArrayList<>();
+        try (CsvFieldValueImportReader reader = new CsvFieldValueImportReader(new StringReader(csv))) {
+            FieldValueImportRow row;
+            while ((row = reader.next()) != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+}
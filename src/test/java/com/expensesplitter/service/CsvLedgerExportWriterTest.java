@@ -0,0 +1,70 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.enums.SplitMode;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvLedgerExportWriterTest {
+
+    @Test
+    void quotesOnlyValuesThatNeedIt() throws Exception {
+        UUID instanceId = UUID.randomUUID();
+        UUID fieldValueId = UUID.randomUUID();
+        UUID fieldId = UUID.randomUUID();
+        LedgerExportEntry entry = new LedgerExportEntry(instanceId, "March", fieldValueId, fieldId,
+                "Groceries, misc", new BigDecimal("12.50"), "said \"hi\"", null,
+                SplitMode.TEMPLATE_FIELD_PERCENT_SPLIT, null, null, null, Map.of());
+
+        StringWriter out = new StringWriter();
+        CsvLedgerExportWriter writer = new CsvLedgerExportWriter(out);
+        writer.begin();
+        writer.write(entry);
+        writer.flush();
+
+        String[] lines = out.toString().split("\r\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[1]).isEqualTo(instanceId + ",March," + fieldValueId + "," + fieldId
+                + ",\"Groceries, misc\",12.50,\"said \"\"hi\"\"\",,TEMPLATE_FIELD_PERCENT_SPLIT,,,,");
+    }
+
+    @Test
+    void exportedRowsCanBeImportedAgain() throws Exception {
+        UUID fieldId = UUID.randomUUID();
+        UUID payerId = UUID.randomUUID();
+        UUID otherId = UUID.randomUUID();
+        Map<UUID, BigDecimal> participantAmounts = new LinkedHashMap<>();
+        participantAmounts.put(payerId, new BigDecimal("7.00"));
+        participantAmounts.put(otherId, new BigDecimal("3.00"));
+        LedgerExportEntry entry = new LedgerExportEntry(UUID.randomUUID(), "March", UUID.randomUUID(), fieldId,
+                "Dinner", new BigDecimal("10.00"), "line one\nline two", LocalDate.of(2026, 3, 1),
+                SplitMode.FIELD_VALUE_FIXED_AMOUNTS, null, payerId, "Alex", participantAmounts);
+
+        StringWriter out = new StringWriter();
+        CsvLedgerExportWriter writer = new CsvLedgerExportWriter(out);
+        writer.begin();
+        writer.write(entry);
+        writer.flush();
+
+        try (CsvFieldValueImportReader reader = new CsvFieldValueImportReader(new StringReader(out.toString()))) {
+            FieldValueImportRow row = reader.next();
+            assertThat(row.error()).isNull();
+            assertThat(row.request().getTemplateFieldId()).isEqualTo(fieldId);
+            assertThat(row.request().getAmount()).isEqualByComparingTo("10.00");
+            assertThat(row.request().getNote()).isEqualTo("line one\nline two");
+            assertThat(row.request().getEntryDate()).isEqualTo(LocalDate.of(2026, 3, 1));
+            assertThat(row.request().getSplitMode()).isEqualTo(SplitMode.FIELD_VALUE_FIXED_AMOUNTS);
+            assertThat(row.request().getPayerParticipantId()).isEqualTo(payerId);
+            assertThat(row.request().getParticipantAmounts()).containsExactlyInAnyOrderEntriesOf(participantAmounts);
+            assertThat(reader.next()).isNull();
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.PostgresIntegrationTest;
+import com.expensesplitter.dto.AddFieldValueRequest;
+import com.expensesplitter.dto.CursorPageResponse;
+import com.expensesplitter.dto.ParticipantEntryAmountResponse;
+import com.expensesplitter.entity.InstanceFieldValue;
+import com.expensesplitter.entity.SplitRule;
+import com.expensesplitter.entity.SplitRuleAllocation;
+import com.expensesplitter.entity.Template;
+import com.expensesplitter.entity.TemplateField;
+import com.expensesplitter.entity.TemplateInstance;
+import com.expensesplitter.entity.TemplateParticipant;
+import com.expensesplitter.enums.ExportFormat;
+import com.expensesplitter.enums.FieldType;
+import com.expensesplitter.enums.SplitMode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DeletedInstanceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private TemplateService templateService;
+
+    @Autowired
+    private InstanceService instanceService;
+
+    @Autowired
+    private ParticipantEntryAmountService participantEntryAmountService;
+
+    @Autowired
+    private BulkReadService bulkReadService;
+
+    @Autowired
+    private LedgerExportService ledgerExportService;
+
+    @Autowired
+    private InstanceArchiveService archiveService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Template template;
+    private TemplateParticipant alice;
+    private TemplateParticipant bob;
+    private TemplateField groceries;
+    private TemplateInstance deleted;
+    private InstanceFieldValue deletedEntry;
+    private InstanceFieldValue liveEntry;
+
+    @BeforeEach
+    void createInstances() {
+        template = templateService.createTemplate(UUID.randomUUID(), "Flat", null);
+        alice = templateService.addParticipant(template.getId(), "Alice", 0);
+        bob = templateService.addParticipant(template.getId(), "Bob", 1);
+        SplitRule evenSplit = templateService.createSplitRule(template.getId(), "Even");
+        templateService.addAllocationToRule(evenSplit.getId(), alice.getId(), new BigDecimal("50"));
+        templateService.addAllocationToRule(evenSplit.getId(), bob.getId(), new BigDecimal("50"));
+        groceries = templateService.addField(template.getId(), "Groceries", FieldType.SINGLE, evenSplit.getId(), 0, null, null);
+
+        TemplateInstance live = instanceService.createInstance(template.getId(), "March");
+        liveEntry = instanceService.addFieldValue(live.getId(), entry("30.00"));
+        deleted = instanceService.createInstance(template.getId(), "April");
+        deletedEntry = instanceService.addFieldValue(deleted.getId(), entry("40.00"));
+
+        instanceService.deleteInstance(deleted.getId());
+    }
+
+    @Test
+    void fieldValuesOfDeletedInstanceAreNotFound() {
+        assertThatThrownBy(() -> instanceService.getFieldValuesByInstanceAndField(deleted.getId(), groceries.getId()))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> instanceService.getFieldValuePage(deleted.getId(), null, null, null, null, null, null))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> instanceService.getFieldValueById(deletedEntry.getId()))
+                .isInstanceOf(ResourceNotFoundException.class);
+
+        assertThat(instanceService.getFieldValueById(liveEntry.getId()).getAmount()).isEqualByComparingTo("30.00");
+    }
+
+    @Test
+    void allocationsOfDeletedInstanceAreNotListed() throws IOException {
+        List<UUID> deletedAllocations = allocationIds(deletedEntry);
+        List<UUID> liveAllocations = allocationIds(liveEntry);
+        assertThat(deletedAllocations).isEmpty();
+
+        assertThat(participantEntryAmountService.getParticipantEntryAmountsByParticipant(alice.getId()))
+                .extracting(ParticipantEntryAmountResponse::instanceFieldValueId)
+                .containsExactly(liveEntry.getId());
+
+        List<UUID> pagedFieldValueIds = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPageResponse<ParticipantEntryAmountResponse> page =
+                    participantEntryAmountService.getParticipantEntryAmountPage(cursor, null);
+            page.items().forEach(pea -> pagedFieldValueIds.add(pea.instanceFieldValueId()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        assertThat(pagedFieldValueIds).contains(liveEntry.getId()).doesNotContain(deletedEntry.getId());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        bulkReadService.streamParticipantEntryAmounts(out);
+        String streamed = out.toString(StandardCharsets.UTF_8);
+        assertThat(streamed).contains(liveAllocations.getFirst().toString()).doesNotContain(deletedEntry.getId().toString());
+    }
+
+    @Test
+    void editsToDeletedInstanceAreNotFound() {
+        assertThatThrownBy(() -> instanceService.addFieldValue(deleted.getId(), entry("10.00")))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> instanceService.updateFieldValueAmount(deletedEntry.getId(), new BigDecimal("60.00"), null))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> instanceService.deleteFieldValue(deletedEntry.getId()))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> participantEntryAmountService.createParticipantEntryAmount(
+                deletedEntry.getId(), alice.getId(), new BigDecimal("5.00")))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> participantEntryAmountService.deleteAllParticipantEntryAmountsByFieldValue(deletedEntry.getId()))
+                .isInstanceOf(ResourceNotFoundException.class);
+
+        // Removing a participant's allocations skips the deleted instance instead of failing on it
+        participantEntryAmountService.deleteAllParticipantEntryAmountsByParticipant(alice.getId());
+        assertThat(allocationIds(liveEntry)).hasSize(1);
+    }
+
+    @Test
+    void templateWideReadsSkipDeletedInstances() throws IOException {
+        TemplateInstance settled = instanceService.createInstance(template.getId(), "May");
+        instanceService.addFieldValue(settled.getId(), entry("20.00"));
+        instanceService.markInstanceAsSettled(settled.getId());
+        instanceService.deleteInstance(settled.getId());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ledgerExportService.exportTemplate(template.getId(), ExportFormat.NDJSON, out);
+        String exported = out.toString(StandardCharsets.UTF_8);
+        assertThat(exported).contains(liveEntry.getId().toString())
+                .doesNotContain(deleted.getId().toString())
+                .doesNotContain(settled.getId().toString());
+
+        assertThat(instanceService.getSettledSummariesByTemplate(template.getId())).isEmpty();
+        assertThat(archiveService.findArchivableInstanceIds(LocalDateTime.now().plusDays(1), 1000))
+                .doesNotContain(settled.getId());
+    }
+
+    @Test
+    void configurationOfDeletedTemplateIsNotFound() {
+        SplitRule evenSplit = templateService.getSplitRulesByTemplate(template.getId()).getFirst();
+        SplitRuleAllocation aliceShare = templateService.getAllocationsForRule(evenSplit.getId()).getFirst();
+        // Read before the delete, so the lists and rows are in the second-level cache
+        assertThat(templateService.getParticipantsByTemplate(template.getId())).hasSize(2);
+        assertThat(templateService.getFieldsByTemplate(template.getId())).hasSize(1);
+        templateService.getParticipantById(alice.getId());
+        templateService.getFieldById(groceries.getId());
+
+        templateService.deleteTemplate(template.getId());
+
+        assertThatThrownBy(() -> templateService.getParticipantsByTemplate(template.getId()))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> templateService.getSplitRulesByTemplate(template.getId()))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> templateService.getFieldsByTemplate(template.getId()))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> templateService.getAllocationsForRule(evenSplit.getId()))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> templateService.getParticipantById(alice.getId()))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> templateService.getSplitRuleById(evenSplit.getId()))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> templateService.getFieldById(groceries.getId()))
+                .isInstanceOf(ResourceNotFoundException.class);
+
+        assertThatThrownBy(() -> templateService.renameParticipant(alice.getId(), "Alicia"))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> templateService.renameField(groceries.getId(), "Food"))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> templateService.addAllocationToRule(evenSplit.getId(), bob.getId(), new BigDecimal("10")))
+                .isInstanceOf(ResourceNotFoundException.class);
+
+        // Deletes of rows the template took with it do nothing; the purge worker removes them
+        templateService.deleteAllocation(aliceShare.getId());
+        templateService.deleteField(groceries.getId());
+        templateService.deleteSplitRule(evenSplit.getId());
+        templateService.deleteParticipant(bob.getId());
+        assertThat(countRows("template_participant")).isEqualTo(2);
+        assertThat(countRows("template_field")).isEqualTo(1);
+        assertThat(countRows("split_rule")).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM split_rule_allocation WHERE split_rule_id = ?", Integer.class, evenSplit.getId()))
+                .isEqualTo(2);
+    }
+
+    private int countRows(String table) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM " + table + " WHERE template_id = ?",
+                Integer.class, template.getId());
+    }
+
+    private List<UUID> allocationIds(InstanceFieldValue fieldValue) {
+        return participantEntryAmountService.getParticipantEntryAmountsByFieldValue(fieldValue.getId()).stream()
+                .map(ParticipantEntryAmountResponse::id)
+                .toList();
+    }
+
+    private AddFieldValueRequest entry(String amount) {
+        AddFieldValueRequest request = new AddFieldValueRequest();
+        request.setTemplateFieldId(groceries.getId());
+        request.setAmount(new BigDecimal(amount));
+        request.setSplitMode(SplitMode.TEMPLATE_FIELD_PERCENT_SPLIT);
+        request.setPayerParticipantId(bob.getId());
+        return request;
+    }
+}
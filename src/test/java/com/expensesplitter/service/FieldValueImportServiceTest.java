@@ -0,0 +1,114 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.dto.FieldValueImportError;
+import com.expensesplitter.dto.FieldValueImportResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FieldValueImportServiceTest {
+
+    private static final UUID INSTANCE_ID = UUID.randomUUID();
+
+    @Mock
+    private InstanceService instanceService;
+
+    // Two rows per chunk: lines 1-2 and 3-4 are chunks of their own
+    private FieldValueImportService importService() {
+        return new FieldValueImportService(instanceService, JsonMapper.builder().build(), 2, 1000);
+    }
+
+    @Test
+    void chunkFailureReportsCommittedRowsAndWhereToResume() {
+        when(instanceService.importFieldValues(eq(INSTANCE_ID), anyList()))
+                .thenReturn(List.of(new FieldValueImportError(2, "Amount must be greater than zero")))
+                .thenThrow(new ApiException("Instance is settled", "INSTANCE_SETTLED", 409));
+
+        assertThatThrownBy(() -> importService().importFieldValues(INSTANCE_ID,
+                FieldValueImportService.APPLICATION_NDJSON, ndjson(5)))
+                .isInstanceOfSatisfying(FieldValueImportAbortedException.class, e -> {
+                    assertThat(e.getHttpStatus()).isEqualTo(409);
+                    assertThat(e.getErrorCode()).isEqualTo("IMPORT_ABORTED");
+                    FieldValueImportResponse report = e.getReport();
+                    assertThat(report.aborted()).isTrue();
+                    assertThat(report.firstUnimportedLine()).isEqualTo(3L);
+                    assertThat(report.totalRows()).isEqualTo(2);
+                    assertThat(report.importedRows()).isEqualTo(1);
+                    assertThat(report.failedRows()).isEqualTo(1);
+                    assertThat(report.errors()).extracting(FieldValueImportError::line).containsExactly(2L);
+                });
+        verify(instanceService, times(2)).importFieldValues(eq(INSTANCE_ID), anyList());
+    }
+
+    @Test
+    void droppedBodyReportsWhereToResume() {
+        when(instanceService.importFieldValues(eq(INSTANCE_ID), anyList())).thenReturn(List.of());
+        InputStream dropped = new SequenceInputStream(ndjson(3), new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Connection reset");
+            }
+        });
+
+        assertThatThrownBy(() -> importService().importFieldValues(INSTANCE_ID,
+                FieldValueImportService.APPLICATION_NDJSON, dropped))
+                .isInstanceOfSatisfying(FieldValueImportAbortedException.class, e -> {
+                    assertThat(e.getHttpStatus()).isEqualTo(500);
+                    assertThat(e.getCause()).isInstanceOf(UncheckedIOException.class);
+                    assertThat(e.getReport().firstUnimportedLine()).isEqualTo(3L);
+                    assertThat(e.getReport().importedRows()).isEqualTo(2);
+                });
+    }
+
+    // Nothing was committed, so the file can be sent again as it is
+    @Test
+    void failureBeforeAnyChunkCommitsIsRethrown() {
+        OptimisticLockingFailureException conflict = new OptimisticLockingFailureException("Instance changed");
+        when(instanceService.importFieldValues(eq(INSTANCE_ID), anyList())).thenThrow(conflict);
+
+        assertThatThrownBy(() -> importService().importFieldValues(INSTANCE_ID,
+                FieldValueImportService.APPLICATION_NDJSON, ndjson(5)))
+                .isSameAs(conflict);
+    }
+
+    @Test
+    void completeImportIsNotAborted() {
+        when(instanceService.importFieldValues(eq(INSTANCE_ID), anyList())).thenReturn(List.of());
+
+        FieldValueImportResponse report = importService().importFieldValues(INSTANCE_ID,
+                FieldValueImportService.APPLICATION_NDJSON, ndjson(5));
+
+        assertThat(report.aborted()).isFalse();
+        assertThat(report.firstUnimportedLine()).isNull();
+        assertThat(report.importedRows()).isEqualTo(5);
+    }
+
+    private static InputStream ndjson(int rows) {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < rows; i++) {
+            body.append("{\"templateFieldId\":\"").append(UUID.randomUUID()).append("\",\"amount\":10}\n");
+        }
+        return new ByteArrayInputStream(body.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,50 @@
+package com.expensesplitter.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InstanceArchiveWorkerTest {
+
+    @Mock
+    private InstanceArchiveService archiveService;
+
+    @Test
+    void archivesBatchesUntilNothingIsLeft() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(archiveService.findArchivableInstanceIds(any(), anyInt()))
+                .thenReturn(List.of(first)).thenReturn(List.of(second)).thenReturn(List.of());
+
+        new InstanceArchiveWorker(archiveService, 30).archive();
+
+        verify(archiveService).archiveInstance(eq(first), any());
+        verify(archiveService).archiveInstance(eq(second), any());
+        verify(archiveService, times(3)).findArchivableInstanceIds(any(), anyInt());
+    }
+
+    @Test
+    void stopsUntilTheNextRunWhenAnInstanceChangesWhileBeingArchived() {
+        UUID changed = UUID.randomUUID();
+        when(archiveService.findArchivableInstanceIds(any(), anyInt())).thenReturn(List.of(changed, UUID.randomUUID()));
+        doThrow(new OptimisticLockingFailureException("changed"))
+                .when(archiveService).archiveInstance(eq(changed), any(LocalDateTime.class));
+
+        new InstanceArchiveWorker(archiveService, 30).archive();
+
+        verify(archiveService).findArchivableInstanceIds(any(), anyInt());
+        verify(archiveService).archiveInstance(any(), any());
+    }
+}
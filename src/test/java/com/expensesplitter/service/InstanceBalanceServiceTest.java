@@ -0,0 +1,137 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.dto.ParticipantTotalsResponse;
+import com.expensesplitter.repository.InstanceFieldValueRepository;
+import com.expensesplitter.repository.InstanceParticipantBalanceRepository;
+import com.expensesplitter.repository.ParticipantAmountTotal;
+import com.expensesplitter.repository.ParticipantBalanceTotal;
+import com.expensesplitter.repository.ParticipantEntryAmountRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InstanceBalanceServiceTest {
+
+    @Mock
+    private InstanceParticipantBalanceRepository balanceRepository;
+    @Mock
+    private ParticipantEntryAmountRepository participantEntryAmountRepository;
+    @Mock
+    private InstanceFieldValueRepository fieldValueRepository;
+
+    @InjectMocks
+    private InstanceBalanceService service;
+
+    private final UUID instanceId = UUID.randomUUID();
+    private final UUID alice = UUID.randomUUID();
+    private final UUID bob = UUID.randomUUID();
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 400, 5000})
+    void instanceTotalsUseOneLedgerLookupRegardlessOfEntryCount(int entryCount) {
+        // Each entry of 10.00 is split evenly and paid by alice
+        BigDecimal half = new BigDecimal("5.00").multiply(BigDecimal.valueOf(entryCount));
+        BigDecimal whole = new BigDecimal("10.00").multiply(BigDecimal.valueOf(entryCount));
+        when(balanceRepository.findTotalsByInstanceId(instanceId)).thenReturn(List.of(
+                balance(alice, half, whole, entryCount, entryCount),
+                balance(bob, half, BigDecimal.ZERO, entryCount, 0)));
+
+        ParticipantTotalsResponse totals = service.getInstanceTotals(instanceId);
+
+        verify(balanceRepository, times(1)).findTotalsByInstanceId(instanceId);
+        verifyNoMoreInteractions(balanceRepository);
+        verifyNoInteractions(participantEntryAmountRepository, fieldValueRepository);
+
+        assertThat(totals.hasPayers()).isTrue();
+        assertThat(totals.paid()).containsOnlyKeys(alice);
+        assertThat(totals.net().get(alice)).isEqualByComparingTo(half.subtract(whole));
+        assertThat(totals.net().get(bob)).isEqualByComparingTo(half);
+    }
+
+    @Test
+    void participantsWithoutRemainingEntriesAreLeftOut() {
+        when(balanceRepository.findTotalsByInstanceId(instanceId)).thenReturn(List.of(
+                balance(alice, new BigDecimal("30.00"), BigDecimal.ZERO, 3, 0),
+                balance(bob, BigDecimal.ZERO, BigDecimal.ZERO, 0, 0)));
+
+        ParticipantTotalsResponse totals = service.getInstanceTotals(instanceId);
+
+        assertThat(totals.hasPayers()).isFalse();
+        assertThat(totals.shares()).containsOnlyKeys(alice);
+        assertThat(totals.paid()).isEmpty();
+        assertThat(totals.net()).isEmpty();
+    }
+
+    @Test
+    void applyAppendsNetDeltasAndSkipsNoOps() {
+        BalanceChanges changes = new BalanceChanges();
+        changes.addShare(bob, new BigDecimal("4.00"), 1);
+        changes.addShare(alice, new BigDecimal("6.00"), 1);
+        changes.addPaid(alice, new BigDecimal("10.00"), 1);
+        // bob's share is edited back to where it was
+        changes.addShare(bob, new BigDecimal("-4.00"), -1);
+
+        service.apply(instanceId, changes);
+
+        verify(balanceRepository).appendDelta(instanceId, alice, new BigDecimal("6.00"), new BigDecimal("10.00"), 1, 1);
+        verify(balanceRepository, never()).appendDelta(eq(instanceId), eq(bob), any(), any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void rebuildReplacesLedgerFromAggregates() {
+        when(participantEntryAmountRepository.sumSharesByInstanceId(instanceId))
+                .thenReturn(List.of(total(alice, new BigDecimal("7.50"), 2), total(bob, new BigDecimal("2.50"), 1)));
+        when(fieldValueRepository.sumPaidByInstanceId(instanceId))
+                .thenReturn(List.of(total(alice, new BigDecimal("10.00"), 2)));
+
+        service.rebuild(instanceId);
+
+        InOrder inOrder = inOrder(balanceRepository);
+        inOrder.verify(balanceRepository).deleteByInstanceId(instanceId);
+        inOrder.verify(balanceRepository).deleteDeltasByInstanceId(instanceId);
+        inOrder.verify(balanceRepository).appendDelta(instanceId, alice, new BigDecimal("7.50"), new BigDecimal("10.00"), 2, 2);
+        inOrder.verify(balanceRepository).foldDeltas(instanceId);
+        inOrder.verify(balanceRepository).findTotalsByInstanceId(instanceId);
+        verify(balanceRepository).appendDelta(instanceId, bob, new BigDecimal("2.50"), BigDecimal.ZERO, 1, 0);
+    }
+
+    private static ParticipantBalanceTotal balance(UUID participantId, BigDecimal share, BigDecimal paid,
+                                                   int shareCount, int paidCount) {
+        return new ParticipantBalanceTotal(participantId, share, paid, shareCount, paidCount);
+    }
+
+    private static ParticipantAmountTotal total(UUID participantId, BigDecimal amount, long entryCount) {
+        return new ParticipantAmountTotal() {
+            @Override
+            public UUID getParticipantId() {
+                return participantId;
+            }
+
+            @Override
+            public BigDecimal getTotal() {
+                return amount;
+            }
+
+            @Override
+            public long getEntryCount() {
+                return entryCount;
+            }
+        };
+    }
+}
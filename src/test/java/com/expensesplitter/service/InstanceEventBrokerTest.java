@@ -0,0 +1,68 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.enums.InstanceEventType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InstanceEventBrokerTest {
+
+    // Tasks are only run when the test says so, which makes every subscriber a slow one
+    private final Deque<Runnable> tasks = new ArrayDeque<>();
+    private final UUID instanceId = UUID.randomUUID();
+    private InstanceEventBroker broker;
+
+    @BeforeEach
+    void setUp() {
+        broker = new InstanceEventBroker(tasks::add, 2, 60_000);
+    }
+
+    @Test
+    void eventsBufferedWhileSendingShareOneSender() {
+        broker.subscribe(instanceId);
+
+        broker.onInstanceChanged(balancesChanged(instanceId));
+        broker.onInstanceChanged(balancesChanged(instanceId));
+        assertThat(tasks).hasSize(1);
+
+        // Once the sender has drained the buffer, the next event starts a new one
+        tasks.poll().run();
+        broker.onInstanceChanged(balancesChanged(instanceId));
+        assertThat(tasks).hasSize(1);
+    }
+
+    @Test
+    void subscriberIsDroppedOnceItsBufferIsFull() {
+        broker.subscribe(instanceId);
+
+        broker.onInstanceChanged(balancesChanged(instanceId));
+        broker.onInstanceChanged(balancesChanged(instanceId));
+        broker.onInstanceChanged(balancesChanged(instanceId));
+        // The pending sender and the task that completes the dropped stream
+        assertThat(tasks).hasSize(2);
+
+        broker.onInstanceChanged(balancesChanged(instanceId));
+        broker.sendHeartbeats();
+        assertThat(tasks).hasSize(2);
+    }
+
+    @Test
+    void eventsOnlyReachSubscribersOfTheirInstance() {
+        broker.subscribe(instanceId);
+
+        broker.onInstanceChanged(balancesChanged(UUID.randomUUID()));
+        assertThat(tasks).isEmpty();
+    }
+
+    private static InstanceChangedEvent balancesChanged(UUID instanceId) {
+        BalanceChanges changes = new BalanceChanges();
+        changes.addShare(UUID.randomUUID(), BigDecimal.TEN, 1);
+        return new InstanceChangedEvent(instanceId, InstanceEventType.BALANCES_CHANGED, null, changes);
+    }
+}
@@ -0,0 +1,34 @@
+package com.expensesplitter.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+    @Test
+    void encodedCursorDecodesToSamePosition() {
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2026, 3, 1, 12, 30, 5, 123_456_000), UUID.randomUUID());
+
+        String encoded = cursor.encode();
+
+        assertThat(encoded).matches("[A-Za-z0-9_-]+");
+        assertThat(KeysetCursor.decode(encoded)).isEqualTo(cursor);
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThatThrownBy(() -> KeysetCursor.decode("not a cursor"))
+                .isInstanceOf(ValidationException.class)
+                .hasMessage("Invalid cursor");
+        assertThatThrownBy(() -> KeysetCursor.decode("bm8tc2VwYXJhdG9y"))
+                .isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode(new KeysetCursor(LocalDateTime.now(), UUID.randomUUID())
+                .encode().substring(4)))
+                .isInstanceOf(ValidationException.class);
+    }
+}
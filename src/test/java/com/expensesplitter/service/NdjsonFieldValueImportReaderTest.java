@@ -0,0 +1,39 @@
+package com.expensesplitter.service;
+
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NdjsonFieldValueImportReaderTest {
+
+    @Test
+    void readsOneRequestPerLineAndReportsMalformedLines() throws IOException {
+        UUID field = UUID.randomUUID();
+        String ndjson = "{\"templateFieldId\":\"" + field + "\",\"amount\":12.5,\"entryDate\":\"2026-03-01\"}\n"
+                + "\n"
+                + "{\"templateFieldId\": oops}\n"
+                + "{\"templateFieldId\":\"" + field + "\",\"amount\":3}";
+
+        List<FieldValueImportRow> rows = new ArrayList<>();
+        try (NdjsonFieldValueImportReader reader = new NdjsonFieldValueImportReader(
+                new StringReader(ndjson), JsonMapper.builder().build().reader())) {
+            FieldValueImportRow row;
+            while ((row = reader.next()) != null) {
+                rows.add(row);
+            }
+        }
+
+        assertThat(rows).extracting(FieldValueImportRow::line).containsExactly(1L, 3L, 4L);
+        assertThat(rows.get(0).request().getAmount()).isEqualByComparingTo("12.5");
+        assertThat(rows.get(0).request().getTemplateFieldId()).isEqualTo(field);
+        assertThat(rows.get(1).error()).startsWith("Invalid JSON");
+        assertThat(rows.get(2).request().getAmount()).isEqualByComparingTo("3");
+    }
+}
@@ -0,0 +1,122 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.PostgresIntegrationTest;
+import com.expensesplitter.dto.AddFieldValueRequest;
+import com.expensesplitter.dto.ParticipantTotalsResponse;
+import com.expensesplitter.entity.Template;
+import com.expensesplitter.entity.TemplateField;
+import com.expensesplitter.entity.TemplateInstance;
+import com.expensesplitter.entity.TemplateParticipant;
+import com.expensesplitter.enums.FieldType;
+import com.expensesplitter.enums.SplitMode;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the SQL statements Hibernate prepares for the totals reads and for one more entry, at
+ * several entry counts. Both must cost the same whether the instance has one entry or hundreds.
+ */
+class ParticipantEntryAmountServiceTest extends PostgresIntegrationTest {
+
+    private static final int[] ENTRY_COUNTS = {1, 10, 100};
+
+    @Autowired
+    private TemplateService templateService;
+
+    @Autowired
+    private InstanceService instanceService;
+
+    @Autowired
+    private ParticipantEntryAmountService participantEntryAmountService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private TemplateParticipant alice;
+    private TemplateParticipant bob;
+    private TemplateField groceries;
+    private TemplateInstance instance;
+
+    @BeforeEach
+    void setUp() {
+        // Entries are split by fixed amounts, so no rule change starts a re-allocation job mid-count
+        Template template = templateService.createTemplate(UUID.randomUUID(), "Flat", null);
+        alice = templateService.addParticipant(template.getId(), "Alice", 0);
+        bob = templateService.addParticipant(template.getId(), "Bob", 1);
+        groceries = templateService.addField(template.getId(), "Groceries", FieldType.SINGLE, null, 0, null, null);
+        instance = instanceService.createInstance(template.getId(), "March");
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    void disableStatistics() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    void statementCountDoesNotGrowWithEntryCount() {
+        Map<Integer, Long> totalsStatements = new LinkedHashMap<>();
+        Map<Integer, Long> participantStatements = new LinkedHashMap<>();
+        Map<Integer, Long> appendStatements = new LinkedHashMap<>();
+
+        int entries = 0;
+        for (int target : ENTRY_COUNTS) {
+            while (entries < target - 1) {
+                instanceService.addFieldValue(instance.getId(), entry());
+                entries++;
+            }
+            appendStatements.put(target, countStatements(() -> instanceService.addFieldValue(instance.getId(), entry())));
+            entries++;
+
+            ParticipantTotalsResponse[] totals = new ParticipantTotalsResponse[1];
+            totalsStatements.put(target, countStatements(() ->
+                    totals[0] = participantEntryAmountService.getInstanceTotals(instance.getId())));
+            BigDecimal[] bobShare = new BigDecimal[1];
+            participantStatements.put(target, countStatements(() ->
+                    bobShare[0] = participantEntryAmountService.getTotalAmountForParticipantInInstance(instance.getId(), bob.getId())));
+
+            // Each entry of 10.00 is paid by Alice and split 4.00 / 6.00
+            assertThat(totals[0].paid().get(alice.getId())).isEqualByComparingTo(BigDecimal.TEN.multiply(BigDecimal.valueOf(target)));
+            assertThat(totals[0].shares().get(alice.getId())).isEqualByComparingTo(new BigDecimal("4.00").multiply(BigDecimal.valueOf(target)));
+            assertThat(bobShare[0]).isEqualByComparingTo(new BigDecimal("6.00").multiply(BigDecimal.valueOf(target)));
+        }
+
+        assertThat(totalsStatements.values()).as("totals statements by entry count %s", totalsStatements)
+                .containsOnly(totalsStatements.get(1)).allSatisfy(count -> assertThat(count).isLessThanOrEqualTo(2));
+        assertThat(participantStatements.values()).as("participant total statements by entry count %s", participantStatements)
+                .containsOnly(1L);
+        assertThat(appendStatements.values()).as("append statements by entry count %s", appendStatements)
+                .containsOnly(appendStatements.get(1));
+    }
+
+    private long countStatements(Runnable action) {
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private AddFieldValueRequest entry() {
+        AddFieldValueRequest request = new AddFieldValueRequest();
+        request.setTemplateFieldId(groceries.getId());
+        request.setAmount(new BigDecimal("10.00"));
+        request.setSplitMode(SplitMode.FIELD_VALUE_FIXED_AMOUNTS);
+        request.setParticipantAmounts(Map.of(alice.getId(), new BigDecimal("4.00"), bob.getId(), new BigDecimal("6.00")));
+        request.setPayerParticipantId(alice.getId());
+        return request;
+    }
+}
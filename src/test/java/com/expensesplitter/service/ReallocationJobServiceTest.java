@@ -0,0 +1,121 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.enums.ReallocationJobStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReallocationJobServiceTest {
+
+    @Mock
+    private InstanceService instanceService;
+    @Mock
+    private TemplateService templateService;
+
+    // Tasks are only run when the test says so
+    private final Deque<Runnable> tasks = new ArrayDeque<>();
+    private final UUID ruleId = UUID.randomUUID();
+    private ReallocationJobService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ReallocationJobService(instanceService, templateService, tasks::add, 2, 10);
+        lenient().when(templateService.splitRuleCoversFullAmount(ruleId)).thenReturn(true);
+    }
+
+    @Test
+    void reallocatesMatchingFieldValuesInChunks() {
+        List<UUID> ids = IntStream.range(0, 5).mapToObj(i -> UUID.randomUUID()).toList();
+        when(instanceService.getFieldValueIdsAllocatedByRule(ruleId)).thenReturn(ids);
+        when(instanceService.reallocateFieldValues(anyCollection(), eq(ruleId)))
+                .thenAnswer(invocation -> invocation.<List<UUID>>getArgument(0).size());
+
+        ReallocationJob job = service.submit(ruleId);
+        assertThat(job.getStatus()).isEqualTo(ReallocationJobStatus.QUEUED);
+        tasks.poll().run();
+
+        verify(instanceService).reallocateFieldValues(ids.subList(0, 2), ruleId);
+        verify(instanceService).reallocateFieldValues(ids.subList(2, 4), ruleId);
+        verify(instanceService).reallocateFieldValues(ids.subList(4, 5), ruleId);
+        assertThat(job.getStatus()).isEqualTo(ReallocationJobStatus.COMPLETED);
+        assertThat(job.getTotalFieldValues()).isEqualTo(5);
+        assertThat(job.getProcessedFieldValues()).isEqualTo(5);
+        assertThat(job.getReallocatedFieldValues()).isEqualTo(5);
+    }
+
+    @Test
+    void changesWhileAJobRunsCollapseIntoOneFollowUpJob() {
+        when(instanceService.getFieldValueIdsAllocatedByRule(ruleId)).thenReturn(List.of());
+
+        ReallocationJob running = service.submit(ruleId);
+        ReallocationJob followUp = service.submit(ruleId);
+        assertThat(service.submit(ruleId)).isSameAs(followUp);
+        assertThat(tasks).hasSize(1);
+
+        // The follow-up is dispatched once the running job finishes
+        tasks.poll().run();
+        assertThat(running.getStatus()).isEqualTo(ReallocationJobStatus.COMPLETED);
+        assertThat(tasks).hasSize(1);
+        tasks.poll().run();
+        assertThat(followUp.getStatus()).isEqualTo(ReallocationJobStatus.COMPLETED);
+        assertThat(service.getJobsForSplitRule(ruleId)).containsExactlyInAnyOrder(running, followUp);
+    }
+
+    @Test
+    void incompleteRuleIsSkippedUntilAnEditCompletesIt() {
+        when(templateService.splitRuleCoversFullAmount(ruleId)).thenReturn(false);
+
+        ReallocationJob skipped = service.submit(ruleId);
+        tasks.poll().run();
+
+        assertThat(skipped.getStatus()).isEqualTo(ReallocationJobStatus.SKIPPED);
+        assertThat(skipped.isFinished()).isTrue();
+        verify(instanceService, never()).getFieldValueIdsAllocatedByRule(any());
+        verify(instanceService, never()).reallocateFieldValues(anyCollection(), any());
+
+        // The edit that brings the rule back to 100% starts a run that re-allocates
+        UUID fieldValueId = UUID.randomUUID();
+        when(templateService.splitRuleCoversFullAmount(ruleId)).thenReturn(true);
+        when(instanceService.getFieldValueIdsAllocatedByRule(ruleId)).thenReturn(List.of(fieldValueId));
+        when(instanceService.reallocateFieldValues(List.of(fieldValueId), ruleId)).thenReturn(1);
+
+        service.onSplitRuleChanged(new SplitRuleChangedEvent(ruleId));
+        ReallocationJob completed = service.getJobsForSplitRule(ruleId).stream()
+                .filter(job -> job != skipped)
+                .findFirst()
+                .orElseThrow();
+        tasks.poll().run();
+
+        assertThat(completed.getStatus()).isEqualTo(ReallocationJobStatus.COMPLETED);
+        assertThat(completed.getReallocatedFieldValues()).isEqualTo(1);
+    }
+
+    @Test
+    void failedChunkMarksTheJobFailed() {
+        when(instanceService.getFieldValueIdsAllocatedByRule(ruleId)).thenReturn(List.of(UUID.randomUUID()));
+        when(instanceService.reallocateFieldValues(anyCollection(), any()))
+                .thenThrow(new IllegalStateException("connection lost"));
+
+        ReallocationJob job = service.submit(ruleId);
+        tasks.poll().run();
+
+        assertThat(job.getStatus()).isEqualTo(ReallocationJobStatus.FAILED);
+        assertThat(job.getError()).isEqualTo("connection lost");
+        assertThat(service.getJob(job.getId())).isSameAs(job);
+    }
+}
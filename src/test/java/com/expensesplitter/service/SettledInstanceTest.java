@@ -0,0 +1,181 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.PostgresIntegrationTest;
+import com.expensesplitter.dto.AddFieldValueRequest;
+import com.expensesplitter.dto.ParticipantTotalsResponse;
+import com.expensesplitter.entity.InstanceFieldValue;
+import com.expensesplitter.entity.ParticipantEntryAmount;
+import com.expensesplitter.entity.SplitRule;
+import com.expensesplitter.entity.Template;
+import com.expensesplitter.entity.TemplateField;
+import com.expensesplitter.entity.TemplateInstance;
+import com.expensesplitter.entity.TemplateParticipant;
+import com.expensesplitter.enums.FieldType;
+import com.expensesplitter.enums.SplitMode;
+import com.expensesplitter.repository.InstanceSettlementSummaryRepository;
+import org.assertj.core.api.ThrowableAssert.ThrowingCallable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SettledInstanceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private TemplateService templateService;
+
+    @Autowired
+    private InstanceService instanceService;
+
+    @Autowired
+    private ParticipantEntryAmountService participantEntryAmountService;
+
+    @Autowired
+    private InstanceSettlementSummaryRepository settlementSummaryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TemplateParticipant alice;
+    private TemplateParticipant bob;
+    private SplitRule evenSplit;
+    private TemplateField groceries;
+    private TemplateInstance instance;
+    private InstanceFieldValue fieldValue;
+
+    @BeforeEach
+    void createSettledInstance() {
+        Template template = templateService.createTemplate(UUID.randomUUID(), "Flat", null);
+        alice = templateService.addParticipant(template.getId(), "Alice", 0);
+        bob = templateService.addParticipant(template.getId(), "Bob", 1);
+        evenSplit = templateService.createSplitRule(template.getId(), "Even");
+        templateService.addAllocationToRule(evenSplit.getId(), alice.getId(), new BigDecimal("50"));
+        templateService.addAllocationToRule(evenSplit.getId(), bob.getId(), new BigDecimal("50"));
+        groceries = templateService.addField(template.getId(), "Groceries", FieldType.SINGLE, evenSplit.getId(), 0, null, null);
+
+        instance = instanceService.createInstance(template.getId(), "March");
+        fieldValue = instanceService.addFieldValue(instance.getId(), entry("40.00"));
+        instanceService.markInstanceAsSettled(instance.getId());
+    }
+
+    @Test
+    void entryEditsOnSettledInstanceAreRejected() {
+        UUID fieldValueId = fieldValue.getId();
+
+        assertSettledConflict(() -> instanceService.addFieldValue(instance.getId(), entry("10.00")));
+        assertSettledConflict(() -> instanceService.importFieldValues(instance.getId(),
+                List.of(FieldValueImportRow.of(1, entry("10.00")))));
+        assertSettledConflict(() -> instanceService.updateFieldValue(fieldValueId, new BigDecimal("60.00"), null,
+                null, SplitMode.TEMPLATE_FIELD_PERCENT_SPLIT, null, null, alice.getId(), null));
+        assertSettledConflict(() -> instanceService.updateFieldValueAmount(fieldValueId, new BigDecimal("60.00"), null));
+        assertSettledConflict(() -> instanceService.updateFieldValueSplitRule(fieldValueId, evenSplit.getId(), null));
+        assertSettledConflict(() -> instanceService.deleteFieldValue(fieldValueId));
+
+        assertThat(instanceService.getFieldValuePage(instance.getId(), null, null, null, null, null, null).items())
+                .filteredOn(value -> value.id().equals(fieldValueId))
+                .singleElement()
+                .satisfies(value -> assertThat(value.amount()).isEqualByComparingTo("40.00"));
+    }
+
+    @Test
+    void allocationEditsOnSettledInstanceAreRejected() {
+        UUID fieldValueId = fieldValue.getId();
+        ParticipantEntryAmount aliceShare = participantEntryAmountService.getParticipantEntryAmountsByFieldValue(fieldValueId)
+                .stream()
+                .filter(allocation -> allocation.templateParticipantId().equals(alice.getId()))
+                .map(allocation -> participantEntryAmountService.getParticipantEntryAmountById(allocation.id()))
+                .findFirst()
+                .orElseThrow();
+
+        assertSettledConflict(() -> participantEntryAmountService.createParticipantEntryAmount(
+                fieldValueId, alice.getId(), new BigDecimal("5.00")));
+        assertSettledConflict(() -> participantEntryAmountService.updateParticipantEntryAmount(
+                aliceShare.getId(), new BigDecimal("30.00")));
+        assertSettledConflict(() -> participantEntryAmountService.deleteParticipantEntryAmount(aliceShare.getId()));
+        assertSettledConflict(() -> participantEntryAmountService.deleteAllParticipantEntryAmountsByFieldValue(fieldValueId));
+        assertSettledConflict(() -> participantEntryAmountService.deleteAllParticipantEntryAmountsByParticipant(bob.getId()));
+
+        assertThat(participantEntryAmountService.getInstanceTotals(instance.getId()).shares().get(alice.getId()))
+                .isEqualByComparingTo("20.00");
+    }
+
+    @Test
+    void settlingFreezesTheTotalsInASummary() {
+        assertThat(settlementSummaryRepository.findById(instance.getId())).isPresent();
+
+        ParticipantTotalsResponse totals = instanceService.getInstanceTotals(instance.getId());
+        assertThat(totals.shares().get(alice.getId())).isEqualByComparingTo("20.00");
+        assertThat(totals.shares().get(bob.getId())).isEqualByComparingTo("20.00");
+        assertThat(totals.paid().get(bob.getId())).isEqualByComparingTo("40.00");
+        assertThat(instanceService.getInstanceSummary(instance.getId()).fieldTotals())
+                .singleElement()
+                .satisfies(field -> assertThat(field.total()).isEqualByComparingTo("40.00"));
+    }
+
+    @Test
+    void settlingAgainIsRejected() {
+        LocalDateTime settledAt = settlementSummaryRepository.findById(instance.getId()).orElseThrow().getSettledAt();
+
+        assertSettledConflict(() -> instanceService.markInstanceAsSettled(instance.getId()));
+
+        assertThat(settlementSummaryRepository.findById(instance.getId()).orElseThrow().getSettledAt()).isEqualTo(settledAt);
+    }
+
+    @Test
+    void settledReadsComeFromTheSummaryUntilReopened() {
+        ParticipantTotalsResponse settled = instanceService.getInstanceTotals(instance.getId());
+        // A ledger change that no request could make: only a read of the ledger would see it
+        jdbcTemplate.update("INSERT INTO instance_participant_balance_delta (instance_id, template_participant_id, " +
+                "share_delta, paid_delta, share_entry_count_delta, paid_entry_count_delta) VALUES (?, ?, 100, 0, 1, 0)",
+                instance.getId(), alice.getId());
+
+        assertThat(instanceService.getInstanceTotals(instance.getId())).isEqualTo(settled);
+        assertThat(instanceService.getInstanceSummary(instance.getId()).totals().shares().get(alice.getId()))
+                .isEqualByComparingTo("20.00");
+        assertThat(instanceService.getSettledSummariesByTemplate(instance.getTemplate().getId()))
+                .singleElement()
+                .satisfies(summary -> assertThat(summary.totals().shares().get(alice.getId())).isEqualByComparingTo("20.00"));
+
+        instanceService.markInstanceAsInProgress(instance.getId());
+
+        assertThat(settlementSummaryRepository.findById(instance.getId())).isEmpty();
+        assertThat(instanceService.getSettledSummariesByTemplate(instance.getTemplate().getId())).isEmpty();
+        assertThat(instanceService.getInstanceTotals(instance.getId()).shares().get(alice.getId()))
+                .isEqualByComparingTo("120.00");
+    }
+
+    @Test
+    void reopenedInstanceAcceptsEditsAgain() {
+        instanceService.markInstanceAsInProgress(instance.getId());
+
+        InstanceFieldValue added = instanceService.addFieldValue(instance.getId(), entry("10.00"));
+
+        assertThat(instanceService.getFieldValuePage(instance.getId(), null, null, null, null, null, null).items())
+                .anySatisfy(value -> assertThat(value.id()).isEqualTo(added.getId()));
+    }
+
+    private AddFieldValueRequest entry(String amount) {
+        AddFieldValueRequest request = new AddFieldValueRequest();
+        request.setTemplateFieldId(groceries.getId());
+        request.setAmount(new BigDecimal(amount));
+        request.setSplitMode(SplitMode.TEMPLATE_FIELD_PERCENT_SPLIT);
+        request.setPayerParticipantId(bob.getId());
+        return request;
+    }
+
+    private static void assertSettledConflict(ThrowingCallable edit) {
+        assertThatThrownBy(edit)
+                .isInstanceOfSatisfying(ApiException.class, e -> {
+                    assertThat(e.getErrorCode()).isEqualTo("INSTANCE_SETTLED");
+                    assertThat(e.getHttpStatus()).isEqualTo(409);
+                });
+    }
+}
@@ -0,0 +1,64 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.dto.SettlementTransferResponse;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SettlementPlannerTest {
+
+    @Test
+    void debtorsPayCreditorsLargestFirst() {
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+        UUID carol = UUID.randomUUID();
+        Map<UUID, BigDecimal> net = Map.of(
+                alice, new BigDecimal("-90.00"),
+                bob, new BigDecimal("60.00"),
+                carol, new BigDecimal("30.00"));
+
+        List<SettlementTransferResponse> plan = SettlementPlanner.plan(net);
+
+        assertThat(plan).containsExactly(
+                new SettlementTransferResponse(bob, alice, new BigDecimal("60.00")),
+                new SettlementTransferResponse(carol, alice, new BigDecimal("30.00")));
+    }
+
+    @Test
+    void evenBalancesNeedNoTransfers() {
+        assertThat(SettlementPlanner.plan(Map.of(UUID.randomUUID(), new BigDecimal("0.00")))).isEmpty();
+        assertThat(SettlementPlanner.plan(Map.of())).isEmpty();
+    }
+
+    @Test
+    void planSettlesEveryBalanceWithFewerTransfersThanNonZeroBalances() {
+        Random random = new Random(7);
+        Map<UUID, BigDecimal> net = new HashMap<>();
+        long remaining = 0;
+        for (int i = 0; i < 2_000; i++) {
+            long cents = random.nextLong(-100_000, 100_000);
+            remaining -= cents;
+            net.put(UUID.randomUUID(), BigDecimal.valueOf(cents, 2));
+        }
+        net.put(UUID.randomUUID(), BigDecimal.valueOf(remaining, 2));
+
+        List<SettlementTransferResponse> plan = SettlementPlanner.plan(net);
+
+        Map<UUID, BigDecimal> after = new HashMap<>(net);
+        for (SettlementTransferResponse transfer : plan) {
+            after.merge(transfer.fromParticipantId(), transfer.amount().negate(), BigDecimal::add);
+            after.merge(transfer.toParticipantId(), transfer.amount(), BigDecimal::add);
+        }
+        assertThat(after.values()).allSatisfy(balance -> assertThat(balance).isZero());
+        // Each transfer clears at least one balance, and the last one clears two
+        long nonZeroBalances = net.values().stream().filter(balance -> balance.signum() != 0).count();
+        assertThat(plan).hasSizeLessThanOrEqualTo((int) nonZeroBalances - 1);
+    }
+}
@@ -0,0 +1,50 @@
+package com.expensesplitter.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SoftDeletePurgeWorkerTest {
+
+    @Mock
+    private SoftDeletePurgeService purgeService;
+
+    @Test
+    void purgesInstancesChunkByChunkBeforeTemplates() {
+        UUID instanceId = UUID.randomUUID();
+        UUID templateId = UUID.randomUUID();
+        when(purgeService.findDeletedInstanceIds(anyInt())).thenReturn(List.of(instanceId)).thenReturn(List.of());
+        when(purgeService.purgeInstanceChunk(instanceId, 50)).thenReturn(150, 90, 0);
+        when(purgeService.findPurgeableTemplateIds(anyInt())).thenReturn(List.of(templateId)).thenReturn(List.of());
+
+        new SoftDeletePurgeWorker(purgeService, 50, Integer.MAX_VALUE).purge();
+
+        InOrder inOrder = inOrder(purgeService);
+        inOrder.verify(purgeService, times(3)).purgeInstanceChunk(instanceId, 50);
+        inOrder.verify(purgeService).purgeTemplate(templateId);
+    }
+
+    @Test
+    void sleepsToStayWithinTheRowRate() {
+        UUID instanceId = UUID.randomUUID();
+        when(purgeService.findDeletedInstanceIds(anyInt())).thenReturn(List.of(instanceId)).thenReturn(List.of());
+        when(purgeService.purgeInstanceChunk(instanceId, 10)).thenReturn(20, 0);
+        when(purgeService.findPurgeableTemplateIds(anyInt())).thenReturn(List.of());
+
+        long started = System.nanoTime();
+        new SoftDeletePurgeWorker(purgeService, 10, 100).purge();
+
+        // 20 rows at 100 rows per second
+        assertThat(System.nanoTime() - started).isGreaterThanOrEqualTo(200_000_000L);
+    }
+}
@@ -0,0 +1,71 @@
+package com.expensesplitter.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SplitAllocatorTest {
+
+    @Test
+    void evenThreeWaySplitSumsToTotal() {
+        long[] shares = SplitAllocator.allocateByPercent(10_000, new long[]{3333, 3333, 3334});
+
+        assertThat(shares).containsExactly(3333, 3333, 3334);
+        assertThat(Arrays.stream(shares).sum()).isEqualTo(10_000);
+    }
+
+    @Test
+    void leftoverCentsGoToLargestRemaindersThenEarlierPositions() {
+        // 0.10 split 50/25/25 is exact; 0.01 split 50/50 has one leftover cent for the first participant
+        assertThat(SplitAllocator.allocateByPercent(10, new long[]{5000, 2500, 2500})).containsExactly(5, 3, 2);
+        assertThat(SplitAllocator.allocateByPercent(1, new long[]{5000, 5000})).containsExactly(1, 0);
+        assertThat(SplitAllocator.allocateByPercent(100, new long[]{1000, 4500, 4500})).containsExactly(10, 45, 45);
+    }
+
+    @Test
+    void randomFullRulesAlwaysSumExactly() {
+        Random random = new Random(7);
+        for (int run = 0; run < 1_000; run++) {
+            int participants = 1 + random.nextInt(50);
+            long[] basisPoints = new long[participants];
+            long remaining = SplitAllocator.FULL_PERCENT;
+            for (int i = 0; i < participants - 1; i++) {
+                basisPoints[i] = random.nextLong(remaining + 1);
+                remaining -= basisPoints[i];
+            }
+            basisPoints[participants - 1] = remaining;
+            long total = random.nextLong(1, 100_000_000);
+
+            long[] shares = SplitAllocator.allocateByPercent(total, basisPoints);
+
+            assertThat(Arrays.stream(shares).sum()).isEqualTo(total);
+            for (int i = 0; i < participants; i++) {
+                // Every share stays within one cent of its exact quota
+                double exact = (double) total * basisPoints[i] / SplitAllocator.FULL_PERCENT;
+                assertThat((double) shares[i]).isBetween(Math.floor(exact), Math.ceil(exact));
+            }
+        }
+    }
+
+    @Test
+    void partialRuleAllocatesItsRoundedPortion() {
+        // 33.33% of 100.01 is 33.333333 -> 33.33
+        assertThat(SplitAllocator.allocateByPercent(10_001, new long[]{3333})).containsExactly(3333);
+        // 50% of 0.03 is 0.015 -> rounded half up to 0.02, split 25/25
+        assertThat(SplitAllocator.allocateByPercent(3, new long[]{2500, 2500})).containsExactly(1, 1);
+    }
+
+    @Test
+    void convertsBetweenAmountsAndCents() {
+        assertThat(SplitAllocator.toCents(new BigDecimal("12.3"))).isEqualTo(1230);
+        assertThat(SplitAllocator.fromCents(1230)).isEqualByComparingTo("12.30");
+        assertThat(SplitAllocator.toBasisPoints(new BigDecimal("33.33"))).isEqualTo(3333);
+        assertThatThrownBy(() -> SplitAllocator.toCents(new BigDecimal("1.005")))
+                .isInstanceOf(ValidationException.class);
+    }
+}
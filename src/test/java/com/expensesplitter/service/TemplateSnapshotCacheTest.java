@@ -0,0 +1,68 @@
+package com.expensesplitter.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TemplateSnapshotCacheTest {
+
+    @Test
+    void compilesOncePerTemplateUntilInvalidated() {
+        TemplateSnapshotCache cache = new TemplateSnapshotCache(8);
+        AtomicInteger compiles = new AtomicInteger();
+        UUID templateId = UUID.randomUUID();
+
+        cache.get(templateId, id -> compile(id, compiles));
+        cache.get(templateId, id -> compile(id, compiles));
+        assertThat(compiles).hasValue(1);
+
+        cache.invalidate(templateId);
+        cache.get(templateId, id -> compile(id, compiles));
+        assertThat(compiles).hasValue(2);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedBeyondMaxSize() {
+        TemplateSnapshotCache cache = new TemplateSnapshotCache(2);
+        AtomicInteger compiles = new AtomicInteger();
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+
+        cache.get(first, id -> compile(id, compiles));
+        cache.get(second, id -> compile(id, compiles));
+        cache.get(first, id -> compile(id, compiles));
+        cache.get(third, id -> compile(id, compiles));
+        assertThat(compiles).hasValue(3);
+
+        // second was the least recently used and is compiled again
+        cache.get(first, id -> compile(id, compiles));
+        cache.get(second, id -> compile(id, compiles));
+        assertThat(compiles).hasValue(4);
+    }
+
+    @Test
+    void snapshotCompiledAcrossAnInvalidationIsNotCached() {
+        TemplateSnapshotCache cache = new TemplateSnapshotCache(8);
+        AtomicInteger compiles = new AtomicInteger();
+        UUID templateId = UUID.randomUUID();
+
+        cache.get(templateId, id -> {
+            // A template write lands while this snapshot is being compiled
+            cache.invalidate(id);
+            return compile(id, compiles);
+        });
+        cache.get(templateId, id -> compile(id, compiles));
+
+        assertThat(compiles).hasValue(2);
+    }
+
+    private static CompiledTemplate compile(UUID templateId, AtomicInteger compiles) {
+        compiles.incrementAndGet();
+        return new CompiledTemplate(templateId, Map.of(), Map.of(), Map.of());
+    }
+}
@@ -0,0 +1,59 @@
+-- Enough rows that the planner prefers an index wherever one fits. Ids are derived from the
+-- row's position so child rows can point at their parents without joins.
+INSERT INTO template (id, user_id, name, created_at)
+SELECT md5('t' || t)::uuid, md5('u' || t % 500)::uuid, 'Template ' || t, now() - t * interval '1 minute'
+FROM generate_series(1, 5000) t;
+
+INSERT INTO template_participant (id, template_id, name, display_order)
+SELECT md5('p' || t || '-' || k)::uuid, md5('t' || t)::uuid, 'Participant ' || k, k
+FROM generate_series(1, 5000) t, generate_series(1, 3) k;
+
+INSERT INTO split_rule (id, template_id, name)
+SELECT md5('r' || t)::uuid, md5('t' || t)::uuid, 'Rule'
+FROM generate_series(1, 5000) t;
+
+INSERT INTO split_rule_allocation (id, split_rule_id, template_participant_id, percent)
+SELECT md5('a' || t || '-' || k)::uuid, md5('r' || t)::uuid, md5('p' || t || '-' || k)::uuid, 33.33
+FROM generate_series(1, 5000) t, generate_series(1, 3) k;
+
+INSERT INTO template_field (id, template_id, label, field_type, default_split_rule_id, display_order,
+                            default_amount, default_payer_participant_id)
+SELECT md5('f' || t || '-' || k)::uuid, md5('t' || t)::uuid, 'Field ' || k, 'SINGLE', md5('r' || t)::uuid, k,
+       10.00, md5('p' || t || '-1')::uuid
+FROM generate_series(1, 5000) t, generate_series(1, 2) k;
+
+INSERT INTO template_field_default_participant_amount (template_field_id, template_participant_id, amount)
+SELECT md5('f' || t || '-' || k)::uuid, md5('p' || t || '-1')::uuid, 10.00
+FROM generate_series(1, 5000) t, generate_series(1, 2) k;
+
+INSERT INTO template_instance (id, template_id, name, status, created_at)
+SELECT md5('i' || t || '-' || k)::uuid, md5('t' || t)::uuid, 'Instance ' || k,
+       CASE WHEN k = 1 THEN 'SETTLED' ELSE 'IN_PROGRESS' END, now() - (t * 2 + k) * interval '1 minute'
+FROM generate_series(1, 5000) t, generate_series(1, 2) k;
+
+INSERT INTO instance_field_value (id, instance_id, template_field_id, amount, entry_date, split_mode,
+                                  payer_participant_id, created_at)
+SELECT md5('v' || t || '-' || k || '-' || n)::uuid, md5('i' || t || '-' || k)::uuid,
+       md5('f' || t || '-' || (n % 2 + 1))::uuid, 30.00, date '2024-01-01' + n, 'TEMPLATE_FIELD_PERCENT_SPLIT',
+       md5('p' || t || '-1')::uuid, now() - n * interval '1 second'
+FROM generate_series(1, 5000) t, generate_series(1, 2) k, generate_series(1, 5) n;
+
+INSERT INTO participant_entry_amount (id, entry_id, template_participant_id, amount)
+SELECT md5('e' || t || '-' || k || '-' || n || '-' || p)::uuid, md5('v' || t || '-' || k || '-' || n)::uuid,
+       md5('p' || t || '-' || p)::uuid, 10.00
+FROM generate_series(1, 5000) t, generate_series(1, 2) k, generate_series(1, 5) n, generate_series(1, 3) p;
+
+INSERT INTO instance_participant_balance (instance_id, template_participant_id, share_total, paid_total)
+SELECT md5('i' || t || '-' || k)::uuid, md5('p' || t || '-' || p)::uuid, 50.00, 0
+FROM generate_series(1, 5000) t, generate_series(1, 2) k, generate_series(1, 3) p;
+
+INSERT INTO settlement_transfer (instance_id, from_participant_id, to_participant_id, amount)
+SELECT md5('i' || t || '-' || k)::uuid, md5('p' || t || '-2')::uuid, md5('p' || t || '-1')::uuid, 50.00
+FROM generate_series(1, 5000) t, generate_series(1, 2) k;
+
+INSERT INTO instance_settlement_summary (instance_id, settled_at, totals)
+SELECT md5('i' || t || '-1')::uuid, now() - t * interval '1 minute',
+       '{"shares": {}, "paid": {}, "net": {}, "fields": []}'::jsonb
+FROM generate_series(1, 5000) t;
+
+ANALYZE;